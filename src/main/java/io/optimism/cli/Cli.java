@@ -43,13 +43,19 @@ public class Cli implements Runnable {
             description = "network type, or rollup.json file path, support: optimism-goerli, base-goerli")
     String network;
 
-    @Option(names = "--l1-rpc-url", required = true, description = "The l1 chain RPC URL")
+    @Option(
+            names = "--l1-rpc-url",
+            required = true,
+            description = "The l1 chain RPC URLs separated by comma, the healthiest one is requested first")
     String l1RpcUrl;
 
     @Option(names = "--l1-ws-rpc-url", required = true, description = "The l1 chain WS RPC URL")
     String l1WsRpcUrl;
 
-    @Option(names = "--l1-beacon-url", required = true, description = "The l1 chain beacon client RPC URL")
+    @Option(
+            names = "--l1-beacon-url",
+            required = true,
+            description = "The l1 chain beacon client RPC URLs separated by comma, the fastest one is requested first")
     String l1BeaconUrl;
 
     @Option(names = "--l1-beacon-archiver-url", description = "The l1 beacon chain archiver RPC URL")
@@ -130,6 +136,39 @@ public class Cli implements Runnable {
                     "Enable sequencing of new L2 blocks. A separate batch submitter has to be deployed to publish the data for verifiers.")
     Boolean sequencerEnable;
 
+    @Option(
+            names = "--l1-prefetch-window",
+            description = "The number of L1 blocks fetched concurrently ahead of the current block while catching up")
+    Integer l1PrefetchWindow;
+
+    @Option(
+            names = "--l1-rpc-max-batch-size",
+            description = "The max number of requests packed into one L1 JSON-RPC batch request while catching up")
+    Integer l1RpcMaxBatchSize;
+
+    @Option(
+            names = "--l1-blob-cache-dir",
+            description = "The directory of the on-disk blob sidecar cache, blobs are not cached if not set")
+    String l1BlobCacheDir;
+
+    @Option(names = "--l1-blob-cache-size", description = "The max size in MB of the on-disk blob sidecar cache")
+    Integer l1BlobCacheSize;
+
+    @Option(
+            names = "--l1-beacon-hedge-delay",
+            description = "The milliseconds to wait for a blob sidecars request before requesting the next beacon"
+                    + " client or the archiver concurrently, 0 to request them one after another")
+    Integer l1BeaconHedgeDelay;
+
+    @Option(
+            names = "--l1-rpc-hedge-delay",
+            description = "The milliseconds to wait for an l1 RPC read before requesting the next l1 RPC URL"
+                    + " concurrently, 0 to only fail over to it on errors")
+    Integer l1RpcHedgeDelay;
+
+    @Option(names = "--l1-block-store-size", description = "The max size in MB of the in-memory L1 block store")
+    Integer l1BlockStoreSize;
+
     @Option(
             names = "--log-level",
             defaultValue = "INFO",
@@ -238,6 +277,13 @@ public class Cli implements Runnable {
                 cli.discPort,
                 cli.syncMode,
                 cli.sequencerEnable,
-                cli.devnet);
+                cli.devnet,
+                cli.l1PrefetchWindow,
+                cli.l1RpcMaxBatchSize,
+                cli.l1BlobCacheDir,
+                cli.l1BlobCacheSize,
+                cli.l1BeaconHedgeDelay,
+                cli.l1RpcHedgeDelay,
+                cli.l1BlockStoreSize);
     }
 }
@@ -35,9 +35,9 @@ import org.web3j.utils.Numeric;
 /**
  * The type Config.
  *
- * @param l1RpcUrl            L1 chain rpc url.
+ * @param l1RpcUrl            L1 chain rpc urls, separated by comma.
  * @param l1WsRpcUrl          L1 chain websocket rpc url.
- * @param l1BeaconUrl         L1 beacon chain rpc url.
+ * @param l1BeaconUrl         L1 beacon chain rpc urls, separated by comma.
  * @param l1BeaconArchiverUrl L1 beacon chain archiver rpc url.
  * @param l2RpcUrl            L2 chain rpc url.
  * @param l2EngineUrl         L2 engine API url.
@@ -50,6 +50,13 @@ import org.web3j.utils.Numeric;
  * @param devnet              The flag of devnet.
  * @param sequencerEnable     The flag of sequencerEnable.
  * @param syncMode            The sync mode
+ * @param l1PrefetchWindow    The number of L1 blocks fetched ahead of the current block.
+ * @param l1RpcMaxBatchSize   The max number of requests in one L1 JSON-RPC batch request.
+ * @param l1BlobCacheDir      The directory of the on-disk blob sidecar cache, disabled if empty.
+ * @param l1BlobCacheSize     The max size in MB of the on-disk blob sidecar cache.
+ * @param l1BeaconHedgeDelay  The milliseconds to wait for a beacon client before requesting the next one.
+ * @param l1RpcHedgeDelay     The milliseconds to wait for an L1 rpc read before requesting the next url.
+ * @param l1BlockStoreSize    The max size in MB of the in-memory L1 block store.
  * @param chainConfig         The chain config.
  * @author grapebaba
  * @since 0.1.0
@@ -70,6 +77,13 @@ public record Config(
         Boolean devnet,
         Boolean sequencerEnable,
         SyncMode syncMode,
+        Integer l1PrefetchWindow,
+        Integer l1RpcMaxBatchSize,
+        String l1BlobCacheDir,
+        Integer l1BlobCacheSize,
+        Integer l1BeaconHedgeDelay,
+        Integer l1RpcHedgeDelay,
+        Integer l1BlockStoreSize,
         ChainConfig chainConfig) {
 
     private static final int MAX_CHANNEL_SIZE_BEDROCK = 100_000_000;
@@ -160,13 +174,20 @@ public record Config(
         defaultProvider.put("config.rpcPort", "9545");
         defaultProvider.put("config.rpcAddr", "0.0.0.0");
         defaultProvider.put("config.discPort", "9876");
+        defaultProvider.put("config.l1PrefetchWindow", "8");
+        defaultProvider.put("config.l1RpcMaxBatchSize", "4");
+        defaultProvider.put("config.l1BlobCacheDir", "");
+        defaultProvider.put("config.l1BlobCacheSize", "2048");
+        defaultProvider.put("config.l1BeaconHedgeDelay", "500");
+        defaultProvider.put("config.l1RpcHedgeDelay", "0");
+        defaultProvider.put("config.l1BlockStoreSize", "256");
         return defaultProvider;
     }
 
     /**
      * The type Cli config.
      *
-     * @param l1RpcUrl            L1 chain rpc url.
+     * @param l1RpcUrl            L1 chain rpc urls, separated by comma.
      * @param l1WsRpcUrl          L1 chain websocket rpc url.
      * @param l1BeaconUrl         L1 chain beacon client API rpc url.
      * @param l1BeaconArchiverUrl L1 chain beacon archiver API rpc url.
@@ -181,6 +202,13 @@ public record Config(
      * @param syncMode            The sync mode.
      * @param sequencerEnable     The sequencer enable flag.
      * @param devnet              The devnet flag.
+     * @param l1PrefetchWindow    The number of L1 blocks fetched ahead of the current block.
+     * @param l1RpcMaxBatchSize   The max number of requests in one L1 JSON-RPC batch request.
+     * @param l1BlobCacheDir      The directory of the on-disk blob sidecar cache, disabled if empty.
+     * @param l1BlobCacheSize     The max size in MB of the on-disk blob sidecar cache.
+     * @param l1BeaconHedgeDelay  The milliseconds to wait for a beacon client before requesting the next one.
+     * @param l1RpcHedgeDelay     The milliseconds to wait for an L1 rpc read before requesting the next url.
+     * @param l1BlockStoreSize    The max size in MB of the in-memory L1 block store.
      */
     public record CliConfig(
             String l1RpcUrl,
@@ -197,7 +225,14 @@ public record Config(
             Integer discPort,
             SyncMode syncMode,
             Boolean sequencerEnable,
-            Boolean devnet) {
+            Boolean devnet,
+            Integer l1PrefetchWindow,
+            Integer l1RpcMaxBatchSize,
+            String l1BlobCacheDir,
+            Integer l1BlobCacheSize,
+            Integer l1BeaconHedgeDelay,
+            Integer l1RpcHedgeDelay,
+            Integer l1BlockStoreSize) {
 
         /**
          * To configMap.
@@ -247,6 +282,27 @@ public record Config(
             }
             map.put("config.sequencerEnable", String.valueOf(sequencerEnable != null && sequencerEnable));
             map.put("config.devnet", String.valueOf(devnet != null && devnet));
+            if (l1PrefetchWindow != null) {
+                map.put("config.l1PrefetchWindow", l1PrefetchWindow.toString());
+            }
+            if (l1RpcMaxBatchSize != null) {
+                map.put("config.l1RpcMaxBatchSize", l1RpcMaxBatchSize.toString());
+            }
+            if (StringUtils.isNotEmpty(l1BlobCacheDir)) {
+                map.put("config.l1BlobCacheDir", l1BlobCacheDir);
+            }
+            if (l1BlobCacheSize != null) {
+                map.put("config.l1BlobCacheSize", l1BlobCacheSize.toString());
+            }
+            if (l1BeaconHedgeDelay != null) {
+                map.put("config.l1BeaconHedgeDelay", l1BeaconHedgeDelay.toString());
+            }
+            if (l1RpcHedgeDelay != null) {
+                map.put("config.l1RpcHedgeDelay", l1RpcHedgeDelay.toString());
+            }
+            if (l1BlockStoreSize != null) {
+                map.put("config.l1BlockStoreSize", l1BlockStoreSize.toString());
+            }
             return map;
         }
     }
@@ -312,6 +368,18 @@ public record Config(
                     && time.subtract(this.blockTime).compareTo(ecotoneTime) < 0;
         }
 
+        /**
+         * Checking if the time is the ecotone activation block.
+         *
+         * @param time block time
+         * @return true if the time is the ecotone activation block, otherwise false.
+         */
+        public boolean isEcotoneActivationBlock(long time) {
+            return isEcotone(time)
+                    && time >= this.blockTime.longValue()
+                    && time - this.blockTime.longValue() < ecotoneTime.longValue();
+        }
+
         /**
          * Check if the time is the ecotone activation block.
          *
@@ -322,6 +390,16 @@ public record Config(
             return ecotoneTime.compareTo(BigInteger.ZERO) >= 0 && time.compareTo(ecotoneTime) >= 0;
         }
 
+        /**
+         * Check if the time is the ecotone activation block.
+         *
+         * @param time the block timestamp
+         * @return true if the time is the ecotone activation block, otherwise false.
+         */
+        public boolean isEcotone(long time) {
+            return ecotoneTime.signum() >= 0 && time >= ecotoneTime.longValue();
+        }
+
         /**
          * Check if the time is the ecotone activation block and not the first ecotone block.
          *
@@ -342,6 +420,16 @@ public record Config(
             return fjordTime.compareTo(BigInteger.ZERO) >= 0 && time.compareTo(fjordTime) >= 0;
         }
 
+        /**
+         * Check if the time is the fjord activation block.
+         *
+         * @param time the block timestamp
+         * @return true if the time is the fjord activation block, otherwise false.
+         */
+        public boolean isFjord(long time) {
+            return fjordTime.signum() >= 0 && time >= fjordTime.longValue();
+        }
+
         /**
          * Check if the time is the fjord activation block.
          *
@@ -354,6 +442,18 @@ public record Config(
                     && time.subtract(blockTime).compareTo(fjordTime) < 0;
         }
 
+        /**
+         * Check if the time is the fjord activation block.
+         *
+         * @param time the block timestamp
+         * @return true if the time is the fjord activation block, otherwise false.
+         */
+        public boolean isFjordActivationBlock(long time) {
+            return isFjord(time)
+                    && time >= blockTime.longValue()
+                    && time - blockTime.longValue() < fjordTime.longValue();
+        }
+
         /**
          * Check if the time is the granite activation block.
          *
@@ -408,6 +508,16 @@ public record Config(
             return canyonTime.compareTo(BigInteger.ZERO) >= 0 && time.compareTo(canyonTime) >= 0;
         }
 
+        /**
+         * Check if the time is the canyon activation block.
+         *
+         * @param time the block timestamp
+         * @return true if the time is the canyon activation block, otherwise false.
+         */
+        public boolean isCanyon(long time) {
+            return canyonTime.signum() >= 0 && time >= canyonTime.longValue();
+        }
+
         /**
          * Max channel size int.
          *
@@ -428,6 +538,16 @@ public record Config(
             return isFjord(time) ? BigInteger.valueOf(MAX_SEQUENCER_DRIFT_FJORD) : this.maxSeqDrift();
         }
 
+        /**
+         * Max sequencer drift in seconds.
+         *
+         * @param time the time
+         * @return the max sequencer drift
+         */
+        public long maxSequencerDrift(long time) {
+            return isFjord(time) ? MAX_SEQUENCER_DRIFT_FJORD : this.maxSeqDrift().longValue();
+        }
+
         /**
          * Gets Channel timeout.
          *
@@ -0,0 +1,176 @@
+package io.optimism.derive;
+
+import java.util.function.Consumer;
+
+/**
+ * A ring buffer of values indexed by block number, holding a contiguous range of block numbers.
+ *
+ * <p>A value is put at any block number, the range of the ring is extended to the block number and
+ * the other block numbers of the extended range are empty. The capacity of the ring is
+ * grown when the range is longer than the capacity, and the ring is cleared when the range would
+ * be longer than the max capacity. The removed values are passed to the removal listener.
+ *
+ * @param <T> the type of the values
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+public final class BlockRing<T> {
+
+    /** The max capacity of a ring. */
+    public static final int MAX_CAPACITY = 1 << 20;
+
+    private final Consumer<T> removalListener;
+
+    private Object[] values;
+
+    private int mask;
+
+    private long first;
+
+    private long end;
+
+    /**
+     * Instantiates a new BlockRing.
+     *
+     * @param capacity the initial capacity, rounded up to a power of two
+     * @param removalListener the listener of the removed values
+     */
+    public BlockRing(int capacity, Consumer<T> removalListener) {
+        this.removalListener = removalListener;
+        this.values = new Object[capacityFor(Math.max(1L, capacity))];
+        this.mask = this.values.length - 1;
+    }
+
+    /**
+     * Gets the value of the block number.
+     *
+     * @param number the block number
+     * @return the value, or null if the block number has no value
+     */
+    @SuppressWarnings("unchecked")
+    public T get(long number) {
+        if (number < this.first || number >= this.end) {
+            return null;
+        }
+        return (T) this.values[this.index(number)];
+    }
+
+    /**
+     * Put the value of the block number.
+     *
+     * @param number the block number
+     * @param value the value
+     */
+    public void put(long number, T value) {
+        if (this.isEmpty()) {
+            this.first = number;
+            this.end = number;
+        }
+        final long newFirst = Math.min(this.first, number);
+        final long newEnd = Math.max(this.end, number + 1);
+        if (newEnd - newFirst > MAX_CAPACITY) {
+            this.clear();
+            this.put(number, value);
+            return;
+        }
+        if (newEnd - newFirst > this.values.length) {
+            this.grow(capacityFor(newEnd - newFirst));
+        }
+        this.first = newFirst;
+        this.end = newEnd;
+        // the replaced value is removed
+        this.remove(number);
+        this.values[this.index(number)] = value;
+    }
+
+    /**
+     * Remove the values of the block numbers before the block number.
+     *
+     * @param number the block number
+     */
+    public void removeBefore(long number) {
+        final long until = Math.min(number, this.end);
+        for (; this.first < until; this.first++) {
+            this.remove(this.first);
+        }
+    }
+
+    /**
+     * Remove the values of the block numbers after the block number.
+     *
+     * @param number the block number
+     */
+    public void removeAfter(long number) {
+        final long from = Math.max(number + 1, this.first);
+        for (; this.end > from; this.end--) {
+            this.remove(this.end - 1);
+        }
+    }
+
+    /** Remove all values. */
+    public void clear() {
+        for (long number = this.first; number < this.end; number++) {
+            this.remove(number);
+        }
+        this.first = 0L;
+        this.end = 0L;
+    }
+
+    /**
+     * Checks the ring has no block numbers.
+     *
+     * @return true if the ring has no block numbers, otherwise false
+     */
+    public boolean isEmpty() {
+        return this.first >= this.end;
+    }
+
+    /**
+     * Gets the first block number of the ring.
+     *
+     * @return the first block number
+     */
+    public long first() {
+        return this.first;
+    }
+
+    /**
+     * Gets the block number after the last block number of the ring.
+     *
+     * @return the block number after the last block number
+     */
+    public long end() {
+        return this.end;
+    }
+
+    private int index(long number) {
+        return (int) (number & this.mask);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void remove(long number) {
+        final int index = this.index(number);
+        final Object value = this.values[index];
+        if (value != null) {
+            this.values[index] = null;
+            this.removalListener.accept((T) value);
+        }
+    }
+
+    private void grow(int capacity) {
+        final Object[] grown = new Object[capacity];
+        final int grownMask = capacity - 1;
+        for (long number = this.first; number < this.end; number++) {
+            grown[(int) (number & grownMask)] = this.values[this.index(number)];
+        }
+        this.values = grown;
+        this.mask = grownMask;
+    }
+
+    private static int capacityFor(long size) {
+        if (size <= 1) {
+            return 1;
+        }
+        return size >= MAX_CAPACITY ? MAX_CAPACITY : Integer.highestOneBit((int) size - 1) << 1;
+    }
+}
@@ -0,0 +1,57 @@
+package io.optimism.derive;
+
+import io.optimism.types.Epoch;
+import io.optimism.types.Hash32;
+import io.optimism.types.L1Info;
+import java.math.BigInteger;
+
+/**
+ * The compact reference of an L1 block used as an epoch by the derivation stages.
+ *
+ * @param number L1 block number.
+ * @param hash L1 block hash.
+ * @param timestamp L1 block timestamp.
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+public record EpochRef(long number, Hash32 hash, long timestamp) {
+
+    /**
+     * Create epoch ref from the epoch.
+     *
+     * @param epoch the epoch
+     * @return the epoch ref
+     */
+    public static EpochRef from(Epoch epoch) {
+        return new EpochRef(
+                epoch.number().longValueExact(),
+                Hash32.fromHexString(epoch.hash()),
+                epoch.timestamp().longValueExact());
+    }
+
+    /**
+     * Create epoch ref from the L1 info.
+     *
+     * @param l1Info the L1 info
+     * @return the epoch ref
+     */
+    public static EpochRef from(L1Info l1Info) {
+        return new EpochRef(
+                l1Info.blockInfo().number().longValueExact(),
+                Hash32.fromHexString(l1Info.blockInfo().hash()),
+                l1Info.blockInfo().timestamp().longValueExact());
+    }
+
+    /**
+     * Gets the epoch of the epoch ref, the sequence number of the epoch is not set.
+     *
+     * @return the epoch
+     */
+    public Epoch toEpoch() {
+        return new Epoch(
+                BigInteger.valueOf(this.number),
+                this.hash == null ? null : this.hash.toHexString(),
+                BigInteger.valueOf(this.timestamp),
+                null);
+    }
+}
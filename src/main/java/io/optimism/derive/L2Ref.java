@@ -0,0 +1,35 @@
+package io.optimism.derive;
+
+import io.optimism.types.BlockInfo;
+import io.optimism.types.Epoch;
+import io.optimism.types.Hash32;
+
+/**
+ * The compact reference of an L2 block and its L1 origin used by the derivation stages.
+ *
+ * @param number L2 block number.
+ * @param hash L2 block hash.
+ * @param timestamp L2 block timestamp.
+ * @param l1Origin the L1 origin of the block.
+ * @param sequenceNumber the sequence number of the block in the epoch, zero if not known.
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+public record L2Ref(long number, Hash32 hash, long timestamp, EpochRef l1Origin, long sequenceNumber) {
+
+    /**
+     * Create L2 ref from the L2 block info and its epoch.
+     *
+     * @param blockInfo the L2 block info
+     * @param epoch the epoch of the L2 block
+     * @return the L2 ref
+     */
+    public static L2Ref from(BlockInfo blockInfo, Epoch epoch) {
+        return new L2Ref(
+                blockInfo.number().longValueExact(),
+                Hash32.fromHexString(blockInfo.hash()),
+                blockInfo.timestamp().longValueExact(),
+                EpochRef.from(epoch),
+                epoch.sequenceNumber() == null ? 0L : epoch.sequenceNumber().longValueExact());
+    }
+}
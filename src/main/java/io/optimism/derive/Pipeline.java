@@ -6,6 +6,7 @@ import io.optimism.derive.stages.BatcherTransactions;
 import io.optimism.derive.stages.BatcherTransactions.BatcherTransactionMessage;
 import io.optimism.derive.stages.Batches;
 import io.optimism.derive.stages.Channels;
+import io.optimism.derive.stages.DecodedChannels;
 import io.optimism.types.ExecutionPayload.PayloadAttributes;
 import java.math.BigInteger;
 import java.util.List;
@@ -40,7 +41,9 @@ public class Pipeline implements PurgeableIterator<PayloadAttributes> {
         batcherTransactionQueue = new MpscUnboundedXaddArrayQueue<>(1024 * 64);
         BatcherTransactions batcherTransactions = new BatcherTransactions(batcherTransactionQueue);
         Channels<BatcherTransactions> channels = Channels.create(batcherTransactions, config, state);
-        Batches<Channels<BatcherTransactions>> batches = Batches.create(channels, state, config);
+        DecodedChannels<Channels<BatcherTransactions>> decodedChannels = DecodedChannels.create(channels, config);
+        Batches<DecodedChannels<Channels<BatcherTransactions>>> batches =
+                Batches.create(decodedChannels, state, config);
         attributes = new Attributes<>(batches, state, config, sequenceNumber);
     }
 
@@ -80,4 +83,14 @@ public class Pipeline implements PurgeableIterator<PayloadAttributes> {
     public void purge() {
         this.attributes.purge();
     }
+
+    @Override
+    public boolean rollback(BigInteger l1Block) {
+        if (this.pendingAttributes != null
+                && (this.pendingAttributes.l1InclusionBlock() == null
+                        || this.pendingAttributes.l1InclusionBlock().compareTo(l1Block) > 0)) {
+            this.pendingAttributes = null;
+        }
+        return this.attributes.rollback(l1Block);
+    }
 }
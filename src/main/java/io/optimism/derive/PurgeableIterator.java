@@ -1,5 +1,7 @@
 package io.optimism.derive;
 
+import java.math.BigInteger;
+
 /**
  * The interface PurgeableIterator is an iterator that can purge itself.
  *
@@ -12,6 +14,16 @@ public interface PurgeableIterator<E> {
     /** Purge. */
     void purge();
 
+    /**
+     * Roll back the data derived from L1 blocks after the given block, after an L1 reorg.
+     *
+     * @param l1Block the last L1 block that is still canonical
+     * @return true if rolled back, false if the data can not be rolled back and must be purged
+     */
+    default boolean rollback(BigInteger l1Block) {
+        return false;
+    }
+
     /**
      * Next e.
      *
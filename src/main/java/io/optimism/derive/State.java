@@ -1,23 +1,35 @@
 package io.optimism.derive;
 
+import com.google.common.collect.Lists;
 import io.optimism.config.Config;
 import io.optimism.driver.HeadInfo;
 import io.optimism.driver.L1AttributesDepositedTxNotFoundException;
 import io.optimism.types.BlockInfo;
 import io.optimism.types.Epoch;
+import io.optimism.types.Hash32;
 import io.optimism.types.L1Info;
+import io.optimism.utilities.web3j.Web3jUtil;
+import java.io.IOException;
 import java.math.BigInteger;
-import java.util.Map.Entry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.TreeMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.StructuredTaskScope;
 import java.util.function.BiFunction;
-import org.apache.commons.lang3.StringUtils;
+import java.util.function.LongPredicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthTransaction;
+import org.web3j.protocol.core.methods.response.Transaction;
 import org.web3j.tuples.generated.Tuple2;
 
 /**
@@ -30,18 +42,32 @@ public class State {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(State.class);
 
-    private final TreeMap<String, L1Info> l1Info;
+    private static final int L2_REFS_PARALLELISM = 16;
 
-    private final TreeMap<BigInteger, String> l1Hashes;
+    private static final int L2_REFS_BATCH_SIZE = 20;
 
-    private final TreeMap<BigInteger, Tuple2<BlockInfo, Epoch>> l2Refs;
+    private static final int L2_PREFETCH_PARALLELISM = 16;
+
+    private static final ExecutorService L2_PREFETCHER = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final HashMap<Hash32, L1Info> l1Info;
+
+    private final BlockRing<EpochRef> l1Refs;
+
+    private final BlockRing<L2Ref> l2Refs;
 
     private final BiFunction<DefaultBlockParameter, Boolean, Tuple2<BlockInfo, Epoch>> l2Fetcher;
 
+    private final HashMap<Long, Future<Tuple2<BlockInfo, Epoch>>> l2Prefetching;
+
+    private final Semaphore l2PrefetchPermits;
+
     private BlockInfo safeHead;
 
     private Epoch safeEpoch;
 
+    private L2Ref safeHeadRef;
+
     private BigInteger currentEpochNum;
 
     private final Config config;
@@ -49,8 +75,6 @@ public class State {
     /**
      * Instantiates a new State.
      *
-     * @param l1Info the L1 info
-     * @param l1Hashes the L1 hashes
      * @param l2Refs the L2 block info references
      * @param l2Fetcher the L2 block info fetcher
      * @param safeHead the safe head
@@ -59,20 +83,26 @@ public class State {
      * @param config the config
      */
     public State(
-            TreeMap<String, L1Info> l1Info,
-            TreeMap<BigInteger, String> l1Hashes,
             TreeMap<BigInteger, Tuple2<BlockInfo, Epoch>> l2Refs,
             BiFunction<DefaultBlockParameter, Boolean, Tuple2<BlockInfo, Epoch>> l2Fetcher,
             BlockInfo safeHead,
             Epoch safeEpoch,
             BigInteger currentEpochNum,
             Config config) {
-        this.l1Info = l1Info;
-        this.l1Hashes = l1Hashes;
-        this.l2Refs = l2Refs;
+        final Config.ChainConfig chainConfig = config.chainConfig();
+        this.l1Info = new HashMap<>();
+        // the L1 refs are kept for the sequence window, and the L2 refs for the max sequencer drift
+        this.l1Refs = new BlockRing<>(
+                chainConfig.seqWindowSize().intValue() + 1, ref -> this.l1Info.remove(ref.hash()));
+        this.l2Refs = new BlockRing<>(
+                chainConfig.maxSeqDrift().divide(chainConfig.blockTime()).intValue() + 1, ref -> {});
+        l2Refs.values().forEach(ref -> this.putL2Ref(ref.component1(), ref.component2()));
         this.l2Fetcher = l2Fetcher;
+        this.l2Prefetching = new HashMap<>();
+        this.l2PrefetchPermits = new Semaphore(L2_PREFETCH_PARALLELISM);
         this.safeHead = safeHead;
         this.safeEpoch = safeEpoch;
+        this.safeHeadRef = toL2Ref(safeHead, safeEpoch);
         this.currentEpochNum = currentEpochNum;
         this.config = config;
     }
@@ -93,15 +123,7 @@ public class State {
             BlockInfo finalizedHead,
             Epoch finalizedEpoch,
             Config config) {
-        return new State(
-                new TreeMap<>(),
-                new TreeMap<>(),
-                l2Refs,
-                l2Fetcher,
-                finalizedHead,
-                finalizedEpoch,
-                BigInteger.ZERO,
-                config);
+        return new State(l2Refs, l2Fetcher, finalizedHead, finalizedEpoch, BigInteger.ZERO, config);
     }
 
     /**
@@ -111,7 +133,7 @@ public class State {
      * @return the l 1 info
      */
     public L1Info l1Info(String hash) {
-        return l1Info.get(hash);
+        return l1Info.get(Hash32.fromHexString(hash));
     }
 
     /**
@@ -121,32 +143,86 @@ public class State {
      * @return the l 1 info
      */
     public L1Info l1Info(BigInteger number) {
-        String hash = l1Hashes.get(number);
-        if (StringUtils.isEmpty(hash)) {
+        return l1Info(number.longValue());
+    }
+
+    /**
+     * L1 info l1 info.
+     *
+     * @param number the number
+     * @return the l 1 info
+     */
+    public L1Info l1Info(long number) {
+        EpochRef ref = l1Refs.get(number);
+        if (ref == null) {
             return null;
         }
-        return l1Info.get(l1Hashes.get(number));
+        return l1Info.get(ref.hash());
     }
 
     /**
-     * Gets L2 block info and epoch by block timestamp.
+     * Gets L2 block reference by block timestamp.
      *
-     * @param timestamp the number
-     * @return the tuple of L2 block info and epoch
+     * @param timestamp the block timestamp
+     * @return the L2 block reference
      */
-    public Tuple2<BlockInfo, Epoch> l2Info(BigInteger timestamp) {
-        final BigInteger blockNum = timestamp
-                .subtract(config.chainConfig().l2Genesis().timestamp())
-                .divide(config.chainConfig().blockTime())
-                .add(config.chainConfig().l2Genesis().number());
+    public L2Ref l2Ref(long timestamp) {
+        final long blockNum = this.l2BlockNum(timestamp);
         var cache = l2Refs.get(blockNum);
         if (cache != null) {
             return cache;
         }
-        LOGGER.warn("L2 refs cache not contains, will fetch from geth: blockNum = {}", blockNum);
-        var res = l2Fetcher.apply(DefaultBlockParameter.valueOf(blockNum), true);
-        this.l2Refs.put(res.component1().number(), res);
-        return res;
+        Tuple2<BlockInfo, Epoch> res = null;
+        final Future<Tuple2<BlockInfo, Epoch>> prefetching = this.l2Prefetching.remove(blockNum);
+        if (prefetching != null) {
+            try {
+                res = prefetching.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.warn("interrupted while waiting for prefetched L2 ref: blockNum = {}", blockNum);
+            } catch (ExecutionException e) {
+                LOGGER.warn("failed to prefetch L2 ref: blockNum = {}", blockNum, e.getCause());
+            }
+        }
+        if (res == null) {
+            LOGGER.warn("L2 refs cache not contains, will fetch from geth: blockNum = {}", blockNum);
+            res = l2Fetcher.apply(DefaultBlockParameter.valueOf(BigInteger.valueOf(blockNum)), true);
+            if (res == null) {
+                return null;
+            }
+        }
+        return this.putL2Ref(res.component1(), res.component2());
+    }
+
+    /**
+     * Prefetch the L2 block references of the timestamp range in the background, the references
+     * after the safe head are not prefetched.
+     *
+     * @param fromTimestamp the first block timestamp
+     * @param toTimestamp the last block timestamp
+     */
+    public void prefetchL2Refs(long fromTimestamp, long toTimestamp) {
+        if (this.safeHeadRef == null) {
+            return;
+        }
+        final long from = Math.max(
+                this.l2BlockNum(fromTimestamp),
+                this.config.chainConfig().l2Genesis().number().longValue());
+        final long to = Math.min(this.l2BlockNum(toTimestamp), this.safeHeadRef.number());
+        for (long blockNum = from; blockNum <= to; blockNum++) {
+            if (this.l2Refs.get(blockNum) != null || this.l2Prefetching.containsKey(blockNum)) {
+                continue;
+            }
+            final DefaultBlockParameter blockParameter = DefaultBlockParameter.valueOf(BigInteger.valueOf(blockNum));
+            this.l2Prefetching.put(blockNum, L2_PREFETCHER.submit(() -> {
+                this.l2PrefetchPermits.acquire();
+                try {
+                    return this.l2Fetcher.apply(blockParameter, true);
+                } finally {
+                    this.l2PrefetchPermits.release();
+                }
+            }));
+        }
     }
 
     /**
@@ -156,12 +232,7 @@ public class State {
      * @return the epoch
      */
     public Epoch epoch(String hash) {
-        L1Info l1Info = l1Info(hash);
-        return new Epoch(
-                l1Info.blockInfo().number(),
-                l1Info.blockInfo().hash(),
-                l1Info.blockInfo().timestamp(),
-                null);
+        return EpochRef.from(l1Info(hash)).toEpoch();
     }
 
     /**
@@ -171,15 +242,18 @@ public class State {
      * @return the epoch
      */
     public Epoch epoch(BigInteger number) {
-        L1Info l1Info = l1Info(number);
-        if (l1Info == null) {
-            return null;
-        }
-        return new Epoch(
-                l1Info.blockInfo().number(),
-                l1Info.blockInfo().hash(),
-                l1Info.blockInfo().timestamp(),
-                null);
+        EpochRef ref = epochRef(number.longValue());
+        return ref == null ? null : ref.toEpoch();
+    }
+
+    /**
+     * Gets the epoch reference by L1 block number.
+     *
+     * @param number the L1 block number
+     * @return the epoch reference
+     */
+    public EpochRef epochRef(long number) {
+        return l1Refs.get(number);
     }
 
     /**
@@ -188,9 +262,10 @@ public class State {
      * @param l1Info the l 1 info
      */
     public void updateL1Info(L1Info l1Info) {
+        final EpochRef ref = EpochRef.from(l1Info);
         this.currentEpochNum = l1Info.blockInfo().number();
-        this.l1Hashes.put(l1Info.blockInfo().number(), l1Info.blockInfo().hash());
-        this.l1Info.put(l1Info.blockInfo().hash(), l1Info);
+        this.l1Refs.put(ref.number(), ref);
+        this.l1Info.put(ref.hash(), l1Info);
 
         this.prune();
     }
@@ -205,12 +280,31 @@ public class State {
         LOGGER.info("purge state: safeHead.number={}, safeEpoch. ={}", safeHead.number(), safeEpoch.hash());
         this.safeHead = safeHead;
         this.safeEpoch = safeEpoch;
+        this.l1Refs.clear();
         this.l1Info.clear();
-        this.l1Hashes.clear();
+        this.cancelL2Prefetching(blockNum -> true);
         this.currentEpochNum = BigInteger.ZERO;
         this.updateSafeHead(safeHead, safeEpoch);
     }
 
+    /**
+     * Roll back the L1 blocks after the common ancestor of an L1 reorg, and the safe head to a block
+     * derived from the kept L1 blocks.
+     *
+     * @param l1Block the last L1 block that is still canonical
+     * @param safeHead the safe head
+     * @param safeEpoch the safe epoch
+     */
+    public void rollback(BigInteger l1Block, BlockInfo safeHead, Epoch safeEpoch) {
+        LOGGER.info("rollback state: l1Block={}, safeHead.number={}", l1Block, safeHead.number());
+        this.l1Refs.removeAfter(l1Block.longValue());
+        this.currentEpochNum = this.currentEpochNum.min(l1Block);
+        final long safeHeadNum = safeHead.number().longValue();
+        this.l2Refs.removeAfter(safeHeadNum);
+        this.cancelL2Prefetching(blockNum -> blockNum > safeHeadNum);
+        this.updateSafeHead(safeHead, safeEpoch);
+    }
+
     /**
      * Update safe head.
      *
@@ -220,7 +314,7 @@ public class State {
     public void updateSafeHead(BlockInfo safeHead, Epoch safeEpoch) {
         this.safeHead = safeHead;
         this.safeEpoch = safeEpoch;
-        this.l2Refs.put(safeHead.number(), new Tuple2<>(safeHead, safeEpoch));
+        this.safeHeadRef = this.putL2Ref(safeHead, safeEpoch);
     }
 
     /**
@@ -239,6 +333,7 @@ public class State {
      */
     public void setSafeHead(BlockInfo safeHead) {
         this.safeHead = safeHead;
+        this.safeHeadRef = toL2Ref(safeHead, this.safeEpoch);
     }
 
     /**
@@ -257,6 +352,16 @@ public class State {
      */
     public void setSafeEpoch(Epoch safeEpoch) {
         this.safeEpoch = safeEpoch;
+        this.safeHeadRef = toL2Ref(this.safeHead, safeEpoch);
+    }
+
+    /**
+     * Gets the reference of the safe head, the L1 origin of the reference is the safe epoch.
+     *
+     * @return the safe head reference
+     */
+    public L2Ref getSafeHeadRef() {
+        return safeHeadRef;
     }
 
     /**
@@ -277,30 +382,44 @@ public class State {
         this.currentEpochNum = currentEpochNum;
     }
 
-    private void prune() {
-        BigInteger pruneUntil =
-                this.safeEpoch.number().subtract(config.chainConfig().seqWindowSize());
-        pruneUntil = pruneUntil.compareTo(BigInteger.ZERO) < 0 ? BigInteger.ZERO : pruneUntil;
-        Entry<BigInteger, String> blockNumAndHash;
-        while ((blockNumAndHash = this.l1Hashes.firstEntry()) != null) {
-            if (blockNumAndHash.getKey().compareTo(pruneUntil) >= 0) {
-                break;
+    private long l2BlockNum(long timestamp) {
+        final Config.ChainConfig chainConfig = this.config.chainConfig();
+        return (timestamp - chainConfig.l2Genesis().timestamp().longValue())
+                        / chainConfig.blockTime().longValue()
+                + chainConfig.l2Genesis().number().longValue();
+    }
+
+    private void cancelL2Prefetching(LongPredicate blockNums) {
+        this.l2Prefetching.entrySet().removeIf(prefetching -> {
+            if (blockNums.test(prefetching.getKey())) {
+                prefetching.getValue().cancel(true);
+                return true;
             }
-            this.l1Info.remove(blockNumAndHash.getValue());
-            this.l1Hashes.pollFirstEntry();
-        }
+            return false;
+        });
+    }
 
-        BigInteger maxSeqDrift = this.config.chainConfig().maxSequencerDrift(this.safeEpoch.timestamp());
-        pruneUntil = this.safeHead
-                .number()
-                .subtract(maxSeqDrift.divide(this.config.chainConfig().blockTime()));
+    private L2Ref putL2Ref(BlockInfo blockInfo, Epoch epoch) {
+        final L2Ref ref = L2Ref.from(blockInfo, epoch);
+        this.l2Refs.put(ref.number(), ref);
+        return ref;
+    }
 
-        Entry<BigInteger, Tuple2<BlockInfo, Epoch>> blockRefEntry;
-        while ((blockRefEntry = this.l2Refs.firstEntry()) != null) {
-            if (blockRefEntry.getKey().compareTo(pruneUntil) >= 0) {
-                break;
-            }
-            this.l2Refs.pollFirstEntry();
+    private static L2Ref toL2Ref(BlockInfo blockInfo, Epoch epoch) {
+        return blockInfo == null || epoch == null ? null : L2Ref.from(blockInfo, epoch);
+    }
+
+    private void prune() {
+        final Config.ChainConfig chainConfig = this.config.chainConfig();
+        final EpochRef safeEpochRef = this.safeHeadRef.l1Origin();
+        final long l1PruneUntil = Math.max(safeEpochRef.number() - chainConfig.seqWindowSize().longValue(), 0L);
+        this.l1Refs.removeBefore(l1PruneUntil);
+
+        final long maxSeqDrift = chainConfig.maxSequencerDrift(safeEpochRef.timestamp());
+        final long l2PruneUntil = this.safeHeadRef.number() - maxSeqDrift / chainConfig.blockTime().longValue();
+        this.l2Refs.removeBefore(l2PruneUntil);
+        if (!this.l2Prefetching.isEmpty()) {
+            this.cancelL2Prefetching(blockNum -> blockNum < l2PruneUntil);
         }
     }
 
@@ -325,30 +444,70 @@ public class State {
         } else {
             start = headNum.subtract(lookback).max(chainConfig.l2Genesis().number());
         }
-        final TreeMap<BigInteger, Tuple2<BlockInfo, Epoch>> l2Refs = new TreeMap<>();
+        final List<BigInteger> blockNums = new ArrayList<>();
         for (BigInteger i = start; i.compareTo(headNum) <= 0; i = i.add(BigInteger.ONE)) {
-            try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
-                var l2Num = i;
-                var blockTask =
-                        scope.fork(() -> l2Client.ethGetBlockByNumber(DefaultBlockParameter.valueOf(l2Num), true)
-                                .send()
-                                .getBlock());
-                scope.join();
-                scope.throwIfFailed();
-                EthBlock.Block block = blockTask.get();
-                if (block == null) {
-                    continue;
-                }
-                try {
-                    final HeadInfo l2BlockInfo = HeadInfo.from(block);
+            blockNums.add(i);
+        }
+        // the range is split into parts fetched concurrently, each part is fetched by batch requests
+        final int partSize = Math.max(1, (blockNums.size() + L2_REFS_PARALLELISM - 1) / L2_REFS_PARALLELISM);
+        final TreeMap<BigInteger, Tuple2<BlockInfo, Epoch>> l2Refs = new TreeMap<>();
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+            final List<StructuredTaskScope.Subtask<List<HeadInfo>>> tasks = new ArrayList<>();
+            for (List<BigInteger> part : Lists.partition(blockNums, partSize)) {
+                tasks.add(scope.fork(() -> fetchHeadInfos(part, l2Client)));
+            }
+            scope.join();
+            scope.throwIfFailed();
+            for (var task : tasks) {
+                for (HeadInfo headInfo : task.get()) {
                     l2Refs.put(
-                            l2BlockInfo.l2BlockInfo().number(),
-                            new Tuple2<>(l2BlockInfo.l2BlockInfo(), l2BlockInfo.l1Epoch()));
-                } catch (L1AttributesDepositedTxNotFoundException ignore) {
-                    LOGGER.debug("Can't found deposited transaction (at blockNum = %d)".formatted(i));
+                            headInfo.l2BlockInfo().number(), new Tuple2<>(headInfo.l2BlockInfo(), headInfo.l1Epoch()));
                 }
             }
         }
         return l2Refs;
     }
+
+    private static List<HeadInfo> fetchHeadInfos(List<BigInteger> blockNums, Web3j l2Client)
+            throws ExecutionException, InterruptedException, IOException {
+        // only the block headers and the L1 attributes deposited transactions are needed
+        final List<EthBlock> blocks = Web3jUtil.sendBatch(
+                l2Client,
+                blockNums.stream()
+                        .map(num -> l2Client.ethGetBlockByNumber(DefaultBlockParameter.valueOf(num), false))
+                        .toList(),
+                L2_REFS_BATCH_SIZE);
+        final List<EthTransaction> txs = Web3jUtil.sendBatch(
+                l2Client,
+                blockNums.stream()
+                        .map(num -> l2Client.ethGetTransactionByBlockNumberAndIndex(
+                                DefaultBlockParameter.valueOf(num), BigInteger.ZERO))
+                        .toList(),
+                L2_REFS_BATCH_SIZE);
+        final List<HeadInfo> headInfos = new ArrayList<>(blockNums.size());
+        for (int i = 0; i < blockNums.size(); i++) {
+            EthBlock.Block block = blocks.get(i).getBlock();
+            if (block == null) {
+                continue;
+            }
+            Transaction tx = txs.get(i).getTransaction().orElse(null);
+            try {
+                if (tx != null && !block.getHash().equalsIgnoreCase(tx.getBlockHash())) {
+                    // the block was replaced between the requests
+                    block = l2Client.ethGetBlockByNumber(DefaultBlockParameter.valueOf(blockNums.get(i)), true)
+                            .send()
+                            .getBlock();
+                    if (block == null) {
+                        continue;
+                    }
+                    headInfos.add(HeadInfo.from(block));
+                } else {
+                    headInfos.add(HeadInfo.from(block, tx));
+                }
+            } catch (L1AttributesDepositedTxNotFoundException ignore) {
+                LOGGER.debug("Can't found deposited transaction (at blockNum = %d)".formatted(blockNums.get(i)));
+            }
+        }
+        return headInfos;
+    }
 }
@@ -3,12 +3,12 @@ package io.optimism.derive.stages;
 import io.optimism.config.Config;
 import io.optimism.config.Config.SystemAccounts;
 import io.optimism.derive.ForkUpgradeTransactions;
+import io.optimism.derive.L2Ref;
 import io.optimism.derive.PurgeableIterator;
 import io.optimism.derive.State;
 import io.optimism.exceptions.BlockNotIncludedException;
 import io.optimism.exceptions.L1InfoNotFoundException;
 import io.optimism.types.Batch;
-import io.optimism.types.BlockInfo;
 import io.optimism.types.Epoch;
 import io.optimism.types.ExecutionPayload.PayloadAttributes;
 import io.optimism.types.L1Info;
@@ -92,9 +92,9 @@ public class Attributes<I extends PurgeableIterator<Batch>> implements Purgeable
         SingularBatch batch = (SingularBatch) batchWrapper.batch();
         LOGGER.debug("attributes derived from block {}", batch.epochNum());
         LOGGER.debug("batch epoch hash {}", batch.epochHash());
-        var l2Parent = this.state
-                .get()
-                .l2Info(batch.timestamp().subtract(this.config.chainConfig().blockTime()));
+        final Config.ChainConfig chainConfig = this.config.chainConfig();
+        final long l2BlockTime = batch.timestamp().longValue();
+        var l2Parent = this.state.get().l2Ref(l2BlockTime - chainConfig.blockTime().longValue());
         if (l2Parent == null) {
             throw new BlockNotIncludedException();
         }
@@ -115,23 +115,19 @@ public class Attributes<I extends PurgeableIterator<Batch>> implements Purgeable
                 SystemAccounts.defaultSystemAccounts().feeVault();
         final BigInteger gasLimit = l1Info.systemConfig().gasLimit();
 
-        final var l2BlockTime = batch.timestamp();
         // check chain config canyonTime is greater than zero
         // check batch timestamp is greater than canyonTime
-        final var canyoneTime = config.chainConfig().canyonTime();
-        if (canyoneTime.compareTo(BigInteger.ZERO) >= 0 && l2BlockTime.compareTo(canyoneTime) >= 0) {
+        if (chainConfig.isCanyon(l2BlockTime)) {
             withdrawals = Collections.emptyList();
         }
 
-        final var ecotoneTime = config.chainConfig().ecotoneTime();
         String parentBeaconRoot = null;
-        if (ecotoneTime.compareTo(BigInteger.ZERO) >= 0
-                && l2BlockTime.compareTo(config.chainConfig().ecotoneTime()) >= 0) {
+        if (chainConfig.isEcotone(l2BlockTime)) {
             var l1ParentBeaconRoot = l1Info.parentBeaconRoot();
             parentBeaconRoot = StringUtils.isEmpty(l1ParentBeaconRoot) ? EMPTY_HASH : l1ParentBeaconRoot;
         }
         return new PayloadAttributes(
-                l2BlockTime,
+                batch.timestamp(),
                 prevRandao,
                 suggestedFeeRecipient,
                 transactions,
@@ -155,11 +151,12 @@ public class Attributes<I extends PurgeableIterator<Batch>> implements Purgeable
             transactions.addAll(userDepositedTxs);
         }
 
-        if (this.config.chainConfig().isEcotoneActivationBlock(batch.timestamp())) {
+        final long l2BlockTime = batch.timestamp().longValue();
+        if (this.config.chainConfig().isEcotoneActivationBlock(l2BlockTime)) {
             transactions.addAll(ForkUpgradeTransactions.ECOTONE_UPGRADE_TXS);
         }
 
-        if (this.config.chainConfig().isFjordActivationBlock(batch.timestamp())) {
+        if (this.config.chainConfig().isFjordActivationBlock(l2BlockTime)) {
             transactions.addAll(ForkUpgradeTransactions.FJORD_UPGRADE_TXS);
         }
 
@@ -192,10 +189,9 @@ public class Attributes<I extends PurgeableIterator<Batch>> implements Purgeable
         return Numeric.toHexString(attributeTx.encode());
     }
 
-    private void updateSequenceNumber(Tuple2<BlockInfo, Epoch> l2Parent, SingularBatch batch) {
-        Epoch l1Epoch = l2Parent.component2();
-        if (l1Epoch.number().equals(batch.epochNum())) {
-            this.sequenceNumber = l1Epoch.sequenceNumber().add(BigInteger.ONE);
+    private void updateSequenceNumber(L2Ref l2Parent, SingularBatch batch) {
+        if (l2Parent.l1Origin().number() == batch.epochNum().longValue()) {
+            this.sequenceNumber = BigInteger.valueOf(l2Parent.sequenceNumber() + 1);
         } else {
             this.sequenceNumber = BigInteger.ZERO;
         }
@@ -209,6 +205,15 @@ public class Attributes<I extends PurgeableIterator<Batch>> implements Purgeable
         this.epochHash = this.state.get().getSafeEpoch().hash();
     }
 
+    @Override
+    public boolean rollback(BigInteger l1Block) {
+        if (!this.batchIterator.rollback(l1Block)) {
+            return false;
+        }
+        this.epochHash = this.state.get().getSafeEpoch().hash();
+        return true;
+    }
+
     /**
      * The type UserDeposited.
      *
@@ -7,7 +7,6 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.jctools.queues.MessagePassingQueue;
 
@@ -55,6 +54,14 @@ public class BatcherTransactions implements PurgeableIterator<BatcherTransaction
         this.txs.clear();
     }
 
+    @Override
+    public boolean rollback(BigInteger l1Block) {
+        this.processIncoming();
+        this.txs.removeIf(tx -> tx.frames().stream().anyMatch(frame -> frame.l1InclusionBlock()
+                .compareTo(l1Block) > 0));
+        return true;
+    }
+
     /**
      * The type BatcherTransaction.
      *
@@ -74,12 +81,12 @@ public class BatcherTransactions implements PurgeableIterator<BatcherTransaction
          */
         public static BatcherTransaction create(byte[] data, BigInteger l1Origin) {
             final byte version = data[0];
-            final byte[] framesData = ArrayUtils.subarray(data, 1, data.length);
 
-            int offset = 0;
+            // the frames are parsed in place, after the version byte
+            int offset = 1;
             List<Frame> frames = new ArrayList<>();
-            while (offset < framesData.length) {
-                final ImmutablePair<Frame, Integer> framePair = Frame.from(framesData, offset, l1Origin);
+            while (offset < data.length) {
+                final ImmutablePair<Frame, Integer> framePair = Frame.from(data, offset, l1Origin);
                 Frame frame = framePair.getLeft();
                 int nextOffset = framePair.getRight();
                 frames.add(frame);
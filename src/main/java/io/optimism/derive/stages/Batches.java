@@ -2,21 +2,24 @@ package io.optimism.derive.stages;
 
 import com.google.common.collect.Lists;
 import io.optimism.config.Config;
+import io.optimism.derive.EpochRef;
+import io.optimism.derive.L2Ref;
 import io.optimism.derive.PurgeableIterator;
 import io.optimism.derive.State;
 import io.optimism.derive.stages.Channels.Channel;
 import io.optimism.exceptions.DecompressException;
 import io.optimism.types.Batch;
 import io.optimism.types.BlockInfo;
-import io.optimism.types.Epoch;
 import io.optimism.types.IBatch;
-import io.optimism.types.L1Info;
 import io.optimism.types.SingularBatch;
 import io.optimism.types.SpanBatch;
 import io.optimism.types.SpanBatchElement;
 import io.optimism.types.enums.BatchType;
 import io.optimism.utilities.compression.Compressors;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
@@ -24,16 +27,10 @@ import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.tuweni.bytes.Bytes;
 import org.jctools.queues.atomic.SpscAtomicArrayQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.web3j.rlp.RlpDecoder;
-import org.web3j.rlp.RlpList;
-import org.web3j.rlp.RlpString;
-import org.web3j.rlp.RlpType;
-import org.web3j.tuples.generated.Tuple2;
 
 /**
  * The type Batches.
@@ -42,9 +39,16 @@ import org.web3j.tuples.generated.Tuple2;
  * @author grapebaba
  * @since 0.1.0
  */
-public class Batches<I extends PurgeableIterator<Channel>> implements PurgeableIterator<Batch> {
+public class Batches<I extends PurgeableIterator<List<Batch>>> implements PurgeableIterator<Batch> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Batches.class);
+
+    private static final int RLP_STRING_OFFSET = 0x80;
+
+    private static final int RLP_SHORT_LENGTH_MAX = 55;
+
+    private static final int RLP_LIST_OFFSET = 0xc0;
+
     private final TreeMap<BigInteger, Batch> batches;
 
     private final I channelIterator;
@@ -81,20 +85,39 @@ public class Batches<I extends PurgeableIterator<Channel>> implements PurgeableI
         this.nextSingularBatches.clear();
     }
 
+    @Override
+    public boolean rollback(BigInteger l1Block) {
+        if (!this.channelIterator.rollback(l1Block)) {
+            return false;
+        }
+        this.batches.values().removeIf(batch -> batch.l1InclusionBlock().compareTo(l1Block) > 0);
+        final List<Batch> kept = new ArrayList<>(this.nextSingularBatches.size());
+        for (Batch batch = this.nextSingularBatches.poll(); batch != null; batch = this.nextSingularBatches.poll()) {
+            if (batch.l1InclusionBlock().compareTo(l1Block) <= 0) {
+                kept.add(batch);
+            }
+        }
+        kept.forEach(this.nextSingularBatches::offer);
+        return true;
+    }
+
     @Override
     public Batch next() {
         final var nextBatch = nextSingularBatches.poll();
         if (nextBatch != null) {
             return nextBatch;
         }
-        Channel channel = this.channelIterator.next();
-        if (channel != null) {
-            decodeBatches(this.config.chainConfig(), channel).forEach(batch -> {
+        List<Batch> decodedBatches = this.channelIterator.next();
+        if (decodedBatches != null) {
+            decodedBatches.forEach(batch -> {
                 Batch prev = this.batches.put(batch.batch().getTimestamp(), batch);
                 if (prev != null) {
                     LOGGER.warn(
                             "batch was replaced: timestamp={}", batch.batch().getTimestamp());
                 }
+                if (batch.batch() instanceof SpanBatch spanBatch) {
+                    this.prefetchL2Refs(spanBatch);
+                }
             });
         }
 
@@ -134,26 +157,26 @@ public class Batches<I extends PurgeableIterator<Channel>> implements PurgeableI
 
             BigInteger currentL1Block = state.getCurrentEpochNum();
             BlockInfo safeHead = state.getSafeHead();
-            Epoch epoch = state.getSafeEpoch();
-            Epoch nextEpoch = state.epoch(epoch.number().add(BigInteger.ONE));
-            BigInteger seqWindowSize = this.config.chainConfig().seqWindowSize();
+            L2Ref safeHeadRef = state.getSafeHeadRef();
+            EpochRef epoch = safeHeadRef.l1Origin();
+            EpochRef nextEpoch = state.epochRef(epoch.number() + 1);
+            long seqWindowSize = this.config.chainConfig().seqWindowSize().longValue();
 
             if (nextEpoch != null) {
-                if (currentL1Block.compareTo(epoch.number().add(seqWindowSize)) > 0) {
-                    BigInteger nextTimestamp =
-                            safeHead.timestamp().add(this.config.chainConfig().blockTime());
-                    Epoch epochRes = null;
-                    if (nextTimestamp.compareTo(nextEpoch.timestamp()) < 0) {
+                if (currentL1Block.longValue() > epoch.number() + seqWindowSize) {
+                    long nextTimestamp = safeHeadRef.timestamp() + this.config.chainConfig().blockTime().longValue();
+                    EpochRef epochRes = null;
+                    if (nextTimestamp < nextEpoch.timestamp()) {
                         epochRes = epoch;
-                    } else if (currentL1Block.compareTo(nextEpoch.number().add(seqWindowSize)) > 0) {
+                    } else if (currentL1Block.longValue() > nextEpoch.number() + seqWindowSize) {
                         epochRes = nextEpoch;
                     }
                     if (epochRes != null) {
                         var singularBatch = new SingularBatch(
                                 safeHead.parentHash(),
-                                epochRes.number(),
-                                epochRes.hash(),
-                                nextTimestamp,
+                                BigInteger.valueOf(epochRes.number()),
+                                epochRes.hash().toHexString(),
+                                BigInteger.valueOf(nextTimestamp),
                                 Lists.newArrayList());
                         batch = new Batch(singularBatch, currentL1Block);
                     }
@@ -171,101 +194,156 @@ public class Batches<I extends PurgeableIterator<Channel>> implements PurgeableI
      * @return the list
      */
     public static List<Batch> decodeBatches(final Config.ChainConfig chainConfig, final Channel channel) {
-        byte[] channelData = decompressChannelData(channel.data());
-        List<RlpType> batches = RlpDecoder.decode(channelData).getValues();
-        return batches.stream()
-                .map(rlpType -> {
-                    byte[] buffer = ((RlpString) rlpType).getBytes();
-                    byte batchType = buffer[0];
-                    byte[] batchData = ArrayUtils.subarray(buffer, 1, buffer.length);
-
-                    if (BatchType.SPAN_BATCH_TYPE.getCode() == ((int) batchType)) {
-                        return Batch.decodeSpanBatch(
-                                batchData,
-                                chainConfig.blockTime(),
-                                chainConfig.l2Genesis().timestamp(),
-                                chainConfig.l2ChainId(),
-                                channel.l1InclusionBlock());
-                    } else if (BatchType.SINGULAR_BATCH_TYPE.getCode() == ((int) batchType)) {
-                        RlpList rlpBatchData = (RlpList)
-                                RlpDecoder.decode(batchData).getValues().getFirst();
-                        return Batch.decodeSingularBatch(rlpBatchData, channel.l1InclusionBlock());
-                    } else {
-                        throw new IllegalArgumentException("invalid batch type");
-                    }
-                })
-                .collect(Collectors.toList());
+        // the batches are decoded one by one as the channel data is decompressed,
+        // so neither the assembled nor the decompressed channel data is held in memory
+        List<Batch> batches = new ArrayList<>();
+        try (InputStream channelData = decompressChannelData(channel.inputStream())) {
+            Batch batch;
+            while ((batch = readBatch(chainConfig, channelData, channel.l1InclusionBlock())) != null) {
+                batches.add(batch);
+            }
+        } catch (IOException e) {
+            throw new DecompressException(e);
+        }
+        return batches;
+    }
+
+    private static Batch readBatch(
+            final Config.ChainConfig chainConfig, final InputStream channelData, final BigInteger l1InclusionBlock)
+            throws IOException {
+        // every batch is an rlp string of the batch type and the batch data
+        final int prefix = channelData.read();
+        if (prefix == -1) {
+            return null;
+        }
+        final long length;
+        if (prefix < RLP_STRING_OFFSET) {
+            throw new IllegalArgumentException("invalid batch type");
+        } else if (prefix <= RLP_STRING_OFFSET + RLP_SHORT_LENGTH_MAX) {
+            length = prefix - RLP_STRING_OFFSET;
+        } else if (prefix < RLP_LIST_OFFSET) {
+            final byte[] lengthBytes = readFully(channelData, prefix - RLP_STRING_OFFSET - RLP_SHORT_LENGTH_MAX);
+            length = new BigInteger(1, lengthBytes).longValueExact();
+        } else {
+            throw new IllegalArgumentException("invalid batch encoding");
+        }
+        if (length < 1 || length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("invalid batch length: %d".formatted(length));
+        }
+
+        final int batchType = channelData.read();
+        if (batchType == -1) {
+            throw new EOFException("unexpected end of channel data");
+        }
+        final byte[] batchData = readFully(channelData, (int) length - 1);
+        if (BatchType.SPAN_BATCH_TYPE.getCode() == batchType) {
+            return Batch.decodeSpanBatch(
+                    batchData,
+                    chainConfig.blockTime(),
+                    chainConfig.l2Genesis().timestamp(),
+                    chainConfig.l2ChainId(),
+                    l1InclusionBlock);
+        } else if (BatchType.SINGULAR_BATCH_TYPE.getCode() == batchType) {
+            return Batch.decodeSingularBatch(Bytes.wrap(batchData), l1InclusionBlock);
+        } else {
+            throw new IllegalArgumentException("invalid batch type");
+        }
+    }
+
+    private static byte[] readFully(final InputStream in, final int length) throws IOException {
+        final byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("unexpected end of channel data");
+        }
+        return bytes;
     }
 
-    private static byte[] decompressChannelData(byte[] data) {
-        byte compressType = data[0];
+    private static InputStream decompressChannelData(InputStream data) throws IOException {
+        final PushbackInputStream in = new PushbackInputStream(data, 1);
+        final int compressType = in.read();
+        if (compressType == -1) {
+            throw new IllegalArgumentException("invalid compress type");
+        }
         if ((compressType & 0x0F) == Compressors.ZlibCM8 || (compressType & 0x0F) == Compressors.ZlibCM15) {
-            try {
-                return Compressors.zlibDecompress(data);
-            } catch (IOException e) {
-                throw new DecompressException(e);
-            }
+            // the compress type is the first byte of the zlib header
+            in.unread(compressType);
+            return Compressors.zlibInputStream(in);
         } else if (compressType == Compressors.ChannelVersionBrotli) {
-            try {
-                return Compressors.brotliDecompress(ArrayUtils.subarray(data, 1, data.length));
-            } catch (IOException e) {
-                throw new DecompressException(e);
-            }
+            return Compressors.brotliInputStream(in);
         } else {
             throw new IllegalArgumentException("invalid compress type");
         }
     }
 
+    private void prefetchL2Refs(final SpanBatch spanBatch) {
+        // the previous block and the overlapped blocks of the span batch are checked by their L2 refs
+        final long blockTime = this.config.chainConfig().blockTime().longValue();
+        final long spanStartTimestamp;
+        final long spanEndTimestamp;
+        try {
+            spanStartTimestamp = spanBatch.getTimestamp().longValueExact();
+            spanEndTimestamp = spanBatch.getBlockTimestamp(spanBatch.getBlockCount() - 1).longValueExact();
+        } catch (ArithmeticException e) {
+            // the span batch is dropped by its status check
+            return;
+        }
+        this.state.get().prefetchL2Refs(spanStartTimestamp - blockTime, spanEndTimestamp);
+    }
+
     @SuppressWarnings("WhitespaceAround")
     private BatchStatus batchStatus(final Batch batch) {
-        if (batch.batch() instanceof SingularBatch) {
-            return singularBatchStatus(batch);
-        } else if (batch.batch() instanceof SpanBatch) {
-            return spanBatchStatus(batch);
-        } else {
-            throw new IllegalStateException("unknown batch type");
+        try {
+            if (batch.batch() instanceof SingularBatch) {
+                return singularBatchStatus(batch);
+            } else if (batch.batch() instanceof SpanBatch) {
+                return spanBatchStatus(batch);
+            } else {
+                throw new IllegalStateException("unknown batch type");
+            }
+        } catch (ArithmeticException e) {
+            // the block numbers and timestamps of a batch are uint64, larger values are never valid
+            LOGGER.warn("invalid batch: block number or timestamp out of range");
+            return BatchStatus.Drop;
         }
     }
 
     private BatchStatus singularBatchStatus(final Batch batchWrapper) {
         final SingularBatch batch = (SingularBatch) batchWrapper.batch();
+        final Config.ChainConfig chainConfig = this.config.chainConfig();
         State state = this.state.get();
-        Epoch epoch = state.getSafeEpoch();
-        Epoch nextEpoch = state.epoch(epoch.number().add(BigInteger.ONE));
-        BlockInfo head = state.getSafeHead();
-        BigInteger nextTimestamp =
-                head.timestamp().add(this.config.chainConfig().blockTime());
+        L2Ref head = state.getSafeHeadRef();
+        EpochRef epoch = head.l1Origin();
+        EpochRef nextEpoch = state.epochRef(epoch.number() + 1);
+        long nextTimestamp = head.timestamp() + chainConfig.blockTime().longValue();
+        final long batchTimestamp = batch.timestamp().longValueExact();
+        final long batchEpochNum = batch.epochNum().longValueExact();
 
         // check timestamp range
-        switch (batch.getTimestamp().compareTo(nextTimestamp)) {
-            case 1 -> {
-                return BatchStatus.Future;
-            }
-            case -1 -> {
-                LOGGER.warn("invalid batch timestamp, excepted={}, actual={}", nextTimestamp, batch.getTimestamp());
-                return BatchStatus.Drop;
-            }
-            default -> {}
+        if (batchTimestamp > nextTimestamp) {
+            return BatchStatus.Future;
+        }
+        if (batchTimestamp < nextTimestamp) {
+            LOGGER.warn("invalid batch timestamp, excepted={}, actual={}", nextTimestamp, batchTimestamp);
+            return BatchStatus.Drop;
         }
 
         // check that block builds on existing chain
-        if (!batch.parentHash().equalsIgnoreCase(head.hash())) {
+        if (!head.hash().equalsHexString(batch.parentHash())) {
             LOGGER.warn("invalid parent hash");
             return BatchStatus.Drop;
         }
 
         // check the inclusion delay
-        if (batch.epochNum().add(this.config.chainConfig().seqWindowSize()).compareTo(batchWrapper.l1InclusionBlock())
-                < 0) {
+        if (batchEpochNum + chainConfig.seqWindowSize().longValue() < batchWrapper.l1InclusionBlock().longValue()) {
             LOGGER.warn("inclusion window elapsed");
             return BatchStatus.Drop;
         }
 
-        Epoch batchOrigin;
+        EpochRef batchOrigin;
         // check and set batch origin epoch
-        if (batch.epochNum().compareTo(epoch.number()) == 0) {
+        if (batchEpochNum == epoch.number()) {
             batchOrigin = epoch;
-        } else if (batch.epochNum().compareTo(epoch.number().add(BigInteger.ONE)) == 0) {
+        } else if (batchEpochNum == epoch.number() + 1) {
             batchOrigin = nextEpoch;
         } else {
             LOGGER.warn("invalid batch origin epoch number");
@@ -273,23 +351,23 @@ public class Batches<I extends PurgeableIterator<Channel>> implements PurgeableI
         }
 
         if (batchOrigin != null) {
-            if (!batch.epochHash().equalsIgnoreCase(batchOrigin.hash())) {
+            if (!batchOrigin.hash().equalsHexString(batch.epochHash())) {
                 LOGGER.warn("invalid epoch hash");
                 return BatchStatus.Drop;
             }
 
-            if (batch.timestamp().compareTo(batchOrigin.timestamp()) < 0) {
+            if (batchTimestamp < batchOrigin.timestamp()) {
                 LOGGER.warn("batch too old");
                 return BatchStatus.Drop;
             }
 
-            BigInteger maxSeqDrift = this.config.chainConfig().maxSequencerDrift(batchOrigin.timestamp());
+            long maxSeqDrift = chainConfig.maxSequencerDrift(batchOrigin.timestamp());
             // handle sequencer drift
-            if (batch.timestamp().compareTo(batchOrigin.timestamp().add(maxSeqDrift)) > 0) {
+            if (batchTimestamp > batchOrigin.timestamp() + maxSeqDrift) {
                 if (batch.transactions().isEmpty()) {
-                    if (epoch.number().compareTo(batch.epochNum()) == 0) {
+                    if (epoch.number() == batchEpochNum) {
                         if (nextEpoch != null) {
-                            if (batch.timestamp().compareTo(nextEpoch.timestamp()) >= 0) {
+                            if (batchTimestamp >= nextEpoch.timestamp()) {
                                 LOGGER.warn("sequencer drift too large");
                                 return BatchStatus.Drop;
                             }
@@ -318,95 +396,93 @@ public class Batches<I extends PurgeableIterator<Channel>> implements PurgeableI
 
     private BatchStatus spanBatchStatus(final Batch batchWrapper) {
         final SpanBatch spanBatch = (SpanBatch) batchWrapper.batch();
+        final Config.ChainConfig chainConfig = this.config.chainConfig();
+        final long blockTime = chainConfig.blockTime().longValue();
         final State state = this.state.get();
-        final Epoch epoch = state.getSafeEpoch();
-        final Epoch nextEpoch = state.epoch(epoch.number().add(BigInteger.ONE));
-        final BlockInfo l2SafeHead = state.getSafeHead();
-        final BigInteger nextTimestamp =
-                l2SafeHead.timestamp().add(this.config.chainConfig().blockTime());
+        final L2Ref l2SafeHead = state.getSafeHeadRef();
+        final EpochRef epoch = l2SafeHead.l1Origin();
+        final EpochRef nextEpoch = state.epochRef(epoch.number() + 1);
+        final long nextTimestamp = l2SafeHead.timestamp() + blockTime;
 
-        final BigInteger startEpochNum = spanBatch.getStartEpochNum();
-        final BigInteger endEpochNum = spanBatch.getBlockEpochNum(spanBatch.getBlockCount() - 1);
+        final long startEpochNum = spanBatch.getStartEpochNum().longValueExact();
+        final long endEpochNum = spanBatch.getBlockEpochNum(spanBatch.getBlockCount() - 1).longValueExact();
 
-        final BigInteger spanStartTimestamp = spanBatch.getTimestamp();
-        final BigInteger spanEndTimestamp = spanBatch.getBlockTimestamp(spanBatch.getBlockCount() - 1);
+        final long spanStartTimestamp = spanBatch.getTimestamp().longValueExact();
+        final long spanEndTimestamp =
+                spanBatch.getBlockTimestamp(spanBatch.getBlockCount() - 1).longValueExact();
 
         // check batch timestamp
-        if (spanEndTimestamp.compareTo(nextTimestamp) < 0) {
+        if (spanEndTimestamp < nextTimestamp) {
             LOGGER.warn(
                     "past batch: nextTimestamp = l2SafeHead({}) + blockTime({}), spanEndTimestamp({})",
                     l2SafeHead.timestamp(),
-                    this.config.chainConfig().blockTime(),
+                    blockTime,
                     spanEndTimestamp);
             return BatchStatus.Drop;
         }
-        if (spanStartTimestamp.compareTo(nextTimestamp) > 0) {
+        if (spanStartTimestamp > nextTimestamp) {
             return BatchStatus.Future;
         }
 
         // check for delta activation
         // startEpoch == (safeEpoch.number + 1)
-        final Epoch batchOrigin = startEpochNum.compareTo(epoch.number().add(BigInteger.ONE)) == 0 ? nextEpoch : epoch;
+        final EpochRef batchOrigin = startEpochNum == epoch.number() + 1 ? nextEpoch : epoch;
 
         if (batchOrigin == null) {
             return BatchStatus.Undecided;
         }
-        if (this.config.chainConfig().deltaTime().compareTo(BigInteger.ZERO) >= 0
-                && batchOrigin.timestamp().compareTo(this.config.chainConfig().deltaTime()) < 0) {
+        final long deltaTime = chainConfig.deltaTime().longValue();
+        if (deltaTime >= 0 && batchOrigin.timestamp() < deltaTime) {
             LOGGER.warn("epoch start time is before delta activation: epochStartTime=%d"
                     .formatted(batchOrigin.timestamp()));
             return BatchStatus.Drop;
         }
 
         // find previous l2 block
-        final BigInteger prevTimestamp =
-                spanStartTimestamp.subtract(this.config.chainConfig().blockTime());
-        final var prevL2Info = state.l2Info(prevTimestamp);
-        if (prevL2Info == null) {
+        final long prevTimestamp = spanStartTimestamp - blockTime;
+        final L2Ref prevL2Block = state.l2Ref(prevTimestamp);
+        if (prevL2Block == null) {
             LOGGER.warn("previous l2 block not found: %d".formatted(prevTimestamp));
             return BatchStatus.Drop;
         }
 
-        final var prevL2Block = prevL2Info.component1();
-        final var prevL2Epoch = prevL2Info.component2();
-
         // check that block builds on existing chain
-        final String spanBatchParentCheck = spanBatch.getParentCheck().toHexString();
-        if (!spanBatch.checkParentHash(Bytes.fromHexString(prevL2Block.hash()))) {
+        if (!spanBatch.checkParentHash(prevL2Block.hash())) {
             LOGGER.warn(
                     "batch parent check failed: batchParent={}; prevL2BlockHash={}",
-                    spanBatchParentCheck,
+                    spanBatch.getParentCheck(),
                     prevL2Block.hash());
             return BatchStatus.Drop;
         }
 
-        if (startEpochNum.add(this.config.chainConfig().seqWindowSize()).compareTo(batchWrapper.l1InclusionBlock())
-                < 0) {
+        if (startEpochNum + chainConfig.seqWindowSize().longValue() < batchWrapper.l1InclusionBlock().longValue()) {
             LOGGER.warn(
                     "sequence window check failed: startEpochNum={} + seqWindowSize={} < l1InclusionBlock={}",
                     startEpochNum,
-                    this.config.chainConfig().seqWindowSize(),
+                    chainConfig.seqWindowSize(),
                     batchWrapper.l1InclusionBlock());
             return BatchStatus.Drop;
         }
 
-        if (startEpochNum.compareTo(prevL2Block.number().add(BigInteger.ONE)) > 0) {
+        if (startEpochNum > prevL2Block.number() + 1) {
             LOGGER.warn("invalid start epoch number");
             return BatchStatus.Drop;
         }
 
-        final Epoch l1Origin = state.epoch(endEpochNum);
+        final EpochRef l1Origin = state.epochRef(endEpochNum);
         if (l1Origin == null) {
             LOGGER.warn("l1 origin not found");
             return BatchStatus.Drop;
         }
-        final String l1OriginCheck = spanBatch.getL1OriginCheck().toHexString();
-        if (!spanBatch.checkOriginHash(Bytes.fromHexString(l1Origin.hash()))) {
-            LOGGER.warn("l1 origin check failed: l1OriginCheck={}; l1Origin={}", l1OriginCheck, l1Origin.hash());
+        if (!spanBatch.checkOriginHash(l1Origin.hash())) {
+            LOGGER.warn(
+                    "l1 origin check failed: l1OriginCheck={}; l1Origin={}",
+                    spanBatch.getL1OriginCheck(),
+                    l1Origin.hash());
             return BatchStatus.Drop;
         }
 
-        if (startEpochNum.compareTo(prevL2Epoch.number()) < 0) {
+        if (startEpochNum < prevL2Block.l1Origin().number()) {
             LOGGER.warn("invalid start epoch number");
             return BatchStatus.Drop;
         }
@@ -414,25 +490,22 @@ public class Batches<I extends PurgeableIterator<Channel>> implements PurgeableI
         // check sequencer drift
         final int blockCount = spanBatch.getBlockCount();
         for (int i = 0; i < blockCount; i++) {
-            final var blockTimestamp = spanBatch.getBlockTimestamp(i);
-            if (blockTimestamp.compareTo(l2SafeHead.timestamp()) <= 0) {
+            final long blockTimestamp = spanBatch.getBlockTimestamp(i).longValueExact();
+            if (blockTimestamp <= l2SafeHead.timestamp()) {
                 continue;
             }
-            final BigInteger l1OriginNum = spanBatch.getBlockEpochNum(i);
-            final L1Info batchL1Origin = state.l1Info(l1OriginNum);
+            final long l1OriginNum = spanBatch.getBlockEpochNum(i).longValueExact();
+            final EpochRef batchL1Origin = state.epochRef(l1OriginNum);
             if (batchL1Origin == null) {
                 LOGGER.warn("l1 origin not found");
                 return BatchStatus.Drop;
             }
-            if (blockTimestamp.compareTo(batchL1Origin.blockInfo().timestamp()) < 0) {
+            if (blockTimestamp < batchL1Origin.timestamp()) {
                 LOGGER.warn("block timestamp is less than L1 origin timestamp");
                 return BatchStatus.Drop;
             }
-            BigInteger maxSeqDrift = this.config
-                    .chainConfig()
-                    .maxSequencerDrift(batchL1Origin.blockInfo().timestamp());
-            final var max = batchL1Origin.blockInfo().timestamp().add(maxSeqDrift);
-            if (blockTimestamp.compareTo(max) > 0) {
+            final long max = batchL1Origin.timestamp() + chainConfig.maxSequencerDrift(batchL1Origin.timestamp());
+            if (blockTimestamp > max) {
                 if (!spanBatch.getBlockTransactions(i).isEmpty()) {
                     LOGGER.warn(String.format(
                             "batch exceeded sequencer time drift, sequencer must adopt new L1 origin to include transactions again: max=%d",
@@ -441,15 +514,15 @@ public class Batches<I extends PurgeableIterator<Channel>> implements PurgeableI
                 }
                 boolean originAdvanced;
                 if (i == 0) {
-                    originAdvanced = startEpochNum.compareTo(l2SafeHead.number().add(BigInteger.ONE)) == 0;
+                    originAdvanced = startEpochNum == l2SafeHead.number() + 1;
                 } else {
-                    originAdvanced = spanBatch.getBlockEpochNum(i).compareTo(spanBatch.getBlockEpochNum(i - 1)) > 0;
+                    originAdvanced = l1OriginNum > spanBatch.getBlockEpochNum(i - 1).longValueExact();
                 }
 
                 if (!originAdvanced) {
-                    var batchNextEpoch = state.l1Info(l1OriginNum.add(BigInteger.ONE));
+                    var batchNextEpoch = state.epochRef(l1OriginNum + 1);
                     if (batchNextEpoch != null) {
-                        if (blockTimestamp.compareTo(batchNextEpoch.blockInfo().timestamp()) >= 0) {
+                        if (blockTimestamp >= batchNextEpoch.timestamp()) {
                             LOGGER.warn(
                                     "batch exceeded sequencer time drift without adopting next origin, and next L1 origin would have been valid");
                             return BatchStatus.Drop;
@@ -468,17 +541,18 @@ public class Batches<I extends PurgeableIterator<Channel>> implements PurgeableI
 
         // overlapped block checks
         for (SpanBatchElement element : spanBatch.getBatches()) {
-            if (element.timestamp().compareTo(nextTimestamp) >= 0) {
+            final long elementTimestamp = element.timestamp().longValueExact();
+            if (elementTimestamp >= nextTimestamp) {
                 continue;
             }
 
-            Tuple2<BlockInfo, Epoch> info = state.l2Info(element.timestamp());
+            L2Ref info = state.l2Ref(elementTimestamp);
             if (info == null) {
                 LOGGER.warn("overlapped l2 block not found");
                 return BatchStatus.Drop;
             }
 
-            if (element.epochNum().compareTo(info.component2().number()) != 0) {
+            if (element.epochNum().longValueExact() != info.l1Origin().number()) {
                 LOGGER.warn("epoch mismatch in overlapped blocks");
                 return BatchStatus.Drop;
             }
@@ -506,13 +580,14 @@ public class Batches<I extends PurgeableIterator<Channel>> implements PurgeableI
 
     private List<SingularBatch> toSingularBatches(final SpanBatch batch, final State state) {
         List<SingularBatch> singularBatches = new ArrayList<>();
+        final long safeHeadTimestamp = state.getSafeHeadRef().timestamp();
         for (SpanBatchElement element : batch.getBatches()) {
-            if (element.timestamp().compareTo(state.getSafeHead().timestamp()) <= 0) {
+            if (element.timestamp().longValueExact() <= safeHeadTimestamp) {
                 if (!element.transactions().isEmpty()) {
                     LOGGER.warn(
                             "past span batch element: timestamp{{}} <= safeHead.timestamp={{}}",
                             element.timestamp(),
-                            state.getSafeHead().timestamp());
+                            safeHeadTimestamp);
                 }
                 continue;
             }
@@ -521,11 +596,11 @@ public class Batches<I extends PurgeableIterator<Channel>> implements PurgeableI
             singularBatch.setTimestamp(element.timestamp());
             singularBatch.setTransactions(element.transactions());
 
-            Epoch l1Origins = state.epoch(element.epochNum());
-            if (l1Origins == null) {
+            EpochRef l1Origin = state.epochRef(element.epochNum().longValueExact());
+            if (l1Origin == null) {
                 throw new RuntimeException("cannot find origin for epochNum: %d".formatted(element.epochNum()));
             }
-            singularBatch.setEpochHash(state.epoch(singularBatch.epochNum()).hash());
+            singularBatch.setEpochHash(l1Origin.hash().toHexString());
             singularBatches.add(singularBatch);
         }
         return singularBatches;
@@ -540,7 +615,7 @@ public class Batches<I extends PurgeableIterator<Channel>> implements PurgeableI
      * @param config the config
      * @return the batches
      */
-    public static <I extends PurgeableIterator<Channel>> Batches<I> create(
+    public static <I extends PurgeableIterator<List<Batch>>> Batches<I> create(
             I channelIterator, AtomicReference<State> state, Config config) {
         return new Batches<>(new TreeMap<>(), channelIterator, state, config);
     }
@@ -6,14 +6,25 @@ import io.optimism.derive.PurgeableIterator;
 import io.optimism.derive.State;
 import io.optimism.derive.stages.BatcherTransactions.BatcherTransaction;
 import io.optimism.derive.stages.Channels.Channel;
+import io.optimism.types.ChannelId;
 import io.optimism.types.Frame;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
-import org.apache.commons.lang3.ArrayUtils;
 
 /**
  * The type Channels.
@@ -28,12 +39,23 @@ public class Channels<I extends PurgeableIterator<BatcherTransaction>> implement
 
     private static final long MaxChannelSizeFjord = 1_000_000_000L;
 
+    // the L1 blocks the emitted channels are remembered for, deeper reorgs purge the channels
+    private static final BigInteger ROLLBACK_WINDOW = BigInteger.valueOf(256L);
+
     private final I batcherTxIterator;
 
-    private final List<PendingChannel> pendingChannels;
+    // the pending channels by channel id, in the order they were opened
+    private final LinkedHashMap<ChannelId, PendingChannel> pendingChannels;
+
+    // the frame data bytes of all the pending channels
+    private long pendingBytes;
 
     private final List<Frame> frameBank;
 
+    private final Deque<EmittedChannel> emittedChannels;
+
+    private BigInteger rollbackFloor;
+
     private final AtomicReference<State> state;
 
     private final Config config;
@@ -49,15 +71,43 @@ public class Channels<I extends PurgeableIterator<BatcherTransaction>> implement
         this.batcherTxIterator = batcherTxIterator;
         this.state = state;
         this.config = config;
-        this.pendingChannels = Lists.newArrayList();
+        this.pendingChannels = new LinkedHashMap<>();
         this.frameBank = Lists.newArrayList();
+        this.emittedChannels = new ArrayDeque<>();
     }
 
     @Override
     public void purge() {
         this.batcherTxIterator.purge();
         this.pendingChannels.clear();
+        this.pendingBytes = 0L;
         this.frameBank.clear();
+        this.emittedChannels.clear();
+        this.rollbackFloor = null;
+    }
+
+    @Override
+    public boolean rollback(BigInteger l1Block) {
+        if (!this.batcherTxIterator.rollback(l1Block)) {
+            return false;
+        }
+        if (this.rollbackFloor != null && l1Block.compareTo(this.rollbackFloor) < 0) {
+            return false;
+        }
+        for (EmittedChannel emitted : this.emittedChannels) {
+            if (emitted.l1InclusionBlock().compareTo(l1Block) > 0 && emitted.lowestL1Block().compareTo(l1Block) <= 0) {
+                // the channel was completed by a dropped block, its frames of the kept blocks are gone
+                return false;
+            }
+        }
+        this.emittedChannels.removeIf(emitted -> emitted.l1InclusionBlock().compareTo(l1Block) > 0);
+        this.frameBank.removeIf(frame -> frame.l1InclusionBlock().compareTo(l1Block) > 0);
+        this.pendingChannels.values().removeIf(pendingChannel -> !pendingChannel.rollback(l1Block));
+        this.pendingBytes = 0L;
+        for (PendingChannel pendingChannel : this.pendingChannels.values()) {
+            this.pendingBytes += pendingChannel.getBytes();
+        }
+        return true;
     }
 
     @Override
@@ -71,16 +121,14 @@ public class Channels<I extends PurgeableIterator<BatcherTransaction>> implement
      * @param frame the frame
      */
     protected void pushFrame(Frame frame) {
-        // Find a pending channel matching on the channel id
-        Optional<PendingChannel> existedPc = this.pendingChannels.stream()
-                .filter(c -> c.getChannelId().equals(frame.channelId()))
-                .findFirst();
-
         // Insert frame if pending channel exists
         // Otherwise, construct a new pending channel with the frame's id
-        if (existedPc.isPresent()) {
-            existedPc.get().pushFrame(frame);
-            var l1Info = this.state.get().l1Info(existedPc.get().highestL1Block);
+        PendingChannel existedPc = this.pendingChannels.get(frame.channelId());
+        if (existedPc != null) {
+            if (existedPc.pushFrame(frame)) {
+                this.pendingBytes += frame.frameDataLen();
+            }
+            var l1Info = this.state.get().l1Info(existedPc.highestL1Block);
             BigInteger chTimeout;
             if (l1Info == null) {
                 chTimeout = this.config.chainConfig().channelTimeout();
@@ -88,12 +136,13 @@ public class Channels<I extends PurgeableIterator<BatcherTransaction>> implement
                 BigInteger curTime = l1Info.blockInfo().timestamp();
                 chTimeout = this.config.chainConfig().channelTimeout(curTime);
             }
-            if (existedPc.get().isTimedOut(chTimeout)) {
-                this.pendingChannels.remove(existedPc.get());
+            if (existedPc.isTimedOut(chTimeout)) {
+                this.removePendingChannel(existedPc.getChannelId());
             }
         } else {
             PendingChannel pendingChannel = PendingChannel.create(frame);
-            this.pendingChannels.add(pendingChannel);
+            this.pendingChannels.put(pendingChannel.getChannelId(), pendingChannel);
+            this.pendingBytes += pendingChannel.getBytes();
         }
     }
 
@@ -110,15 +159,26 @@ public class Channels<I extends PurgeableIterator<BatcherTransaction>> implement
      * @param id the id
      * @return the optional
      */
-    protected Optional<Channel> fetchReadyChannel(BigInteger id) {
-        return this.pendingChannels.stream()
-                .filter(c -> c.getChannelId().equals(id) && c.isComplete())
-                .findFirst()
-                .map(pendingChannel -> {
-                    Channel channel = Channel.from(pendingChannel);
-                    pendingChannels.remove(pendingChannel);
-                    return channel;
-                });
+    protected Optional<Channel> fetchReadyChannel(ChannelId id) {
+        PendingChannel pendingChannel = this.pendingChannels.get(id);
+        if (pendingChannel == null || !pendingChannel.isComplete()) {
+            return Optional.empty();
+        }
+        Channel channel = Channel.from(pendingChannel);
+        this.removePendingChannel(id);
+        this.recordEmitted(pendingChannel.getLowestL1Block(), channel.l1InclusionBlock());
+        return Optional.of(channel);
+    }
+
+    private void recordEmitted(BigInteger lowestL1Block, BigInteger l1InclusionBlock) {
+        this.emittedChannels.addLast(new EmittedChannel(lowestL1Block, l1InclusionBlock));
+        final BigInteger horizon = l1InclusionBlock.subtract(ROLLBACK_WINDOW);
+        while (this.emittedChannels.getFirst().l1InclusionBlock().compareTo(horizon) < 0) {
+            EmittedChannel pruned = this.emittedChannels.removeFirst();
+            this.rollbackFloor = this.rollbackFloor == null
+                    ? pruned.l1InclusionBlock()
+                    : this.rollbackFloor.max(pruned.l1InclusionBlock());
+        }
     }
 
     private Optional<Channel> processFrames() {
@@ -127,7 +187,7 @@ public class Channels<I extends PurgeableIterator<BatcherTransaction>> implement
         while (!this.frameBank.isEmpty()) {
             // Append the frame to the channel
             Frame frame = this.frameBank.removeFirst();
-            BigInteger frameChannelId = frame.channelId();
+            ChannelId frameChannelId = frame.channelId();
             this.pushFrame(frame);
             this.prune(frame);
 
@@ -140,18 +200,23 @@ public class Channels<I extends PurgeableIterator<BatcherTransaction>> implement
         return Optional.empty();
     }
 
-    private Optional<PendingChannel> removePendingChannel() {
-        if (this.pendingChannels.isEmpty()) {
-            return Optional.empty();
-        } else {
-            return Optional.of(this.pendingChannels.removeFirst());
+    private void removePendingChannel(ChannelId id) {
+        PendingChannel removed = this.pendingChannels.remove(id);
+        if (removed != null) {
+            this.pendingBytes -= removed.getBytes();
         }
     }
 
-    private long totalSize() {
-        return this.pendingChannels.stream()
-                .map(p -> p.frames.stream().map(Frame::frameDataLen).reduce(0, Integer::sum))
-                .reduce(0, Integer::sum);
+    private Optional<PendingChannel> removeOldestPendingChannel() {
+        Iterator<Map.Entry<ChannelId, PendingChannel>> iterator =
+                this.pendingChannels.entrySet().iterator();
+        if (!iterator.hasNext()) {
+            return Optional.empty();
+        }
+        PendingChannel removed = iterator.next().getValue();
+        iterator.remove();
+        this.pendingBytes -= removed.getBytes();
+        return Optional.of(removed);
     }
 
     private void prune(Frame frame) {
@@ -162,8 +227,8 @@ public class Channels<I extends PurgeableIterator<BatcherTransaction>> implement
                         .l1Info(frame.l1InclusionBlock())
                         .blockInfo()
                         .timestamp());
-        while (this.totalSize() > maxChannelSize) {
-            Optional<PendingChannel> removed = this.removePendingChannel();
+        while (this.pendingBytes > maxChannelSize) {
+            Optional<PendingChannel> removed = this.removeOldestPendingChannel();
             if (removed.isEmpty()) {
                 throw new RuntimeException("should have removed a channel");
             }
@@ -176,7 +241,7 @@ public class Channels<I extends PurgeableIterator<BatcherTransaction>> implement
      * @return the pending channels
      */
     public List<PendingChannel> getPendingChannels() {
-        return pendingChannels;
+        return new ArrayList<>(pendingChannels.values());
     }
 
     /**
@@ -197,12 +262,67 @@ public class Channels<I extends PurgeableIterator<BatcherTransaction>> implement
      * The type Channel.
      *
      * @param id the id
-     * @param data the data
+     * @param frames the data of the frames, in the order of the frame numbers
      * @param l1InclusionBlock L1 inclusion block
      * @author grapebaba
      * @since 0.1.0
      */
-    public record Channel(BigInteger id, byte[] data, BigInteger l1InclusionBlock) {
+    public record Channel(BigInteger id, List<ByteBuffer> frames, BigInteger l1InclusionBlock) {
+
+        /**
+         * Instantiates a new Channel of the assembled data.
+         *
+         * @param id the id
+         * @param data the data
+         * @param l1InclusionBlock L1 inclusion block
+         */
+        public Channel(BigInteger id, byte[] data, BigInteger l1InclusionBlock) {
+            this(id, List.of(ByteBuffer.wrap(data)), l1InclusionBlock);
+        }
+
+        /**
+         * Reads the channel data over the frames, without assembling them.
+         *
+         * @return the channel data stream
+         */
+        public InputStream inputStream() {
+            return new SequenceInputStream(Collections.enumeration(
+                    this.frames.stream().map(Channel::inputStream).toList()));
+        }
+
+        private static InputStream inputStream(ByteBuffer frame) {
+            if (frame.hasArray()) {
+                return new ByteArrayInputStream(
+                        frame.array(), frame.arrayOffset() + frame.position(), frame.remaining());
+            }
+            byte[] data = new byte[frame.remaining()];
+            frame.duplicate().get(data);
+            return new ByteArrayInputStream(data);
+        }
+
+        /**
+         * Assemble the channel data.
+         *
+         * @return the channel data
+         */
+        public byte[] data() {
+            ByteBuffer data = ByteBuffer.allocate(this.size());
+            this.frames.forEach(frame -> data.put(frame.duplicate()));
+            return data.array();
+        }
+
+        /**
+         * Gets the size of the channel data.
+         *
+         * @return the size
+         */
+        public int size() {
+            int size = 0;
+            for (ByteBuffer frame : this.frames) {
+                size += frame.remaining();
+            }
+            return size;
+        }
 
         /**
          * From channel.
@@ -212,7 +332,9 @@ public class Channels<I extends PurgeableIterator<BatcherTransaction>> implement
          */
         public static Channel from(PendingChannel pendingChannel) {
             return new Channel(
-                    pendingChannel.getChannelId(), pendingChannel.assemble(), pendingChannel.l1InclusionBlock());
+                    pendingChannel.getChannelId().toBigInteger(),
+                    pendingChannel.frameData(),
+                    pendingChannel.l1InclusionBlock());
         }
     }
 
@@ -224,10 +346,15 @@ public class Channels<I extends PurgeableIterator<BatcherTransaction>> implement
      */
     public static class PendingChannel {
 
-        private final BigInteger channelId;
+        private final ChannelId channelId;
 
         private final List<Frame> frames;
 
+        // the frame numbers of the frames, to drop the duplicated frames
+        private final BitSet frameNumbers;
+
+        private long bytes;
+
         private Integer size;
 
         private BigInteger highestL1Block;
@@ -244,13 +371,18 @@ public class Channels<I extends PurgeableIterator<BatcherTransaction>> implement
          * @param lowestL1Block the lowest L1 block
          */
         public PendingChannel(
-                BigInteger channelId,
+                ChannelId channelId,
                 List<Frame> frames,
                 Integer size,
                 BigInteger highestL1Block,
                 BigInteger lowestL1Block) {
             this.channelId = channelId;
             this.frames = frames;
+            this.frameNumbers = new BitSet();
+            for (Frame frame : frames) {
+                this.frameNumbers.set(frame.frameNumber());
+                this.bytes += frame.frameDataLen();
+            }
             this.size = size;
             this.highestL1Block = highestL1Block;
             this.lowestL1Block = lowestL1Block;
@@ -281,10 +413,21 @@ public class Channels<I extends PurgeableIterator<BatcherTransaction>> implement
          * @return the byte [ ]
          */
         public byte[] assemble() {
+            ByteBuffer data = ByteBuffer.allocate((int) this.bytes);
+            this.frameData().forEach(frame -> data.put(frame.duplicate()));
+            return data.array();
+        }
+
+        /**
+         * Gets the data of the frames, in the order of the frame numbers.
+         *
+         * @return the data of the frames
+         */
+        public List<ByteBuffer> frameData() {
             return frames.stream()
-                    .sorted(Comparator.comparing(Frame::frameNumber))
-                    .map(Frame::frameData)
-                    .reduce(new byte[0], ArrayUtils::addAll);
+                    .sorted(Comparator.comparingInt(Frame::frameNumber))
+                    .map(Frame::data)
+                    .toList();
         }
 
         /**
@@ -299,28 +442,59 @@ public class Channels<I extends PurgeableIterator<BatcherTransaction>> implement
                     .orElseThrow();
         }
 
+        /**
+         * Drop the frames included after the L1 block.
+         *
+         * @param l1Block the last L1 block that is still canonical
+         * @return false if no frame is left
+         */
+        public boolean rollback(BigInteger l1Block) {
+            this.frames.removeIf(frame -> frame.l1InclusionBlock().compareTo(l1Block) > 0);
+            if (this.frames.isEmpty()) {
+                return false;
+            }
+            this.frameNumbers.clear();
+            this.bytes = 0L;
+            for (Frame frame : this.frames) {
+                this.frameNumbers.set(frame.frameNumber());
+                this.bytes += frame.frameDataLen();
+            }
+            this.size = this.frames.stream()
+                    .filter(Frame::isLastFrame)
+                    .findFirst()
+                    .map(frame -> frame.frameNumber() + 1)
+                    .orElse(null);
+            this.highestL1Block = this.l1InclusionBlock();
+            this.lowestL1Block = this.frames.stream()
+                    .map(Frame::l1InclusionBlock)
+                    .min(BigInteger::compareTo)
+                    .orElseThrow();
+            return true;
+        }
+
         /**
          * Push frame.
          *
          * @param frame the frame
+         * @return true if the frame was added, false if a frame of the same number was already pushed
          */
-        public void pushFrame(Frame frame) {
-            final boolean hasSeen = this.frames.stream()
-                    .map(Frame::frameNumber)
-                    .anyMatch(number -> Objects.equals(number, frame.frameNumber()));
-
-            if (!hasSeen) {
-                if (frame.l1InclusionBlock().compareTo(this.highestL1Block) > 0) {
-                    this.highestL1Block = frame.l1InclusionBlock();
-                } else if (frame.l1InclusionBlock().compareTo(this.lowestL1Block) < 0) {
-                    this.lowestL1Block = frame.l1InclusionBlock();
-                }
-
-                if (frame.isLastFrame()) {
-                    this.size = frame.frameNumber() + 1;
-                }
-                this.frames.add(frame);
+        public boolean pushFrame(Frame frame) {
+            if (this.frameNumbers.get(frame.frameNumber())) {
+                return false;
             }
+            if (frame.l1InclusionBlock().compareTo(this.highestL1Block) > 0) {
+                this.highestL1Block = frame.l1InclusionBlock();
+            } else if (frame.l1InclusionBlock().compareTo(this.lowestL1Block) < 0) {
+                this.lowestL1Block = frame.l1InclusionBlock();
+            }
+
+            if (frame.isLastFrame()) {
+                this.size = frame.frameNumber() + 1;
+            }
+            this.frames.add(frame);
+            this.frameNumbers.set(frame.frameNumber());
+            this.bytes += frame.frameDataLen();
+            return true;
         }
 
         /**
@@ -328,7 +502,7 @@ public class Channels<I extends PurgeableIterator<BatcherTransaction>> implement
          *
          * @return the channel id
          */
-        public BigInteger getChannelId() {
+        public ChannelId getChannelId() {
             return channelId;
         }
 
@@ -341,6 +515,15 @@ public class Channels<I extends PurgeableIterator<BatcherTransaction>> implement
             return frames;
         }
 
+        /**
+         * Gets the frame data bytes of the frames.
+         *
+         * @return the frame data bytes
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
         /**
          * Gets size.
          *
@@ -384,4 +567,6 @@ public class Channels<I extends PurgeableIterator<BatcherTransaction>> implement
                     frame.l1InclusionBlock());
         }
     }
+
+    private record EmittedChannel(BigInteger lowestL1Block, BigInteger l1InclusionBlock) {}
 }
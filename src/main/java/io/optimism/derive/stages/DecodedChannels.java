@@ -0,0 +1,130 @@
+package io.optimism.derive.stages;
+
+import io.optimism.config.Config;
+import io.optimism.derive.PurgeableIterator;
+import io.optimism.derive.stages.Channels.Channel;
+import io.optimism.types.Batch;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The stage decodes the ready channels into batches.
+ *
+ * <p>The channels are decompressed and decoded concurrently, up to one channel per processor, and
+ * the batches of the channels are returned in the order the channels were completed. Only the
+ * decoding of the next channel in order is waited for.
+ *
+ * @param <I> the type parameter
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+public class DecodedChannels<I extends PurgeableIterator<Channel>> implements PurgeableIterator<List<Batch>> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DecodedChannels.class);
+
+    private static final ExecutorService DECODER = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final I channelIterator;
+
+    private final Config config;
+
+    private final int maxDecoding;
+
+    private final Deque<DecodingChannel> decoding;
+
+    /**
+     * Instantiates a new DecodedChannels.
+     *
+     * @param channelIterator the channel iterator
+     * @param config the config
+     * @param maxDecoding the max number of channels decoded concurrently
+     */
+    public DecodedChannels(I channelIterator, Config config, int maxDecoding) {
+        this.channelIterator = channelIterator;
+        this.config = config;
+        this.maxDecoding = Math.max(1, maxDecoding);
+        this.decoding = new ArrayDeque<>(this.maxDecoding);
+    }
+
+    @Override
+    public void purge() {
+        this.channelIterator.purge();
+        this.decoding.forEach(DecodingChannel::cancel);
+        this.decoding.clear();
+    }
+
+    @Override
+    public boolean rollback(BigInteger l1Block) {
+        if (!this.channelIterator.rollback(l1Block)) {
+            return false;
+        }
+        this.decoding.removeIf(channel -> {
+            if (channel.l1InclusionBlock().compareTo(l1Block) > 0) {
+                channel.cancel();
+                return true;
+            }
+            return false;
+        });
+        return true;
+    }
+
+    @Override
+    public List<Batch> next() {
+        while (this.decoding.size() < this.maxDecoding) {
+            final Channel channel = this.channelIterator.next();
+            if (channel == null) {
+                break;
+            }
+            final Config.ChainConfig chainConfig = this.config.chainConfig();
+            this.decoding.addLast(new DecodingChannel(
+                    channel.l1InclusionBlock(), DECODER.submit(() -> Batches.decodeBatches(chainConfig, channel))));
+        }
+        final DecodingChannel next = this.decoding.peekFirst();
+        if (next == null) {
+            return null;
+        }
+        try {
+            final List<Batch> batches = next.batches().get();
+            this.decoding.removeFirst();
+            return batches;
+        } catch (InterruptedException e) {
+            // the channel is kept, it is returned by the next call
+            Thread.currentThread().interrupt();
+            LOGGER.warn("interrupted while decoding channel: l1InclusionBlock={}", next.l1InclusionBlock());
+            return null;
+        } catch (ExecutionException e) {
+            this.decoding.removeFirst();
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Create decoded channels.
+     *
+     * @param <I> the type parameter
+     * @param channelIterator the channel iterator
+     * @param config the config
+     * @return the decoded channels
+     */
+    public static <I extends PurgeableIterator<Channel>> DecodedChannels<I> create(I channelIterator, Config config) {
+        return new DecodedChannels<>(channelIterator, config, Runtime.getRuntime().availableProcessors());
+    }
+
+    private record DecodingChannel(BigInteger l1InclusionBlock, Future<List<Batch>> batches) {
+
+        private void cancel() {
+            this.batches.cancel(true);
+        }
+    }
+}
@@ -39,6 +39,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
@@ -46,6 +47,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
@@ -73,6 +75,10 @@ import org.web3j.utils.Numeric;
 public class Driver<E extends Engine> extends AbstractExecutionThreadService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Driver.class);
+
+    // an idle driver waits this long for the next L1 block update, unsafe payloads are polled after it
+    private static final Duration IDLE_WAIT = Duration.ofMillis(20L);
+
     private final Pipeline pipeline;
 
     private final EngineDriver<E> engineDriver;
@@ -111,6 +117,9 @@ public class Driver<E extends Engine> extends AbstractExecutionThreadService {
 
     private final AtomicBoolean isElsyncFinished;
 
+    // set by an advance that did no work, the next one waits for a block update instead of spinning
+    private boolean idle;
+
     /**
      * Instantiates a new Driver.
      *
@@ -436,34 +445,31 @@ public class Driver<E extends Engine> extends AbstractExecutionThreadService {
 
     @SuppressWarnings("VariableDeclarationUsageDistance")
     private void advance() throws InterruptedException, ExecutionException {
+        final boolean safeHeadAdvanced;
         try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
-            var voidFuture = scope.fork(TracerTaskWrapper.wrap((Callable<Void>) () -> {
-                Driver.this.advanceSafeHead();
-                return null;
-            }));
+            var advanced = scope.fork(TracerTaskWrapper.wrap(Driver.this::advanceSafeHead));
 
             scope.join();
             scope.throwIfFailed();
-            voidFuture.get();
+            safeHeadAdvanced = advanced.get();
         }
 
+        final boolean unsafeHeadAdvanced;
         try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
-            var voidFuture = scope.fork(TracerTaskWrapper.wrap((Callable<Void>) () -> {
-                Driver.this.advanceUnsafeHead();
-                return null;
-            }));
+            var advanced = scope.fork(TracerTaskWrapper.wrap(Driver.this::advanceUnsafeHead));
             scope.join();
             scope.throwIfFailed();
-            voidFuture.get();
+            unsafeHeadAdvanced = advanced.get();
         }
+        this.idle = !safeHeadAdvanced && !unsafeHeadAdvanced;
         this.updateFinalized();
         this.updateMetrics();
 
         this.tryStartNetwork();
     }
 
-    private void advanceSafeHead() throws ExecutionException, InterruptedException {
-        this.handleNextBlockUpdate();
+    private boolean advanceSafeHead() throws ExecutionException, InterruptedException {
+        boolean advanced = this.handleNextBlockUpdate();
         this.updateStateHead();
 
         for (PayloadAttributes payloadAttributes = this.pipeline.next();
@@ -501,13 +507,17 @@ public class Driver<E extends Engine> extends AbstractExecutionThreadService {
                     new UnfinalizedBlock(newSafeHead, newSafeEpoch, l1InclusionBlock, seqNumber);
 
             Driver.this.unfinalizedBlocks.add(newUnfinalizedBlock);
+            advanced = true;
         }
+        return advanced;
     }
 
-    private void advanceUnsafeHead() throws ExecutionException, InterruptedException {
+    private boolean advanceUnsafeHead() throws ExecutionException, InterruptedException {
+        boolean advanced = false;
         for (ExecutionPayload payload = this.unsafeBlockQueue.poll();
                 payload != null;
                 payload = this.unsafeBlockQueue.poll()) {
+            advanced = true;
             BigInteger unsafeBlockNum = payload.blockNumber();
             BigInteger syncedBlockNum = Driver.this.engineDriver.getUnsafeHead().number();
 
@@ -528,7 +538,7 @@ public class Driver<E extends Engine> extends AbstractExecutionThreadService {
             }
         }
         if (this.futureUnsafeBlocks.isEmpty()) {
-            return;
+            return advanced;
         }
         LOGGER.debug("will handle future unsafe blocks: size={}", this.futureUnsafeBlocks.size());
         Optional<ExecutionPayload> nextUnsafePayload;
@@ -542,7 +552,7 @@ public class Driver<E extends Engine> extends AbstractExecutionThreadService {
         }
 
         if (nextUnsafePayload.isEmpty()) {
-            return;
+            return advanced;
         }
         try {
             LOGGER.debug(
@@ -557,13 +567,14 @@ public class Driver<E extends Engine> extends AbstractExecutionThreadService {
             LOGGER.warn("Failed to insert unsafe payload for EL sync: ", e);
         }
         if (!this.config.syncMode().isEl() || this.engineDriver.isEngineSyncing()) {
-            return;
+            return true;
         }
         if (!this.isElsyncFinished.compareAndExchange(false, true)) {
             LOGGER.info("execution layer syncing is done, restarting chain watcher.");
             this.fetchAndUpdateFinalizedHead();
             this.restartChainWatcher();
         }
+        return true;
     }
 
     private void updateStateHead() {
@@ -574,34 +585,111 @@ public class Driver<E extends Engine> extends AbstractExecutionThreadService {
     }
 
     @SuppressWarnings("preview")
-    private void handleNextBlockUpdate() {
-        BlockUpdate next = this.chainWatcher.getBlockUpdateQueue().poll();
+    private boolean handleNextBlockUpdate() throws InterruptedException {
+        final BlockingQueue<BlockUpdate> queue = this.chainWatcher.getBlockUpdateQueue();
+        // the watcher wakes an idle driver as soon as it offers an update
+        BlockUpdate next = this.idle ? queue.poll(IDLE_WAIT.toNanos(), TimeUnit.NANOSECONDS) : queue.poll();
         if (next == null) {
-            return;
+            return false;
         }
+        InnerMetrics.setBlockUpdateQueueDepth(queue.size());
 
         switch (next) {
             case BlockUpdate.NewBlock l1info -> {
                 BigInteger num = l1info.get().blockInfo().number();
-                Driver.this.pipeline.pushBatcherTransactions(
-                        l1info.get().batcherTransactions().stream()
-                                .map(Numeric::hexStringToByteArray)
-                                .collect(Collectors.toList()),
-                        num);
+                Driver.this.pipeline.pushBatcherTransactions(l1info.get().batcherTransactions(), num);
 
                 Driver.this.state.getAndUpdate(state -> {
                     state.updateL1Info(((BlockUpdate.NewBlock) next).get());
                     return state;
                 });
             }
-            case BlockUpdate.Reorg ignored -> {
-                LOGGER.warn("reorg detected, purging pipeline");
-                Driver.this.unfinalizedBlocks.clear();
-                Driver.this.restartChainWatcher();
+            case BlockUpdate.Reorg reorg -> {
+                BlockInfo ancestor = reorg.getCommonAncestor();
+                if (ancestor != null && Driver.this.rollback(ancestor.number())) {
+                    LOGGER.warn("reorg detected, rolled back to L1 block {}", ancestor.number());
+                } else {
+                    LOGGER.warn("reorg detected, purging pipeline");
+                    Driver.this.unfinalizedBlocks.clear();
+                    Driver.this.restartChainWatcher();
+                }
             }
             case BlockUpdate.FinalityUpdate num -> Driver.this.finalizedL1BlockNumber = num.get();
             default -> throw new IllegalArgumentException("unknown block update type");
         }
+        return true;
+    }
+
+    /**
+     * Roll back the derivation to the common ancestor of an L1 reorg: only the L2 blocks derived from
+     * the dropped L1 blocks are rolled back, instead of restarting from the finalized head.
+     *
+     * @param l1Block the last L1 block that is still canonical
+     * @return false if the derivation can not be rolled back and must be restarted
+     */
+    private boolean rollback(BigInteger l1Block) {
+        final Tuple2<BlockInfo, Epoch> target = rollbackSafeHead(
+                this.unfinalizedBlocks,
+                l1Block,
+                new Tuple2<>(this.engineDriver.getSafeHead(), this.engineDriver.getSafeEpoch()),
+                new Tuple2<>(this.engineDriver.getFinalizedHead(), this.engineDriver.getFinalizedEpoch()));
+        if (target == null) {
+            return false;
+        }
+        final BlockInfo safeHead = target.component1();
+        final Epoch safeEpoch = target.component2();
+
+        this.state.getAndUpdate(state -> {
+            state.rollback(l1Block, safeHead, safeEpoch);
+            return state;
+        });
+        if (!this.pipeline.rollback(l1Block)) {
+            return false;
+        }
+        this.engineDriver.rollback(safeHead, safeEpoch);
+        this.unfinalizedBlocks.removeIf(block -> block.head().number().compareTo(safeHead.number()) > 0);
+        return true;
+    }
+
+    /**
+     * Choose the safe head to roll back to: the last unfinalized block derived from the kept L1
+     * blocks, the finalized head if there is none, or the current safe head if no block was derived
+     * from the dropped L1 blocks.
+     *
+     * @param unfinalizedBlocks the unfinalized blocks in block number order
+     * @param l1Block the last L1 block that is still canonical
+     * @param safeHead the current safe head and its epoch
+     * @param finalizedHead the finalized head and its epoch
+     * @return the safe head and its epoch, or null if the derivation can not be rolled back
+     */
+    static Tuple2<BlockInfo, Epoch> rollbackSafeHead(
+            List<UnfinalizedBlock> unfinalizedBlocks,
+            BigInteger l1Block,
+            Tuple2<BlockInfo, Epoch> safeHead,
+            Tuple2<BlockInfo, Epoch> finalizedHead) {
+        int firstAffected = -1;
+        for (int i = 0; i < unfinalizedBlocks.size(); i++) {
+            BigInteger inclusion = unfinalizedBlocks.get(i).l1InclusionBlock();
+            if (firstAffected < 0 && inclusion.compareTo(l1Block) > 0) {
+                firstAffected = i;
+            } else if (firstAffected >= 0 && inclusion.compareTo(l1Block) <= 0) {
+                // the batch of this block was consumed, it would not be derived again
+                return null;
+            }
+        }
+        final Tuple2<BlockInfo, Epoch> target;
+        if (firstAffected < 0) {
+            target = safeHead;
+        } else if (firstAffected == 0) {
+            target = finalizedHead;
+        } else {
+            UnfinalizedBlock kept = unfinalizedBlocks.get(firstAffected - 1);
+            target = new Tuple2<>(kept.head(), kept.epoch());
+        }
+        if (target.component2().number().compareTo(l1Block) > 0) {
+            return null;
+        }
+        return target;
     }
 
     private void restartChainWatcher() {
@@ -740,6 +828,14 @@ public class Driver<E extends Engine> extends AbstractExecutionThreadService {
                 final HeadInfo l2BlockInfo = HeadInfo.from(block.getBlock());
                 return new Tuple2<>(l2BlockInfo.l2BlockInfo(), l2BlockInfo.l1Epoch());
             } catch (Exception e) {
+                // a cancelled prefetch interrupts its fetch, that is not a failure
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    LOGGER.debug("interrupted while fetching L2 block: {}", blockParameter.getValue());
+                    return null;
+                }
                 LOGGER.error("failed to fetch L2 block", e);
                 return null;
             }
@@ -317,6 +317,21 @@ public class EngineDriver<E extends Engine> {
         this.safeEpoch = this.finalizedEpoch;
     }
 
+    /**
+     * Roll the safe head back to a block that is still derived from canonical L1 blocks after an L1
+     * reorg. The unsafe head is rolled back with it if it is ahead.
+     *
+     * @param head the new safe head
+     * @param epoch the epoch of the new safe head
+     */
+    public void rollback(BlockInfo head, Epoch epoch) {
+        this.safeHead = head;
+        this.safeEpoch = epoch;
+        if (this.unsafeHead.number().compareTo(head.number()) > 0) {
+            this.unsafeHead = head;
+        }
+    }
+
     /**
      * Engine ready completable future.
      *
@@ -6,6 +6,7 @@ import io.optimism.types.Epoch;
 import java.math.BigInteger;
 import org.web3j.protocol.core.methods.response.EthBlock;
 import org.web3j.protocol.core.methods.response.EthBlock.TransactionObject;
+import org.web3j.protocol.core.methods.response.Transaction;
 
 /**
  * The type HeadInfo.
@@ -25,12 +26,26 @@ public record HeadInfo(BlockInfo l2BlockInfo, Epoch l1Epoch, BigInteger sequence
      * @return the head info
      */
     public static HeadInfo from(EthBlock.Block block) {
+        if (block.getTransactions().isEmpty()) {
+            throw new L1AttributesDepositedTxNotFoundException();
+        }
+        return from(block, (TransactionObject) block.getTransactions().get(0));
+    }
+
+    /**
+     * From head info, the transactions of the block are not used.
+     *
+     * @param block the block
+     * @param attributesDepositedTx the first transaction of the block, the L1 attributes deposited transaction
+     * @return the head info
+     */
+    public static HeadInfo from(EthBlock.Block block, Transaction attributesDepositedTx) {
         BlockInfo blockInfo = BlockInfo.from(block);
 
-        if (block.getTransactions().isEmpty()) {
+        if (attributesDepositedTx == null) {
             throw new L1AttributesDepositedTxNotFoundException();
         }
-        String txCallData = ((TransactionObject) block.getTransactions().get(0)).getInput();
+        String txCallData = attributesDepositedTx.getInput();
 
         AttributesDepositedCall call = AttributesDepositedCall.from(txCallData);
         return new HeadInfo(blockInfo, call.toEpoch(), call.sequenceNumber());
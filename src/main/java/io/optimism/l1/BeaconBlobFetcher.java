@@ -3,16 +3,23 @@ package io.optimism.l1;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
 import ethereum.ckzg4844.CKZG4844JNI;
 import io.optimism.rpc.HttpClientProvider;
 import io.optimism.rpc.response.BeaconApiResponse;
 import io.optimism.types.BlobSidecar;
 import io.optimism.types.SpecConfig;
 import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import okhttp3.Call;
 import okhttp3.HttpUrl;
@@ -40,6 +47,18 @@ public class BeaconBlobFetcher {
 
     private static final String SIDECARS_METHOD_PREFIX_FORMAT = "%s/eth/v1/beacon/blob_sidecars";
 
+    private static final int MIN_BLOBS_PER_VERIFY_TASK = 32;
+
+    private static final String SSZ_CONTENT_TYPE = "application/octet-stream";
+
+    private static final String SSZ_OR_JSON_ACCEPT = "application/octet-stream;q=1.0,application/json;q=0.9";
+
+    private static final int HTTP_NOT_ACCEPTABLE = 406;
+
+    private static final double LATENCY_EWMA_ALPHA = 0.3;
+
+    private static final double FAILED_REQUEST_LATENCY_MILLIS = 10_000.0;
+
     static {
         CKZG4844JNI.loadNativeLibrary();
         CKZG4844JNI.loadTrustedSetupFromResource("/kzg-trusted-setups/mainnet.txt", BeaconBlobFetcher.class);
@@ -49,17 +68,21 @@ public class BeaconBlobFetcher {
 
     private final String specMethod;
 
-    private final String sidecarsMethod;
+    private final List<Endpoint> beacons;
 
-    private final String archiverSidecarsMethod;
+    private final Endpoint archiver;
+
+    private final Duration hedgeDelay;
 
     private final OkHttpClient httpClient;
 
     private final ObjectMapper mapper;
 
-    private BigInteger genesisTimestamp;
+    private volatile BigInteger genesisTimestamp;
+
+    private volatile BigInteger secondsPerSlot;
 
-    private BigInteger secondsPerSlot;
+    private final BlobStore blobStore;
 
     /**
      * Beacon blob info fetcher constructor.
@@ -76,21 +99,40 @@ public class BeaconBlobFetcher {
      * @param beaconArchiverUrl L1 beacon archiver client url
      */
     public BeaconBlobFetcher(String beaconUrl, String beaconArchiverUrl) {
-        if (beaconUrl.endsWith("/")) {
-            beaconUrl = beaconUrl.replaceAll("/+$", "");
-        }
-        if (beaconArchiverUrl.endsWith("/")) {
-            beaconArchiverUrl = beaconArchiverUrl.replaceAll("/+$", "");
+        this(beaconUrl, beaconArchiverUrl, null, null);
+    }
+
+    /**
+     * Beacon blob info fetcher constructor.
+     *
+     * @param beaconUrl L1 beacon client urls, separated by comma
+     * @param beaconArchiverUrl L1 beacon archiver client url
+     * @param hedgeDelay the time to wait for a blob sidecars request before the next beacon client is
+     *     requested concurrently, requests are sent one after another if null
+     * @param blobStore the on-disk store of verified blob sidecars, may be null
+     */
+    BeaconBlobFetcher(String beaconUrl, String beaconArchiverUrl, Duration hedgeDelay, BlobStore blobStore) {
+        List<String> beaconUrls = Arrays.stream(beaconUrl.split(","))
+                .map(String::trim)
+                .filter(StringUtils::isNotEmpty)
+                .map(url -> url.replaceAll("/+$", ""))
+                .toList();
+        if (beaconUrls.isEmpty()) {
+            throw new IllegalArgumentException("beacon url is empty");
         }
-        this.genesisMethod = GENESIS_METHOD_FORMAT.formatted(beaconUrl);
-        this.specMethod = SPEC_METHOD_FORMAT.formatted(beaconUrl);
-        this.sidecarsMethod = SIDECARS_METHOD_PREFIX_FORMAT.formatted(beaconUrl);
-        this.archiverSidecarsMethod = StringUtils.isEmpty(beaconArchiverUrl)
+        this.genesisMethod = GENESIS_METHOD_FORMAT.formatted(beaconUrls.getFirst());
+        this.specMethod = SPEC_METHOD_FORMAT.formatted(beaconUrls.getFirst());
+        this.beacons = beaconUrls.stream()
+                .map(url -> new Endpoint(SIDECARS_METHOD_PREFIX_FORMAT.formatted(url)))
+                .toList();
+        this.archiver = StringUtils.isBlank(beaconArchiverUrl)
                 ? null
-                : SIDECARS_METHOD_PREFIX_FORMAT.formatted(beaconArchiverUrl);
+                : new Endpoint(SIDECARS_METHOD_PREFIX_FORMAT.formatted(beaconArchiverUrl.replaceAll("/+$", "")));
+        this.hedgeDelay = hedgeDelay == null || hedgeDelay.isZero() || hedgeDelay.isNegative() ? null : hedgeDelay;
         this.httpClient = HttpClientProvider.create();
         this.mapper = new ObjectMapper();
         this.mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.blobStore = blobStore;
     }
 
     /**
@@ -122,8 +164,9 @@ public class BeaconBlobFetcher {
      */
     public BigInteger getSlotFromTime(BigInteger time) {
         if (this.genesisTimestamp == null) {
-            this.genesisTimestamp = this.getGenesisTimestamp();
+            // seconds per slot must be visible before genesis timestamp, blocks may be prefetched concurrently
             this.secondsPerSlot = this.getSpecConfig().getSecondsPerSlot();
+            this.genesisTimestamp = this.getGenesisTimestamp();
         }
         return time.subtract(this.genesisTimestamp).divide(secondsPerSlot);
     }
@@ -136,38 +179,155 @@ public class BeaconBlobFetcher {
      * @return the list of blob sidecars
      */
     public List<BlobSidecar> getBlobSidecards(String blockId, final List<BigInteger> indices) {
+        return this.fetchBlobSidecars(blockId, indices, null);
+    }
+
+    /**
+     * Get the verified blob sidecars, the blob store is consulted before the beacon clients.
+     *
+     * @param blockId the block id
+     * @param indices the blob indices
+     * @param versionedHashes the versioned hashes of the blobs
+     * @return the list of blob sidecars verified against the versioned hashes, or null if no beacon
+     *     client returned valid blob sidecars
+     */
+    public List<BlobSidecar> getBlobSidecards(
+            String blockId, final List<BigInteger> indices, final List<String> versionedHashes) {
+        if (this.blobStore != null) {
+            List<BlobSidecar> stored = this.blobStore.get(versionedHashes);
+            if (stored != null && hasVersionedHashes(stored, versionedHashes)) {
+                return stored;
+            }
+        }
+        List<BlobSidecar> blobSidecars = this.fetchBlobSidecars(blockId, indices, versionedHashes);
+        if (blobSidecars != null && this.blobStore != null) {
+            this.blobStore.put(blobSidecars);
+        }
+        return blobSidecars;
+    }
+
+    private List<BlobSidecar> fetchBlobSidecars(
+            String blockId, final List<BigInteger> indices, final List<String> versionedHashes) {
         var params = indices == null || indices.isEmpty()
                 ? null
                 : Map.of("indices", indices.stream().map(BigInteger::toString).collect(Collectors.joining(",")));
         var postfix = "%s%s".formatted(blockId, prepareQueryParams(params));
-        var res = getBlobSidecars("%s/%s".formatted(this.sidecarsMethod, postfix));
-        if (res != null && res.getData() != null && !res.getData().isEmpty()) {
-            return res.getData();
-        }
-        if (this.archiverSidecarsMethod != null) {
-            LOGGER.warn(
-                    "blob sidecars may be pruned, try blob archiver sidecars method: blockId = {}, indices = {}",
-                    blockId,
-                    indices);
-            var archiverRes = getBlobSidecars("%s/%s".formatted(this.archiverSidecarsMethod, postfix));
-            if (archiverRes.getData() != null && !archiverRes.getData().isEmpty()) {
-                return archiverRes.getData();
+        // the fastest beacon client is requested first, the archiver is the last resort
+        List<Endpoint> endpoints = new ArrayList<>(this.beacons);
+        endpoints.sort(Comparator.comparingDouble(Endpoint::latencyMillis));
+        if (this.archiver != null) {
+            endpoints.add(this.archiver);
+        }
+        try (var scope = new FirstValidScope()) {
+            for (int i = 0; i < endpoints.size(); i++) {
+                final Endpoint endpoint = endpoints.get(i);
+                scope.fork(() -> this.fetchValidBlobSidecars(endpoint, postfix, versionedHashes));
+                if (this.hedgeDelay == null || i == endpoints.size() - 1) {
+                    scope.join();
+                } else {
+                    try {
+                        scope.joinUntil(Instant.now().plus(this.hedgeDelay));
+                    } catch (TimeoutException e) {
+                        LOGGER.debug("blob sidecars request is slow, hedge with the next beacon client: {}", postfix);
+                    }
+                }
+                if (scope.result() != null) {
+                    break;
+                }
+            }
+            if (scope.result() == null) {
+                LOGGER.warn("no beacon client returned valid blob sidecars: {}", postfix);
             }
-        } else {
-            LOGGER.info(
-                    "blob archiver sidecars method is empty, skip retry: block Id = {}, indices = {}",
-                    blockId,
-                    indices);
+            return scope.result();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("interrupted while fetching blob sidecars: {}", postfix);
+            return null;
         }
+    }
 
+    private List<BlobSidecar> fetchValidBlobSidecars(
+            Endpoint endpoint, String postfix, List<String> versionedHashes) {
+        final long start = System.nanoTime();
+        var res = this.getBlobSidecars(endpoint, "%s/%s".formatted(endpoint.sidecarsMethod, postfix));
+        if (Thread.currentThread().isInterrupted()) {
+            // another beacon client has answered first, the elapsed time is still a lower bound of the latency
+            endpoint.recordLatency(System.nanoTime() - start, true);
+            return null;
+        }
+        endpoint.recordLatency(System.nanoTime() - start, res != null);
+        if (res == null || res.getData() == null || res.getData().isEmpty()) {
+            LOGGER.warn("blob sidecars may be pruned: method = {}, blockId = {}", endpoint.sidecarsMethod, postfix);
+            return null;
+        }
+        if (versionedHashes != null && !verifyBlobSidecars(res.getData(), versionedHashes)) {
+            LOGGER.warn("invalid blob sidecars: method = {}, blockId = {}", endpoint.sidecarsMethod, postfix);
+            return null;
+        }
         return res.getData();
     }
 
-    private BeaconApiResponse<List<BlobSidecar>> getBlobSidecars(String url) {
-        var req = new Request.Builder().get().url(HttpUrl.parse(url)).build();
-        return this.send(req, new TypeReference<BeaconApiResponse<List<BlobSidecar>>>() {});
+    private static boolean hasVersionedHashes(List<BlobSidecar> blobSidecars, List<String> versionedHashes) {
+        for (int i = 0; i < blobSidecars.size(); i++) {
+            if (!blobSidecars.get(i).getVersionedHash().equalsIgnoreCase(versionedHashes.get(i))) {
+                return false;
+            }
+        }
+        return true;
     }
 
+    private BeaconApiResponse<List<BlobSidecar>> getBlobSidecars(Endpoint endpoint, String url) {
+        var typeRef = new TypeReference<BeaconApiResponse<List<BlobSidecar>>>() {};
+        if (!endpoint.sszSupported) {
+            var req = new Request.Builder().get().url(HttpUrl.parse(url)).build();
+            return this.send(req, typeRef);
+        }
+        // prefer ssz, a beacon node that does not support it still answers with json
+        var req = new Request.Builder()
+                .get()
+                .url(HttpUrl.parse(url))
+                .header("Accept", SSZ_OR_JSON_ACCEPT)
+                .build();
+        Call call = this.httpClient.newCall(req);
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+            var task = scope.fork(() -> {
+                try (Response execute = call.execute()) {
+                    if (execute.code() == HTTP_NOT_ACCEPTABLE) {
+                        LOGGER.info("beacon client does not accept ssz requests, fall back to json: {}", url);
+                        endpoint.sszSupported = false;
+                        return null;
+                    }
+                    String contentType = execute.header("Content-Type");
+                    if (execute.isSuccessful() && contentType != null && contentType.startsWith(SSZ_CONTENT_TYPE)) {
+                        return new BeaconApiResponse<>(
+                                BlobSidecar.fromSsz(execute.body().byteStream()));
+                    }
+                    return this.mapper.readValue(execute.body().byteStream(), typeRef);
+                }
+            });
+            scope.join();
+            scope.throwIfFailed();
+            if (task.get() == null && !endpoint.sszSupported) {
+                return this.getBlobSidecars(endpoint, url);
+            }
+            return task.get();
+        } catch (InterruptedException e) {
+            call.cancel();
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.warn("request beacon client failed", e);
+        }
+        return null;
+    }
+
+    /**
+     * Verify the blob sidecars against the versioned hashes. The kzg proofs are checked with the
+     * batch verification of the library, large batches are split and verified concurrently.
+     *
+     * @param blobSidecars the blob sidecars
+     * @param versionedHashes the versioned hashes of the blob sidecars
+     * @return true if all the blob sidecars are valid, otherwise false
+     */
     static boolean verifyBlobSidecars(List<BlobSidecar> blobSidecars, List<String> versionedHashes) {
         if (blobSidecars == null || versionedHashes == null) {
             return false;
@@ -178,37 +338,81 @@ public class BeaconBlobFetcher {
         }
 
         for (int i = 0; i < blobSidecars.size(); i++) {
-            var blobSidecar = blobSidecars.get(i);
-            var versionedHash = versionedHashes.get(i);
-            if (!verifyBlobSidecar(blobSidecar, versionedHash)) {
+            if (!blobSidecars.get(i).getVersionedHash().equals(versionedHashes.get(i))) {
                 return false;
             }
         }
+        if (blobSidecars.isEmpty()) {
+            return true;
+        }
 
-        return true;
+        int tasks = Math.min(
+                Runtime.getRuntime().availableProcessors(), blobSidecars.size() / MIN_BLOBS_PER_VERIFY_TASK);
+        if (tasks <= 1) {
+            return verifyKzgProofBatch(blobSidecars);
+        }
+        var parts = Lists.partition(blobSidecars, Math.ceilDiv(blobSidecars.size(), tasks));
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+            List<StructuredTaskScope.Subtask<Boolean>> forks = new ArrayList<>(parts.size());
+            for (List<BlobSidecar> part : parts) {
+                forks.add(scope.fork(() -> verifyKzgProofBatch(part)));
+            }
+            scope.join();
+            scope.throwIfFailed();
+            return forks.stream().allMatch(StructuredTaskScope.Subtask::get);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("interrupted while verifying blob sidecars", e);
+        } catch (ExecutionException e) {
+            LOGGER.warn("failed to verify blob sidecars", e);
+        }
+        return false;
     }
 
-    static boolean verifyBlobSidecar(BlobSidecar blobSidecar, String versionedHash) {
-        if (!blobSidecar.getVersionedHash().equals(versionedHash)) {
+    private static boolean verifyKzgProofBatch(List<BlobSidecar> blobSidecars) {
+        final int count = blobSidecars.size();
+        final byte[] blobs = new byte[count * CKZG4844JNI.BYTES_PER_BLOB];
+        final byte[] commitments = new byte[count * CKZG4844JNI.BYTES_PER_COMMITMENT];
+        final byte[] proofs = new byte[count * CKZG4844JNI.BYTES_PER_PROOF];
+        for (int i = 0; i < count; i++) {
+            BlobSidecar blobSidecar = blobSidecars.get(i);
+            byte[] blob = blobSidecar.getBlobBytes();
+            if (blob == null || blob.length != CKZG4844JNI.BYTES_PER_BLOB) {
+                return false;
+            }
+            System.arraycopy(blob, 0, blobs, i * CKZG4844JNI.BYTES_PER_BLOB, CKZG4844JNI.BYTES_PER_BLOB);
+            if (!copyHex(blobSidecar.getKzgCommitment(), commitments, i, CKZG4844JNI.BYTES_PER_COMMITMENT)
+                    || !copyHex(blobSidecar.getKzgProof(), proofs, i, CKZG4844JNI.BYTES_PER_PROOF)) {
+                return false;
+            }
+        }
+        return CKZG4844JNI.verifyBlobKzgProofBatch(blobs, commitments, proofs, count);
+    }
+
+    private static boolean copyHex(String hex, byte[] dest, int index, int size) {
+        byte[] bytes = Numeric.hexStringToByteArray(hex);
+        if (bytes.length != size) {
             return false;
         }
-        return CKZG4844JNI.verifyBlobKzgProof(
-                Numeric.hexStringToByteArray(blobSidecar.getBlob()),
-                Numeric.hexStringToByteArray(blobSidecar.getKzgCommitment()),
-                Numeric.hexStringToByteArray(blobSidecar.getKzgProof()));
+        System.arraycopy(bytes, 0, dest, index * size, size);
+        return true;
     }
 
     private <T> T send(final Request req, final TypeReference<T> typeRef) {
         Call call = this.httpClient.newCall(req);
         try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
             var task = scope.fork(() -> {
-                Response execute = call.execute();
-                return this.mapper.readValue(execute.body().byteStream(), typeRef);
+                try (Response execute = call.execute()) {
+                    return this.mapper.readValue(execute.body().byteStream(), typeRef);
+                }
             });
             scope.join();
             scope.throwIfFailed();
             return task.get();
-        } catch (InterruptedException | ExecutionException e) {
+        } catch (InterruptedException e) {
+            call.cancel();
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
             LOGGER.warn("request beacon client failed", e);
         }
         return null;
@@ -223,4 +427,54 @@ public class BeaconBlobFetcher {
                         .map(e -> e.getKey() + "=" + e.getValue())
                         .collect(Collectors.joining("&"));
     }
+
+    /** A beacon client that blob sidecars are requested from. */
+    private static final class Endpoint {
+
+        private final String sidecarsMethod;
+
+        private volatile boolean sszSupported = true;
+
+        private volatile double latencyMillis;
+
+        private Endpoint(String sidecarsMethod) {
+            this.sidecarsMethod = sidecarsMethod;
+        }
+
+        private double latencyMillis() {
+            return this.latencyMillis;
+        }
+
+        private void recordLatency(long nanos, boolean success) {
+            double millis = nanos / 1_000_000.0;
+            if (!success) {
+                millis = Math.max(millis, FAILED_REQUEST_LATENCY_MILLIS);
+            }
+            double last = this.latencyMillis;
+            this.latencyMillis = last == 0 ? millis : last + LATENCY_EWMA_ALPHA * (millis - last);
+        }
+    }
+
+    /** Takes the first blob sidecars returned by a subtask, the other subtasks are cancelled. */
+    private static final class FirstValidScope extends StructuredTaskScope<List<BlobSidecar>> {
+
+        private volatile List<BlobSidecar> result;
+
+        @Override
+        protected void handleComplete(Subtask<? extends List<BlobSidecar>> subtask) {
+            if (subtask.state() != Subtask.State.SUCCESS || subtask.get() == null) {
+                return;
+            }
+            synchronized (this) {
+                if (this.result == null) {
+                    this.result = subtask.get();
+                }
+            }
+            this.shutdown();
+        }
+
+        private List<BlobSidecar> result() {
+            return this.result;
+        }
+    }
 }
@@ -0,0 +1,265 @@
+package io.optimism.l1;
+
+import io.optimism.types.BlobSidecar;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.web3j.utils.Numeric;
+
+/**
+ * The on-disk store of blob sidecars, indexed by versioned hash.
+ *
+ * <p>Sidecars are appended as ssz records to memory-mapped segment files of a fixed number of
+ * records. When the segments exceed the max size of the store, the oldest segment is deleted. The
+ * index is rebuilt by scanning the segments when the store is opened, and a record is only read
+ * back if its checksum matches, so a record torn by a crash is treated as missing.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+class BlobStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlobStore.class);
+
+    private static final Map<Path, BlobStore> STORES = new HashMap<>();
+
+    private static final int RECORDS_PER_SEGMENT = 64;
+
+    private static final int VERSIONED_HASH_SIZE = 32;
+
+    // versioned hash, slot, blob index, checksum of the sidecar and the record magic
+    private static final int HEADER_SIZE = VERSIONED_HASH_SIZE + 8 + 8 + 4 + 4;
+
+    private static final int RECORD_SIZE = HEADER_SIZE + BlobSidecar.SSZ_SIZE;
+
+    private static final long SEGMENT_SIZE = (long) RECORD_SIZE * RECORDS_PER_SEGMENT;
+
+    private static final int RECORD_MAGIC = 0x626c6f62;
+
+    private static final String SEGMENT_SUFFIX = ".blobs";
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("\\d+\\.blobs");
+
+    private final Path dir;
+
+    private final long maxSegments;
+
+    private final ArrayDeque<Segment> segments;
+
+    private final Map<String, Location> byHash;
+
+    private BlobStore(Path dir, long maxBytes) {
+        this.dir = dir;
+        this.maxSegments = Math.max(1L, maxBytes / SEGMENT_SIZE);
+        this.segments = new ArrayDeque<>();
+        this.byHash = new HashMap<>();
+    }
+
+    /**
+     * Open the blob store of the directory. The store is shared by all the watchers of the process,
+     * so it survives the restarts of the chain watcher.
+     *
+     * @param dir the directory of the segment files
+     * @param maxBytes the max size of the segment files
+     * @return the blob store
+     * @throws IOException if the directory or the segment files could not be opened
+     */
+    static BlobStore open(Path dir, long maxBytes) throws IOException {
+        final Path normalized = dir.toAbsolutePath().normalize();
+        synchronized (STORES) {
+            BlobStore store = STORES.get(normalized);
+            if (store == null) {
+                store = new BlobStore(normalized, maxBytes);
+                store.load();
+                STORES.put(normalized, store);
+            }
+            return store;
+        }
+    }
+
+    /**
+     * Get the blob sidecars of the versioned hashes. Sidecars are looked up by versioned hash rather
+     * than by slot, so a sidecar of a reorged beacon block is never returned for another block.
+     *
+     * @param versionedHashes the versioned hashes of the blobs
+     * @return the blob sidecars in the order of the versioned hashes, or null if any of them is not
+     *     stored
+     */
+    synchronized List<BlobSidecar> get(List<String> versionedHashes) {
+        final List<BlobSidecar> sidecars = new ArrayList<>(versionedHashes.size());
+        for (String versionedHash : versionedHashes) {
+            Location location = this.byHash.get(versionedHash.toLowerCase(Locale.ROOT));
+            BlobSidecar sidecar = location == null ? null : this.read(location);
+            if (sidecar == null) {
+                return null;
+            }
+            sidecars.add(sidecar);
+        }
+        return sidecars;
+    }
+
+    /**
+     * Gets the number of stored blob sidecars.
+     *
+     * @return the number of stored blob sidecars
+     */
+    synchronized int size() {
+        return this.byHash.size();
+    }
+
+    /**
+     * Store the blob sidecars, the sidecars must have been verified.
+     *
+     * @param sidecars the blob sidecars
+     */
+    synchronized void put(List<BlobSidecar> sidecars) {
+        for (BlobSidecar sidecar : sidecars) {
+            String versionedHash = sidecar.getVersionedHash();
+            if (this.byHash.containsKey(versionedHash)) {
+                continue;
+            }
+            try {
+                this.append(versionedHash, sidecar);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("failed to store blob sidecar: versionedHash = {}", versionedHash, e);
+                return;
+            }
+        }
+    }
+
+    private void append(String versionedHash, BlobSidecar sidecar) throws IOException {
+        final byte[] ssz = sidecar.toSsz();
+        final long slot = Long.parseUnsignedLong(
+                sidecar.getSignedBlockHeader().getMessage().getSlot());
+        final long index = Long.parseUnsignedLong(sidecar.getIndex());
+        Segment segment = this.segments.peekLast();
+        if (segment == null || segment.count == RECORDS_PER_SEGMENT) {
+            segment = this.createSegment(segment == null ? 0L : segment.id + 1);
+        }
+        final int record = segment.count;
+        final ByteBuffer buffer = segment.buffer.duplicate().position(record * RECORD_SIZE);
+        final CRC32C crc = new CRC32C();
+        crc.update(ssz);
+        buffer.put(Numeric.hexStringToByteArray(versionedHash))
+                .putLong(slot)
+                .putLong(index)
+                .putInt((int) crc.getValue());
+        buffer.position(record * RECORD_SIZE + HEADER_SIZE).put(ssz);
+        // the magic is written last, the record is only loaded again if it is complete
+        segment.buffer.putInt(record * RECORD_SIZE + HEADER_SIZE - 4, RECORD_MAGIC);
+        segment.count++;
+        this.byHash.put(versionedHash, new Location(segment, record));
+    }
+
+    private BlobSidecar read(Location location) {
+        final int offset = location.record() * RECORD_SIZE;
+        final ByteBuffer buffer = location.segment().buffer.duplicate();
+        final int checksum = buffer.getInt(offset + VERSIONED_HASH_SIZE + 16);
+        final byte[] ssz = new byte[BlobSidecar.SSZ_SIZE];
+        buffer.get(offset + HEADER_SIZE, ssz);
+        final CRC32C crc = new CRC32C();
+        crc.update(ssz);
+        try {
+            if ((int) crc.getValue() == checksum) {
+                return BlobSidecar.fromSsz(new ByteArrayInputStream(ssz)).getFirst();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("failed to decode stored blob sidecar", e);
+        }
+        LOGGER.warn("stored blob sidecar is corrupted, will be fetched again: segment = {}", location.segment().path);
+        this.byHash.values().remove(location);
+        return null;
+    }
+
+    private void load() throws IOException {
+        Files.createDirectories(this.dir);
+        final List<Path> paths;
+        try (Stream<Path> files = Files.list(this.dir)) {
+            paths = files.filter(path -> SEGMENT_NAME.matcher(path.getFileName().toString()).matches())
+                    .sorted(Comparator.comparingLong(BlobStore::segmentId))
+                    .toList();
+        }
+        for (Path path : paths) {
+            Segment segment = this.mapSegment(segmentId(path), path);
+            final byte[] versionedHash = new byte[VERSIONED_HASH_SIZE];
+            while (segment.count < RECORDS_PER_SEGMENT) {
+                final int offset = segment.count * RECORD_SIZE;
+                if (segment.buffer.getInt(offset + HEADER_SIZE - 4) != RECORD_MAGIC) {
+                    break;
+                }
+                segment.buffer.get(offset, versionedHash);
+                this.byHash.put(Numeric.toHexString(versionedHash), new Location(segment, segment.count));
+                segment.count++;
+            }
+        }
+        this.evict();
+        LOGGER.info("blob store loaded: dir = {}, blobs = {}", this.dir, this.byHash.size());
+    }
+
+    private Segment createSegment(long id) throws IOException {
+        Segment segment = this.mapSegment(id, this.dir.resolve("%020d%s".formatted(id, SEGMENT_SUFFIX)));
+        this.evict();
+        return segment;
+    }
+
+    private Segment mapSegment(long id, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+            Segment segment = new Segment(id, path, buffer);
+            this.segments.addLast(segment);
+            return segment;
+        }
+    }
+
+    private void evict() throws IOException {
+        while (this.segments.size() > this.maxSegments) {
+            Segment oldest = this.segments.pollFirst();
+            this.byHash.values().removeIf(location -> location.segment() == oldest);
+            Files.deleteIfExists(oldest.path);
+            LOGGER.debug("evicted blob store segment: {}", oldest.path);
+        }
+    }
+
+    private static long segmentId(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static final class Segment {
+
+        private final long id;
+
+        private final Path path;
+
+        private final MappedByteBuffer buffer;
+
+        private int count;
+
+        private Segment(long id, Path path, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+
+    private record Location(Segment segment, int record) {}
+}
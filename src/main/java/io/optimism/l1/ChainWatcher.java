@@ -4,8 +4,8 @@ import io.optimism.config.Config;
 import io.optimism.types.BlockInfo;
 import io.optimism.types.BlockUpdate;
 import java.math.BigInteger;
-import org.jctools.queues.MessagePassingQueue;
-import org.jctools.queues.MpscGrowableArrayQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * the ChainWatcher class.
@@ -16,7 +16,10 @@ import org.jctools.queues.MpscGrowableArrayQueue;
 @SuppressWarnings({"UnusedVariable"})
 public class ChainWatcher {
 
-    private volatile MessagePassingQueue<BlockUpdate> blockUpdateQueue;
+    // the watcher is parked once this many updates are waiting for the driver
+    private static final int BLOCK_UPDATE_QUEUE_CAPACITY = 1024 * 4;
+
+    private volatile BlockingQueue<BlockUpdate> blockUpdateQueue;
     private volatile InnerWatcher innerWatcher;
     private final Config config;
 
@@ -25,7 +28,7 @@ public class ChainWatcher {
      *
      * @return the block update queue
      */
-    public MessagePassingQueue<BlockUpdate> getBlockUpdateQueue() {
+    public BlockingQueue<BlockUpdate> getBlockUpdateQueue() {
         return blockUpdateQueue;
     }
 
@@ -38,7 +41,7 @@ public class ChainWatcher {
      */
     public ChainWatcher(BigInteger l1StartBlock, BigInteger l2StartBlock, Config config) {
         this.config = config;
-        this.blockUpdateQueue = new MpscGrowableArrayQueue<>(1024 * 4, 1024 * 64);
+        this.blockUpdateQueue = new LinkedBlockingQueue<>(BLOCK_UPDATE_QUEUE_CAPACITY);
         this.innerWatcher = new InnerWatcher(this.config, this.blockUpdateQueue, l1StartBlock, l2StartBlock);
     }
 
@@ -60,7 +63,7 @@ public class ChainWatcher {
      */
     public void restart(BigInteger l1StartBlock, BigInteger l2StartBlock) {
         this.stop();
-        this.blockUpdateQueue = new MpscGrowableArrayQueue<>(1024 * 4, 1024 * 64);
+        this.blockUpdateQueue = new LinkedBlockingQueue<>(BLOCK_UPDATE_QUEUE_CAPACITY);
         this.innerWatcher = new InnerWatcher(this.config, this.blockUpdateQueue, l1StartBlock, l2StartBlock);
         this.start();
     }
@@ -5,12 +5,17 @@ import io.micrometer.tracing.Span;
 import io.micrometer.tracing.Tracer;
 import io.optimism.config.Config;
 import io.optimism.config.Config.SystemConfig;
-import io.optimism.derive.stages.Attributes;
 import io.optimism.derive.stages.Attributes.UserDeposited;
 import io.optimism.driver.L1AttributesDepositedTxNotFoundException;
 import io.optimism.exceptions.BlockNotIncludedException;
 import io.optimism.exceptions.DepositsNotFoundException;
 import io.optimism.exceptions.HildrServiceExecutionException;
+import io.optimism.l1.L1BlockStore.BatcherBlock;
+import io.optimism.l1.L1BlockStore.Tag;
+import io.optimism.rpc.response.BatcherEthBlock;
+import io.optimism.rpc.response.BatcherEthBlock.BatcherTransaction;
+import io.optimism.rpc.response.BatcherEthBlock.BatcherTxFilter;
+import io.optimism.telemetry.InnerMetrics;
 import io.optimism.telemetry.TracerTaskWrapper;
 import io.optimism.types.BeaconSignedBlockHeader;
 import io.optimism.types.BlobSidecar;
@@ -21,35 +26,31 @@ import io.optimism.types.L1Info;
 import io.optimism.types.SystemConfigUpdate;
 import io.optimism.types.enums.Logging;
 import io.optimism.utilities.blob.BlobCodec;
+import io.optimism.utilities.bloom.LogsBloom;
 import io.optimism.utilities.web3j.Web3jProvider;
-import io.reactivex.disposables.Disposable;
+import io.optimism.utilities.web3j.Web3jUtil;
+import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.java_websocket.exceptions.WebsocketNotConnectedException;
-import org.jctools.queues.MessagePassingQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.web3j.abi.EventEncoder;
-import org.web3j.abi.TypeReference;
-import org.web3j.abi.datatypes.Address;
-import org.web3j.abi.datatypes.Bytes;
-import org.web3j.abi.datatypes.Event;
-import org.web3j.abi.datatypes.generated.Uint256;
-import org.web3j.abi.datatypes.generated.Uint8;
 import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
 import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.protocol.core.DefaultBlockParameterName;
-import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.Request;
 import org.web3j.protocol.core.methods.response.EthBlock;
-import org.web3j.protocol.core.methods.response.EthLog;
 import org.web3j.protocol.core.methods.response.EthLog.LogObject;
-import org.web3j.protocol.websocket.events.NewHead;
 import org.web3j.tuples.generated.Tuple2;
 import org.web3j.tuples.generated.Tuple3;
 import org.web3j.utils.Numeric;
@@ -65,18 +66,26 @@ public class InnerWatcher extends AbstractExecutionThreadService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(InnerWatcher.class);
 
-    private static final String CONFIG_UPDATE_TOPIC = EventEncoder.encode(new Event(
-            "ConfigUpdate",
-            Arrays.asList(
-                    new TypeReference<Uint256>() {}, new TypeReference<Uint8>() {}, new TypeReference<Bytes>() {})));
+    private static final int DEFAULT_PREFETCH_WINDOW = 8;
 
-    private static final String TRANSACTION_DEPOSITED_TOPIC = EventEncoder.encode(new Event(
-            "TransactionDeposited",
-            Arrays.asList(
-                    new TypeReference<Address>() {},
-                    new TypeReference<Address>() {},
-                    new TypeReference<Uint256>() {},
-                    new TypeReference<Bytes>() {})));
+    private static final int DEFAULT_RPC_MAX_BATCH_SIZE = 4;
+
+    private static final int DEFAULT_BLOB_CACHE_SIZE_MB = 2048;
+
+    private static final int DEFAULT_BEACON_HEDGE_DELAY_MILLIS = 500;
+
+    private static final Duration HEAD_POLL_INTERVAL = Duration.ofMillis(250L);
+
+    // two L1 slots without a pushed head, the subscription is considered stale
+    private static final Duration HEAD_SUBSCRIPTION_TIMEOUT = Duration.ofSeconds(24L);
+
+    // the safe and finalized blocks are refreshed at least once per L1 slot while catching up
+    private static final Duration TAGS_REFRESH_INTERVAL = Duration.ofSeconds(12L);
+
+    // how long the watcher stays parked on a full block update queue before checking for a shutdown
+    private static final Duration BLOCK_UPDATE_PUT_TIMEOUT = Duration.ofSeconds(1L);
+
+    private static final BigInteger CONFIG_UPDATE_LOG_RANGE = BigInteger.valueOf(100L);
 
     /**
      * Global Config.
@@ -88,6 +97,9 @@ public class InnerWatcher extends AbstractExecutionThreadService {
      */
     private final Web3j provider;
 
+    /** The L1 rpc service that L1 blocks of batcher transactions are fetched with. */
+    private final Web3jService providerService;
+
     private Web3j wsProvider;
 
     /**
@@ -95,12 +107,22 @@ public class InnerWatcher extends AbstractExecutionThreadService {
      */
     private final BeaconBlobFetcher beaconFetcher;
 
+    /**
+     * Prefetcher of the L1 blocks ahead of the current block.
+     */
+    private final L1BlockPrefetcher<BatcherBlock> prefetcher;
+
+    /**
+     * The max number of requests in one JSON-RPC batch request.
+     */
+    private final int rpcMaxBatchSize;
+
     private final BigInteger l2StartBlock;
 
     /**
      * Channel to send block updates.
      */
-    private final MessagePassingQueue<BlockUpdate> blockUpdateQueue;
+    private final BlockingQueue<BlockUpdate> blockUpdateQueue;
 
     /**
      * Most recent ingested block.
@@ -123,13 +145,21 @@ public class InnerWatcher extends AbstractExecutionThreadService {
     private BigInteger finalizedBlock;
 
     /**
-     * Most recent finalized block info.
+     * The L1 blocks shared with the other pipelines and the rpc methods, and the head, safe and finalized blocks.
+     */
+    private final L1BlockStore blockStore;
+
+    /**
+     * Tracker of the L1 head block, driven by the new heads subscription if there is one.
      */
-    private volatile BlockInfo l1Finalized;
+    private final L1HeadTracker headTracker;
 
-    private volatile BlockInfo l1Safe;
+    /**
+     * The head version the safe and finalized blocks were last refreshed at, and when.
+     */
+    private long tagsHeadVersion = -1L;
 
-    private volatile BlockInfo l1Head;
+    private long tagsRefreshedNanos;
 
     /**
      * List of blocks that have not been finalized yet.
@@ -137,10 +167,14 @@ public class InnerWatcher extends AbstractExecutionThreadService {
     private List<BlockInfo> unfinalizedBlocks;
 
     /**
-     * Mapping from block number to user deposits. Past block deposits are removed as they are no
-     * longer needed.
+     * The deposit and ConfigUpdate logs fetched ahead.
      */
-    private final HashMap<BigInteger, List<Attributes.UserDeposited>> deposits;
+    private final L1LogFetcher logFetcher;
+
+    /**
+     * The system config after each unfinalized block, restored when rewinding to a common ancestor.
+     */
+    private final TreeMap<BigInteger, Config.SystemConfig> systemConfigs;
 
     /**
      * Current system config value.
@@ -153,9 +187,7 @@ public class InnerWatcher extends AbstractExecutionThreadService {
      */
     private volatile Tuple2<BigInteger, Config.SystemConfig> systemConfigUpdate;
 
-    private boolean isShutdownTriggered = false;
-
-    private Disposable l1HeadListener;
+    private volatile boolean isShutdownTriggered = false;
 
     private final boolean devnet;
 
@@ -168,13 +200,37 @@ public class InnerWatcher extends AbstractExecutionThreadService {
      * @param l2StartBlock the start block number of l2
      */
     public InnerWatcher(
-            Config config, MessagePassingQueue<BlockUpdate> queue, BigInteger l1StartBlock, BigInteger l2StartBlock) {
+            Config config, BlockingQueue<BlockUpdate> queue, BigInteger l1StartBlock, BigInteger l2StartBlock) {
         this.config = config;
-        this.provider = Web3jProvider.createClient(config.l1RpcUrl());
+        var l1Client = Web3jProvider.create(
+                config.l1RpcUrl(),
+                config.l1RpcHedgeDelay() == null ? null : Duration.ofMillis(config.l1RpcHedgeDelay()));
+        this.provider = l1Client.component1();
+        this.providerService = l1Client.component2();
         if (StringUtils.isNotEmpty(config.l1WsRpcUrl())) {
             this.wsProvider = Web3jProvider.createClient(config.l1WsRpcUrl());
         }
-        this.beaconFetcher = new BeaconBlobFetcher(config.l1BeaconUrl(), config.l1BeaconArchiverUrl());
+        this.beaconFetcher = new BeaconBlobFetcher(
+                config.l1BeaconUrl(),
+                config.l1BeaconArchiverUrl(),
+                Duration.ofMillis(
+                        config.l1BeaconHedgeDelay() == null
+                                ? DEFAULT_BEACON_HEDGE_DELAY_MILLIS
+                                : config.l1BeaconHedgeDelay()),
+                openBlobStore(config));
+        this.rpcMaxBatchSize =
+                config.l1RpcMaxBatchSize() == null ? DEFAULT_RPC_MAX_BATCH_SIZE : config.l1RpcMaxBatchSize();
+        this.prefetcher = new L1BlockPrefetcher<>(
+                config.l1PrefetchWindow() == null ? DEFAULT_PREFETCH_WINDOW : config.l1PrefetchWindow(),
+                this.rpcMaxBatchSize,
+                this::prefetchTask);
+        this.headTracker =
+                new L1HeadTracker(this.wsProvider, this::getHead, HEAD_POLL_INTERVAL, HEAD_SUBSCRIPTION_TIMEOUT);
+        this.logFetcher = new L1LogFetcher(
+                this.provider,
+                config.chainConfig().depositContract(),
+                config.chainConfig().systemConfigContract());
+        this.blockStore = L1BlockStore.shared(config);
         this.l2StartBlock = l2StartBlock;
         this.devnet = config.devnet() != null && config.devnet();
 
@@ -183,7 +239,7 @@ public class InnerWatcher extends AbstractExecutionThreadService {
         this.headBlock = BigInteger.ZERO;
         this.finalizedBlock = BigInteger.ZERO;
         this.unfinalizedBlocks = new ArrayList<>();
-        this.deposits = new HashMap<>();
+        this.systemConfigs = new TreeMap<>();
         this.systemConfigUpdate = new Tuple2<>(l1StartBlock, null);
     }
 
@@ -217,28 +273,6 @@ public class InnerWatcher extends AbstractExecutionThreadService {
         }
     }
 
-    private void subscribeL1NewHeads() {
-        if (this.wsProvider == null) {
-            return;
-        }
-        this.l1HeadListener = this.wsProvider
-                .newHeadsNotifications()
-                .subscribe(
-                        notification -> {
-                            NewHead header = notification.getParams().getResult();
-                            String hash = header.getHash();
-                            BigInteger number = Numeric.toBigInt(header.getNumber());
-                            String parentHash = header.getParentHash();
-                            BigInteger time = Numeric.toBigInt(header.getTimestamp());
-                            l1Head = new BlockInfo(hash, number, parentHash, time);
-                        },
-                        t -> {
-                            if (t instanceof WebsocketNotConnectedException) {
-                                this.subscribeL1NewHeads();
-                            }
-                        });
-    }
-
     /**
      * try ingest block.
      *
@@ -246,27 +280,46 @@ public class InnerWatcher extends AbstractExecutionThreadService {
      * @throws InterruptedException thrown if executor has been shutdown
      */
     public void tryIngestBlock() throws ExecutionException, InterruptedException {
-        final EthBlock.Block l1SafeBlock = this.getSafe();
-        this.l1Safe = BlockInfo.from(l1SafeBlock);
+        // the safe and finalized blocks only move with a new head, they are not polled for every block
+        final long headVersion = this.headTracker.version();
+        final boolean refreshTags = headVersion != this.tagsHeadVersion
+                || System.nanoTime() - this.tagsRefreshedNanos >= TAGS_REFRESH_INTERVAL.toNanos();
+        if (refreshTags) {
+            final EthBlock.Block l1SafeBlock = this.getSafe();
+            this.blockStore.setTag(Tag.SAFE, BlockInfo.from(l1SafeBlock));
+        }
 
-        if (this.currentBlock.compareTo(this.finalizedBlock) > 0) {
+        if (refreshTags && this.currentBlock.compareTo(this.finalizedBlock) > 0) {
             LOGGER.debug(
                     "will get finalized block: currentBlock({}) > finalizedBlock({})",
                     this.currentBlock,
                     this.finalizedBlock);
             var finalizedBlockDetail = this.getFinalized();
             this.finalizedBlock = finalizedBlockDetail.getNumber();
-            this.l1Finalized = BlockInfo.from(finalizedBlockDetail);
+            this.blockStore.setTag(Tag.FINALIZED, BlockInfo.from(finalizedBlockDetail));
+            this.blockStore.updateFinalized(this.finalizedBlock);
             this.putBlockUpdate(new FinalityUpdate(finalizedBlock));
             this.unfinalizedBlocks = this.unfinalizedBlocks.stream()
                     .filter(blockInfo -> blockInfo.number().compareTo(InnerWatcher.this.finalizedBlock) > 0)
                     .collect(Collectors.toList());
+            this.systemConfigs.headMap(this.finalizedBlock, true).clear();
+        }
+        if (refreshTags) {
+            this.tagsHeadVersion = headVersion;
+            this.tagsRefreshedNanos = System.nanoTime();
         }
 
-        if (this.currentBlock.compareTo(this.headBlock) > 0 || this.headBlock.equals(BigInteger.ZERO)) {
-            LOGGER.debug("will get head block: currentBlock({}) > headBlock({})", this.currentBlock, this.headBlock);
-            this.headBlock = this.getHead().getNumber();
+        if (this.headBlock.equals(BigInteger.ZERO)) {
+            this.headBlock = this.headTracker.latest().number();
+        } else if (this.currentBlock.compareTo(this.headBlock) > 0) {
+            LOGGER.debug(
+                    "will wait for new head block: currentBlock({}) > headBlock({})",
+                    this.currentBlock,
+                    this.headBlock);
+            // woken as soon as a new head is pushed, or the head is polled once the wait times out
+            this.headBlock = this.headTracker.awaitAbove(this.headBlock).number();
         }
+        this.blockStore.setTag(Tag.HEAD, this.headTracker.head());
 
         if (this.currentBlock.compareTo(this.headBlock) <= 0) {
             LOGGER.debug(
@@ -274,68 +327,149 @@ public class InnerWatcher extends AbstractExecutionThreadService {
                     this.currentBlock,
                     this.headBlock);
             updateSystemConfigWithNewestLog();
-        } else {
-            LOGGER.debug(
-                    "will sleep 250 milliseconds: currentBlock({}) > headBlock({})", this.currentBlock, this.headBlock);
-            try {
-                Thread.sleep(Duration.ofMillis(250L));
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new HildrServiceExecutionException(e);
-            }
         }
     }
 
     private void updateSystemConfigWithNewestLog() throws ExecutionException, InterruptedException {
-        EthBlock.Block blockResp = this.pollBlockByNumber(this.provider, this.currentBlock);
-        BlockInfo blockInfo = BlockInfo.from(blockResp);
-        this.updateSystemConfig(blockInfo);
-        final L1Info l1Info = deriveL1Info(blockResp);
+        BatcherBlock prefetched = this.prefetcher.take(this.currentBlock, this.headBlock);
+        BlockInfo blockInfo = BlockInfo.from(prefetched.block());
+        if (this.isDetached(blockInfo)) {
+            LOGGER.debug("prefetched block {} is not attached to the last ingested block, refetching", blockInfo);
+            this.prefetcher.invalidate();
+            this.logFetcher.invalidate();
+            this.blockStore.removeAfter(this.currentBlock.subtract(BigInteger.ONE));
+            prefetched = this.prefetcher.take(this.currentBlock, this.headBlock);
+            blockInfo = BlockInfo.from(prefetched.block());
+            if (this.isDetached(blockInfo)) {
+                this.rewindToCommonAncestor();
+                return;
+            }
+        }
+        this.updateSystemConfig(blockInfo, prefetched.block().getLogsBloom());
+        final L1Info l1Info = deriveL1Info(prefetched);
         if (l1Info.blockInfo().number().compareTo(this.finalizedBlock) >= 0) {
             this.unfinalizedBlocks.add(blockInfo);
+            this.systemConfigs.put(blockInfo.number(), this.systemConfig);
             this.currentBlockInfo = blockInfo;
         }
 
-        BlockUpdate update = this.checkReorg() ? new BlockUpdate.Reorg() : new BlockUpdate.NewBlock(l1Info);
-        this.putBlockUpdate(update);
+        this.putBlockUpdate(new BlockUpdate.NewBlock(l1Info));
         LOGGER.debug("current block will add one: {}", this.currentBlock);
         this.currentBlock = this.currentBlock.add(BigInteger.ONE);
     }
 
-    private L1Info deriveL1Info(EthBlock.Block l1Block) throws ExecutionException, InterruptedException {
-        List<UserDeposited> userDeposits = this.getDeposits(this.currentBlock);
+    private static BlobStore openBlobStore(Config config) {
+        if (StringUtils.isEmpty(config.l1BlobCacheDir())) {
+            return null;
+        }
+        long maxBytes = (config.l1BlobCacheSize() == null ? DEFAULT_BLOB_CACHE_SIZE_MB : config.l1BlobCacheSize())
+                * 1024L
+                * 1024L;
+        try {
+            return BlobStore.open(Path.of(config.l1BlobCacheDir()), maxBytes);
+        } catch (IOException e) {
+            LOGGER.warn("failed to open blob store, blobs will not be cached: dir = {}", config.l1BlobCacheDir(), e);
+            return null;
+        }
+    }
+
+    private Callable<List<BatcherBlock>> prefetchTask(List<BigInteger> blockNums) {
+        final String batchSender = this.systemConfig.batchSender();
+        return () -> this.fetchBlocks(blockNums, batchSender);
+    }
+
+    private List<BatcherBlock> fetchBlocks(List<BigInteger> blockNums, String batchSender)
+            throws ExecutionException, InterruptedException {
+        // the blocks fetched before, e.g. by a previous watcher, are taken from the block store
+        final Map<BigInteger, BatcherBlock> stored = new HashMap<>();
+        for (BigInteger blockNum : blockNums) {
+            BatcherBlock batcherBlock = this.blockStore.batcherBlock(blockNum, batchSender);
+            if (batcherBlock != null) {
+                stored.put(blockNum, batcherBlock);
+            }
+        }
+        final List<BigInteger> missing =
+                blockNums.stream().filter(num -> !stored.containsKey(num)).toList();
+        if (!missing.isEmpty()) {
+            for (BatcherBlock fetched : this.fetchBlocksFromProvider(missing, batchSender)) {
+                this.blockStore.putBatcherBlock(fetched);
+                stored.put(fetched.block().getNumber(), fetched);
+            }
+        }
+        return blockNums.stream().map(stored::get).collect(Collectors.toList());
+    }
+
+    private List<BatcherBlock> fetchBlocksFromProvider(List<BigInteger> blockNums, String batchSender)
+            throws ExecutionException, InterruptedException {
+        var filter = new BatcherTxFilter(this.config.chainConfig().batchInbox(), batchSender);
+        try {
+            // the filter is read by the block deserialiser, and inherited by the forked subtasks
+            return ScopedValue.where(BatcherEthBlock.FILTER, filter).call(() -> {
+                List<BatcherEthBlock.Block> blocks = this.pollBatcherBlocksByNumber(blockNums);
+                try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+                    List<StructuredTaskScope.Subtask<BatcherBlock>> forks = new ArrayList<>(blocks.size());
+                    for (BatcherEthBlock.Block block : blocks) {
+                        forks.add(scope.fork(TracerTaskWrapper.wrap(() ->
+                                new BatcherBlock(block, batchSender, this.getBatcherTxAndBlobHeader(block)))));
+                    }
+                    scope.join();
+                    scope.throwIfFailed();
+                    return forks.stream().map(StructuredTaskScope.Subtask::get).collect(Collectors.toList());
+                }
+            });
+        } catch (ExecutionException | InterruptedException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ExecutionException(e);
+        }
+    }
+
+    private boolean isDetached(BlockInfo blockInfo) {
+        if (this.unfinalizedBlocks.isEmpty()) {
+            return false;
+        }
+        BlockInfo last = this.unfinalizedBlocks.getLast();
+        return last.number().add(BigInteger.ONE).equals(blockInfo.number())
+                && !last.hash().equalsIgnoreCase(blockInfo.parentHash());
+    }
+
+    private L1Info deriveL1Info(BatcherBlock prefetched) throws ExecutionException, InterruptedException {
+        if (!prefetched.batchSender().equalsIgnoreCase(this.systemConfig.batchSender())) {
+            // the batch sender was updated after the block had been prefetched,
+            // the transactions of the new batch sender were dropped while decoding.
+            prefetched = this.fetchBlocks(List.of(this.currentBlock), this.systemConfig.batchSender())
+                    .getFirst();
+        }
+        BatcherEthBlock.Block l1Block = prefetched.block();
+        List<UserDeposited> userDeposits = LogsBloom.mayContain(
+                        l1Block.getLogsBloom(),
+                        this.config.chainConfig().depositContract(),
+                        L1LogFetcher.TRANSACTION_DEPOSITED_TOPIC)
+                ? this.logFetcher.deposits(this.currentBlock, this.headBlock)
+                : new ArrayList<>();
         boolean finalized = this.currentBlock.compareTo(this.finalizedBlock) <= 0;
-        var tuple = getBatcherTxAndBlobHeader(l1Block);
-        List<String> data = tuple.component1();
+        var tuple = prefetched.batcherData();
+        List<byte[]> data = tuple.component1();
         var parentBeaconRoot = l1Block.getParentBeaconBlockRoot();
         return L1Info.create(l1Block, userDeposits, finalized, this.systemConfig, data, parentBeaconRoot);
     }
 
-    private Tuple2<List<String>, BeaconSignedBlockHeader> getBatcherTxAndBlobHeader(EthBlock.Block l1Block) {
-        final List<String> data = new ArrayList<>();
+    private Tuple2<List<byte[]>, BeaconSignedBlockHeader> getBatcherTxAndBlobHeader(BatcherEthBlock.Block l1Block) {
+        final List<byte[]> data = new ArrayList<>();
         List<Tuple3<Integer, BigInteger, String>> indexedBlobs = new ArrayList<>();
-        int blobIndexRec = 0;
-        for (EthBlock.TransactionResult<?> txRes : l1Block.getTransactions()) {
-            EthBlock.TransactionObject tx = (EthBlock.TransactionObject) txRes.get();
-            if (!L1Info.isValidBatcherTx(
-                    tx, this.systemConfig.batchSender(), config.chainConfig().batchInbox())) {
-                int skipBlobHashSize = tx.getBlobVersionedHashes() == null
-                        ? 0
-                        : tx.getBlobVersionedHashes().size();
-                blobIndexRec += skipBlobHashSize;
+        for (BatcherTransaction tx : l1Block.getBatcherTransactions()) {
+            if (!tx.isBlobTx()) {
+                data.add(tx.input());
                 continue;
             }
-            if (!tx.getType().equalsIgnoreCase("0x3") && !tx.getType().equalsIgnoreCase("0x03")) {
-                data.add(tx.getInput());
-                continue;
-            }
-            if (StringUtils.isNotEmpty(tx.getInput())) {
-                LOGGER.warn("blob tx has calldata, which will be ignored: txhash = {}", tx.getHash());
+            if (tx.input().length > 0) {
+                LOGGER.warn("blob tx has calldata, which will be ignored: txhash = {}", tx.hash());
             }
-            if (CollectionUtils.isEmpty(tx.getBlobVersionedHashes())) {
+            if (CollectionUtils.isEmpty(tx.blobVersionedHashes())) {
                 continue;
             }
-            for (String blobVersionedHash : tx.getBlobVersionedHashes()) {
+            int blobIndexRec = tx.blobIndex();
+            for (String blobVersionedHash : tx.blobVersionedHashes()) {
                 data.add(null);
                 indexedBlobs.add(new Tuple3<>(data.size() - 1, BigInteger.valueOf(blobIndexRec), blobVersionedHash));
                 blobIndexRec += 1;
@@ -346,46 +480,54 @@ public class InnerWatcher extends AbstractExecutionThreadService {
         }
         BigInteger slot = this.beaconFetcher.getSlotFromTime(l1Block.getTimestamp());
         List<BigInteger> indices = indexedBlobs.stream().map(Tuple3::component2).collect(Collectors.toList());
-        List<BlobSidecar> blobsRes = this.beaconFetcher.getBlobSidecards(slot.toString(), indices);
+        List<String> versionedHashes =
+                indexedBlobs.stream().map(Tuple3::component3).collect(Collectors.toList());
+        List<BlobSidecar> blobsRes = this.beaconFetcher.getBlobSidecards(slot.toString(), indices, versionedHashes);
         if (blobsRes == null || blobsRes.isEmpty()) {
             throw new DepositsNotFoundException(
                     "blobSidecards is empty, and excepted to be %d".formatted(indices.size()));
         }
+        // the blob sidecars are verified against the versioned hashes by the fetcher,
+        // only the blob placeholders are filled, the calldata of the other batcher transactions is kept
         for (int i = 0; i < indexedBlobs.size(); i++) {
-            Tuple3<Integer, BigInteger, String> indexedBlob = indexedBlobs.get(i);
-            BlobSidecar blobRes = blobsRes.get(i);
-            if (!BeaconBlobFetcher.verifyBlobSidecar(blobRes, indexedBlob.component3())) {
-                throw new IllegalStateException("blob verification failed");
-            }
-        }
-        int blobsResIndex = 0;
-        for (int i = 0; i < data.size(); i++) {
-            if (blobsResIndex >= blobsRes.size()) {
-                throw new IndexOutOfBoundsException("blobIndex >= blobSidecards.size()");
-            }
-            byte[] decodedBlob = BlobCodec.decode(
-                    Numeric.hexStringToByteArray(blobsRes.get(blobsResIndex).getBlob()));
-            data.set(i, Numeric.toHexString(decodedBlob));
-            blobsResIndex++;
-        }
-        if (blobsResIndex != blobsRes.size()) {
-            throw new IllegalStateException("got too many blobs");
+            byte[] decodedBlob = BlobCodec.decode(blobsRes.get(i).getBlobBytes());
+            data.set(indexedBlobs.get(i).component1(), decodedBlob);
         }
 
         return new Tuple2<>(data, blobsRes.getFirst().getSignedBlockHeader());
     }
 
-    private void putBlockUpdate(final BlockUpdate update) {
-        while (true) {
-            boolean isOffered = this.blockUpdateQueue.offer(update);
-            if (isOffered) {
-                break;
+    private void putBlockUpdate(final BlockUpdate update) throws InterruptedException {
+        if (!this.blockUpdateQueue.offer(update)) {
+            // the driver is behind, park until it takes an update instead of spinning
+            final long stallStart = System.nanoTime();
+            try {
+                while (!this.blockUpdateQueue.offer(
+                        update, BLOCK_UPDATE_PUT_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS)) {
+                    if (this.isShutdownTriggered) {
+                        LOGGER.debug("watcher is shutting down, drop block update: {}", update);
+                        return;
+                    }
+                }
+            } finally {
+                InnerMetrics.addBlockUpdateStall(Duration.ofNanos(System.nanoTime() - stallStart));
             }
         }
+        InnerMetrics.setBlockUpdateQueueDepth(this.blockUpdateQueue.size());
     }
 
-    private void updateSystemConfig(BlockInfo l1BlockInfo) throws ExecutionException, InterruptedException {
+    private void updateSystemConfig(BlockInfo l1BlockInfo, String logsBloom)
+            throws ExecutionException, InterruptedException {
         BigInteger preLastUpdateBlock = this.systemConfigUpdate.component1();
+        if (preLastUpdateBlock.add(BigInteger.ONE).equals(this.currentBlock)
+                && !LogsBloom.mayContain(
+                        logsBloom,
+                        this.config.chainConfig().systemConfigContract(),
+                        L1LogFetcher.CONFIG_UPDATE_TOPIC)) {
+            // the logs bloom rules out a ConfigUpdate log in the block, so there is no update up to it
+            this.systemConfigUpdate = new Tuple2<>(this.currentBlock, null);
+            preLastUpdateBlock = this.currentBlock;
+        }
         if (preLastUpdateBlock.compareTo(this.currentBlock) < 0 || preLastUpdateBlock.equals(BigInteger.ZERO)) {
             BigInteger fromBlock = preLastUpdateBlock.equals(BigInteger.ZERO)
                     ? BigInteger.ZERO
@@ -393,7 +535,7 @@ public class InnerWatcher extends AbstractExecutionThreadService {
             if (fromBlock.compareTo(this.headBlock) > 0) {
                 fromBlock = this.headBlock;
             }
-            BigInteger toBlock = preLastUpdateBlock.add(BigInteger.valueOf(100L));
+            BigInteger toBlock = preLastUpdateBlock.add(CONFIG_UPDATE_LOG_RANGE);
             if (toBlock.compareTo(this.headBlock) > 0) {
                 toBlock = this.headBlock;
             }
@@ -402,20 +544,17 @@ public class InnerWatcher extends AbstractExecutionThreadService {
                     fromBlock,
                     toBlock,
                     InnerWatcher.this.config.chainConfig().systemConfigContract());
-            EthLog updates = this.getLog(
-                    fromBlock,
-                    toBlock,
-                    InnerWatcher.this.config.chainConfig().systemConfigContract(),
-                    CONFIG_UPDATE_TOPIC);
+            List<LogObject> updates = this.logFetcher.configUpdates(fromBlock, toBlock, this.headBlock);
+            // the logs of a larger range may have been fetched, there are no other updates up to its end
+            toBlock = toBlock.max(this.logFetcher.coveredTo());
 
-            if (updates.getLogs().isEmpty()) {
+            if (updates.isEmpty()) {
                 this.systemConfigUpdate = new Tuple2<>(toBlock, null);
             } else {
-                BigInteger updateBlockNum = ((LogObject) updates.getLogs().getFirst()).getBlockNumber();
+                BigInteger updateBlockNum = updates.getFirst().getBlockNumber();
                 SystemConfig updatedConfig = this.systemConfig;
                 boolean updated = false;
-                for (int i = 0; i < updates.getLogs().size(); i++) {
-                    LogObject update = (LogObject) updates.getLogs().get(i);
+                for (LogObject update : updates) {
                     BigInteger updateBlock = update.getBlockNumber();
                     if (updateBlock == null) {
                         break;
@@ -488,14 +627,44 @@ public class InnerWatcher extends AbstractExecutionThreadService {
         return updateSystemConfig;
     }
 
-    private boolean checkReorg() {
-        int size = this.unfinalizedBlocks.size();
-        if (size >= 2) {
-            BlockInfo last = this.unfinalizedBlocks.get(size - 1);
-            BlockInfo parent = this.unfinalizedBlocks.get(size - 2);
-            return !last.parentHash().equalsIgnoreCase(parent.hash());
+    /**
+     * Rewind to the last unfinalized block that is still canonical, and only ingest the blocks after
+     * it again. If none of the unfinalized blocks is canonical any more, the whole chain watcher has
+     * to be restarted from the finalized block.
+     */
+    private void rewindToCommonAncestor() throws ExecutionException, InterruptedException {
+        this.prefetcher.invalidate();
+        this.logFetcher.invalidate();
+        BlockInfo ancestor = null;
+        for (int i = this.unfinalizedBlocks.size() - 1; i >= 0 && ancestor == null; i--) {
+            BlockInfo unfinalized = this.unfinalizedBlocks.get(i);
+            EthBlock.Block canonical;
+            try {
+                canonical = this.pollBlock(this.provider, DefaultBlockParameter.valueOf(unfinalized.number()), false);
+            } catch (BlockNotIncludedException e) {
+                // the new chain is shorter, the block is not canonical
+                continue;
+            }
+            if (canonical.getHash().equalsIgnoreCase(unfinalized.hash())) {
+                ancestor = unfinalized;
+            }
+        }
+        if (ancestor == null || !this.systemConfigs.containsKey(ancestor.number())) {
+            LOGGER.warn("reorg detected, no common ancestor in the unfinalized blocks");
+            this.blockStore.removeAfter(this.finalizedBlock);
+            this.putBlockUpdate(new BlockUpdate.Reorg());
+            return;
         }
-        return false;
+        LOGGER.warn("reorg detected, rewinding to the common ancestor: {}", ancestor);
+        final BigInteger ancestorNum = ancestor.number();
+        this.blockStore.removeAfter(ancestorNum);
+        this.unfinalizedBlocks.removeIf(blockInfo -> blockInfo.number().compareTo(ancestorNum) > 0);
+        this.systemConfig = this.systemConfigs.get(ancestorNum);
+        this.systemConfigs.tailMap(ancestorNum, false).clear();
+        this.systemConfigUpdate = new Tuple2<>(ancestorNum, null);
+        this.currentBlockInfo = ancestor;
+        this.currentBlock = ancestorNum.add(BigInteger.ONE);
+        this.putBlockUpdate(new BlockUpdate.Reorg(ancestor));
     }
 
     private EthBlock.Block getSafe() throws ExecutionException, InterruptedException {
@@ -537,55 +706,25 @@ public class InnerWatcher extends AbstractExecutionThreadService {
         }
     }
 
-    private EthLog getLog(BigInteger fromBlock, BigInteger toBlock, String contract, String topic)
-            throws ExecutionException, InterruptedException {
-        final EthFilter ethFilter = new EthFilter(
-                        DefaultBlockParameter.valueOf(fromBlock), DefaultBlockParameter.valueOf(toBlock), contract)
-                .addSingleTopic(topic);
-        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
-            var fork = scope.fork(TracerTaskWrapper.wrap(
-                    () -> this.provider.ethGetLogs(ethFilter).send()));
-            scope.join();
-            scope.throwIfFailed();
-            return fork.get();
-        }
-    }
-
-    private List<Attributes.UserDeposited> getDeposits(BigInteger blockNum)
+    private List<BatcherEthBlock.Block> pollBatcherBlocksByNumber(final List<BigInteger> blockNums)
             throws ExecutionException, InterruptedException {
-        final List<Attributes.UserDeposited> removed = this.deposits.remove(blockNum);
-        if (removed != null) {
-            return removed;
-        }
-        final BigInteger endBlock = this.headBlock.min(blockNum.add(BigInteger.valueOf(1000L)));
-        LOGGER.debug(
-                "will get deposit eth logs: fromBlock={} -> toBlock={};contract={}",
-                blockNum,
-                endBlock,
-                this.config.chainConfig().depositContract());
-
-        EthLog result = this.getLog(
-                blockNum, endBlock, this.config.chainConfig().depositContract(), TRANSACTION_DEPOSITED_TOPIC);
-
-        result.getLogs().forEach(log -> {
-            if (log instanceof LogObject) {
-                var userDeposited = UserDeposited.fromLog((LogObject) log);
-                final var num = userDeposited.l1BlockNum();
-                var userDepositeds = InnerWatcher.this.deposits.computeIfAbsent(num, k -> new ArrayList<>());
-                userDepositeds.add(userDeposited);
-            } else {
-                throw new IllegalStateException("Unexpected result type: %s required LogObject".formatted(log.get()));
+        LOGGER.debug("will poll blocks: {} -> {}", blockNums.getFirst(), blockNums.getLast());
+        var requests = blockNums.stream()
+                .map(num -> new Request<>(
+                        "eth_getBlockByNumber",
+                        Arrays.asList(DefaultBlockParameter.valueOf(num).getValue(), true),
+                        this.providerService,
+                        BatcherEthBlock.class))
+                .collect(Collectors.toList());
+        List<BatcherEthBlock.Block> blocks = new ArrayList<>(requests.size());
+        for (BatcherEthBlock res : Web3jUtil.sendBatch(this.provider, requests, this.rpcMaxBatchSize)) {
+            var block = res.getBlock();
+            if (block == null || block.getNumber() == null) {
+                throw new BlockNotIncludedException();
             }
-        });
-        var max = (int) endBlock.subtract(blockNum).add(BigInteger.ONE).longValue();
-        for (int i = 0; i < max; i++) {
-            InnerWatcher.this.deposits.putIfAbsent(blockNum.add(BigInteger.valueOf(i)), new ArrayList<>());
-        }
-        var remv = InnerWatcher.this.deposits.remove(blockNum);
-        if (remv == null) {
-            throw new DepositsNotFoundException();
+            blocks.add(block);
         }
-        return remv;
+        return blocks;
     }
 
     @Override
@@ -595,7 +734,7 @@ public class InnerWatcher extends AbstractExecutionThreadService {
         } else {
             this.getMetadataFromL2(this.l2StartBlock);
         }
-        this.subscribeL1NewHeads();
+        this.headTracker.start();
     }
 
     @Override
@@ -623,10 +762,9 @@ public class InnerWatcher extends AbstractExecutionThreadService {
 
     @Override
     protected void shutDown() {
+        this.prefetcher.close();
         this.provider.shutdown();
-        if (!this.l1HeadListener.isDisposed()) {
-            this.l1HeadListener.dispose();
-        }
+        this.headTracker.close();
         if (this.wsProvider != null) {
             this.wsProvider.shutdown();
         }
@@ -635,6 +773,8 @@ public class InnerWatcher extends AbstractExecutionThreadService {
     @Override
     protected void triggerShutdown() {
         this.isShutdownTriggered = true;
+        // wakes the run loop if it is waiting for a new head
+        this.headTracker.close();
     }
 
     /**
@@ -652,7 +792,7 @@ public class InnerWatcher extends AbstractExecutionThreadService {
      * @return Current L1 finalized BlockInfo instance
      */
     public BlockInfo getCurrentL1Finalized() {
-        return this.l1Finalized;
+        return this.blockStore.tag(Tag.FINALIZED);
     }
 
     /**
@@ -661,7 +801,7 @@ public class InnerWatcher extends AbstractExecutionThreadService {
      * @return L1 head BlockInfo instance
      */
     public BlockInfo getL1HeadBlock() {
-        return this.l1Head;
+        return this.blockStore.tag(Tag.HEAD);
     }
 
     /**
@@ -670,7 +810,7 @@ public class InnerWatcher extends AbstractExecutionThreadService {
      * @return L1 safe BlockInfo instance
      */
     public BlockInfo getL1SafeBlock() {
-        return this.l1Safe;
+        return this.blockStore.tag(Tag.SAFE);
     }
 
     /**
@@ -679,7 +819,7 @@ public class InnerWatcher extends AbstractExecutionThreadService {
      * @return L1 finalized BlockInfo instance
      */
     public BlockInfo getL1FinalizedBlock() {
-        return this.l1Finalized;
+        return this.blockStore.tag(Tag.FINALIZED);
     }
 
     /**
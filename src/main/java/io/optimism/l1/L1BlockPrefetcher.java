@@ -0,0 +1,139 @@
+package io.optimism.l1;
+
+import com.google.common.collect.Lists;
+import io.optimism.telemetry.TracerTaskWrapper;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Fetches a bounded window of L1 blocks ahead of the block being ingested.
+ *
+ * <p>Blocks of the window are loaded in batches of ascending block numbers, every batch
+ * concurrently on a virtual thread, but results are always taken by the caller in block number
+ * order, so the order of emitted block updates does not change. This class is not thread safe and
+ * must only be driven by the watcher thread.
+ *
+ * @param <T> the type of the prefetched block data
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+class L1BlockPrefetcher<T> implements AutoCloseable {
+
+    private final int window;
+
+    private final int batchSize;
+
+    private final Function<List<BigInteger>, Callable<List<T>>> loader;
+
+    private final ExecutorService executor;
+
+    private final TreeMap<BigInteger, Slot<T>> inflight;
+
+    /**
+     * the L1BlockPrefetcher constructor.
+     *
+     * @param window the max number of blocks fetched at the same time
+     * @param batchSize the max number of blocks loaded by one load task
+     * @param loader creates the load task of ascending block numbers, the task must return the block
+     *     data in the order of the block numbers. It is called on the caller thread so the task can
+     *     capture the state the blocks are fetched with
+     */
+    L1BlockPrefetcher(int window, int batchSize, Function<List<BigInteger>, Callable<List<T>>> loader) {
+        this.window = Math.max(1, window);
+        this.batchSize = Math.max(1, Math.min(batchSize, this.window));
+        this.loader = loader;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.inflight = new TreeMap<>();
+    }
+
+    /**
+     * Take the data of the block number, and schedule the loads of the following blocks up to the
+     * window size without exceeding the head block.
+     *
+     * @param number the block number to take
+     * @param head the most recent block number of L1
+     * @return the loaded block data
+     * @throws ExecutionException thrown if failed to load the block data
+     * @throws InterruptedException thrown if interrupted while waiting for the load
+     */
+    T take(BigInteger number, BigInteger head) throws ExecutionException, InterruptedException {
+        Map<BigInteger, Slot<T>> stale = this.inflight.headMap(number);
+        stale.values().forEach(slot -> slot.batch().cancel(true));
+        stale.clear();
+
+        this.schedule(number, number.add(BigInteger.valueOf(this.window - 1L)).min(head));
+        Slot<T> taken = this.inflight.remove(number);
+        final Slot<T> slot = taken != null ? taken : new Slot<>(this.submit(List.of(number)), 0);
+        try {
+            return slot.batch().get().get(slot.index());
+        } catch (ExecutionException e) {
+            // the other blocks of the failed batch will be loaded again
+            this.inflight.values().removeIf(other -> other.batch() == slot.batch());
+            // keep the unchecked exceptions of the load task as if it was called directly
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /** Drop all prefetched block data, the following blocks will be fetched again. */
+    void invalidate() {
+        this.inflight.values().forEach(slot -> slot.batch().cancel(true));
+        this.inflight.clear();
+    }
+
+    /**
+     * Gets the number of blocks in the window that have been scheduled.
+     *
+     * @return the number of scheduled blocks
+     */
+    int size() {
+        return this.inflight.size();
+    }
+
+    @Override
+    public void close() {
+        this.invalidate();
+        this.executor.shutdownNow();
+    }
+
+    private void schedule(BigInteger from, BigInteger to) {
+        List<BigInteger> missing = new ArrayList<>();
+        for (BigInteger next = from; next.compareTo(to) <= 0; next = next.add(BigInteger.ONE)) {
+            if (!this.inflight.containsKey(next)) {
+                missing.add(next);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        // only load full batches while the requested block is still in flight,
+        // otherwise the window would be refilled with one block at a time.
+        boolean waiting = !missing.getFirst().equals(from);
+        for (List<BigInteger> batch : Lists.partition(missing, this.batchSize)) {
+            if (waiting && batch.size() < this.batchSize) {
+                break;
+            }
+            Future<List<T>> future = this.submit(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                this.inflight.put(batch.get(i), new Slot<>(future, i));
+            }
+        }
+    }
+
+    private Future<List<T>> submit(List<BigInteger> numbers) {
+        return this.executor.submit(TracerTaskWrapper.wrap(this.loader.apply(List.copyOf(numbers))));
+    }
+
+    private record Slot<T>(Future<List<T>> batch, int index) {}
+}
@@ -0,0 +1,409 @@
+package io.optimism.l1;
+
+import io.optimism.config.Config;
+import io.optimism.rpc.response.BatcherEthBlock;
+import io.optimism.types.BeaconSignedBlockHeader;
+import io.optimism.types.BlockInfo;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.tuples.generated.Tuple2;
+import org.web3j.utils.Numeric;
+
+/**
+ * The in-memory store of L1 blocks, shared by the derivation pipelines and the rpc methods of the
+ * process so an L1 block is only fetched once.
+ *
+ * <p>Blocks are stored by hash, with an index from the block number to the hash of the canonical
+ * block. A block holds its header and, once they have been fetched, its batcher transactions, its
+ * full transactions and its receipts. When the estimated size of the blocks exceeds the max size
+ * of the store, the blocks are evicted from the lowest number, and the blocks after the finalized
+ * block are always kept, they are needed to handle reorgs.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+public class L1BlockStore {
+
+    /** The default max size of the store, in MB. */
+    public static final int DEFAULT_MAX_MB = 256;
+
+    /** The default max size of the store, in bytes. */
+    public static final long DEFAULT_MAX_BYTES = DEFAULT_MAX_MB * 1024L * 1024L;
+
+    private static final long HEADER_BYTES = 1024L;
+
+    private static final long TX_BYTES = 512L;
+
+    private static final long LOG_BYTES = 256L;
+
+    private static L1BlockStore shared;
+
+    private final long maxBytes;
+
+    private final Map<String, Entry> byHash;
+
+    private final TreeMap<BigInteger, Set<String>> hashesByNumber;
+
+    private final TreeMap<BigInteger, String> canonical;
+
+    private final Map<Tag, BlockInfo> tags;
+
+    private BigInteger finalized;
+
+    private long bytes;
+
+    /**
+     * the L1BlockStore constructor.
+     *
+     * @param maxBytes the max estimated size of the blocks
+     */
+    public L1BlockStore(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.byHash = new HashMap<>();
+        this.hashesByNumber = new TreeMap<>();
+        this.canonical = new TreeMap<>();
+        this.tags = new HashMap<>();
+        this.finalized = BigInteger.ZERO;
+    }
+
+    /**
+     * Gets the store shared by the process, it survives the restarts of the chain watcher.
+     *
+     * @param maxBytes the max estimated size of the blocks, only used when the store is created
+     * @return the shared store
+     */
+    public static synchronized L1BlockStore shared(long maxBytes) {
+        if (shared == null) {
+            shared = new L1BlockStore(maxBytes);
+        }
+        return shared;
+    }
+
+    /**
+     * Gets the store shared by the process, sized by the configured max size of the store.
+     *
+     * @param config the config
+     * @return the shared store
+     */
+    public static L1BlockStore shared(Config config) {
+        final int maxMb = config.l1BlockStoreSize() == null ? DEFAULT_MAX_MB : config.l1BlockStoreSize();
+        return shared(maxMb * 1024L * 1024L);
+    }
+
+    /**
+     * Gets the header of the block.
+     *
+     * @param hash the block hash
+     * @return the header of the block, or null if it is not stored
+     */
+    public synchronized BlockInfo info(String hash) {
+        Entry entry = this.byHash.get(key(hash));
+        return entry == null ? null : entry.info;
+    }
+
+    /**
+     * Gets the header of the canonical block of the number.
+     *
+     * @param number the block number
+     * @return the header of the block, or null if it is not stored
+     */
+    public synchronized BlockInfo info(BigInteger number) {
+        String hash = this.canonical.get(number);
+        return hash == null ? null : this.info(hash);
+    }
+
+    /**
+     * Gets the logs bloom of the block.
+     *
+     * @param hash the block hash
+     * @return the logs bloom of the block, or null if it is not stored
+     */
+    public synchronized String logsBloom(String hash) {
+        Entry entry = this.byHash.get(key(hash));
+        return entry == null ? null : entry.logsBloom;
+    }
+
+    /**
+     * Gets the block with the full transactions.
+     *
+     * @param hash the block hash
+     * @return the block, or null if it is not stored with the full transactions
+     */
+    public synchronized EthBlock.Block block(String hash) {
+        Entry entry = this.byHash.get(key(hash));
+        return entry == null ? null : entry.block;
+    }
+
+    /**
+     * Gets the canonical block of the number with the batcher transactions of the batch sender.
+     *
+     * @param number the block number
+     * @param batchSender the batch sender the batcher transactions were filtered with
+     * @return the block, or null if it is not stored with the batcher transactions of the sender
+     */
+    synchronized BatcherBlock batcherBlock(BigInteger number, String batchSender) {
+        String hash = this.canonical.get(number);
+        Entry entry = hash == null ? null : this.byHash.get(hash);
+        if (entry == null
+                || entry.batcherBlock == null
+                || !entry.batcherBlock.batchSender().equalsIgnoreCase(batchSender)) {
+            return null;
+        }
+        return entry.batcherBlock;
+    }
+
+    /**
+     * Gets the receipts of the block.
+     *
+     * @param hash the block hash
+     * @return the receipts, or null if they are not stored
+     */
+    public synchronized List<TransactionReceipt> receipts(String hash) {
+        Entry entry = this.byHash.get(key(hash));
+        return entry == null ? null : entry.receipts;
+    }
+
+    /**
+     * Store the header of the block, it becomes the canonical block of its number.
+     *
+     * @param header the block header
+     */
+    public synchronized void putHeader(EthBlock.Block header) {
+        this.entry(header, true);
+        this.evict();
+    }
+
+    /**
+     * Store the block with the full transactions, it becomes the canonical block of its number.
+     *
+     * @param block the block with the full transactions
+     */
+    public void putBlock(EthBlock.Block block) {
+        this.putBlock(block, true);
+    }
+
+    /**
+     * Store the block with the full transactions.
+     *
+     * @param block the block with the full transactions
+     * @param canonical true if the block was fetched by number or tag, it becomes the canonical
+     *     block of its number. A block fetched by hash may have been reorged out
+     */
+    public synchronized void putBlock(EthBlock.Block block, boolean canonical) {
+        Entry entry = this.entry(block, canonical);
+        if (entry.block == null) {
+            entry.block = block;
+            this.resize(entry);
+        }
+        this.evict();
+    }
+
+    /**
+     * Store the block with the batcher transactions, it becomes the canonical block of its number.
+     *
+     * @param batcherBlock the block with the batcher transactions
+     */
+    synchronized void putBatcherBlock(BatcherBlock batcherBlock) {
+        Entry entry = this.entry(batcherBlock.block(), true);
+        entry.batcherBlock = batcherBlock;
+        this.resize(entry);
+        this.evict();
+    }
+
+    /**
+     * Store the receipts of a stored block.
+     *
+     * @param hash the block hash
+     * @param receipts the receipts of the block
+     */
+    public synchronized void putReceipts(String hash, List<TransactionReceipt> receipts) {
+        Entry entry = this.byHash.get(key(hash));
+        if (entry == null) {
+            return;
+        }
+        entry.receipts = receipts;
+        this.resize(entry);
+        this.evict();
+    }
+
+    /**
+     * Drop the blocks after the number, they have been reorged out or may have been.
+     *
+     * @param number the last block number to keep
+     */
+    public synchronized void removeAfter(BigInteger number) {
+        for (Set<String> hashes : this.hashesByNumber.tailMap(number, false).values()) {
+            for (String hash : hashes) {
+                Entry removed = this.byHash.remove(hash);
+                if (removed != null) {
+                    this.bytes -= removed.bytes;
+                }
+            }
+        }
+        this.hashesByNumber.tailMap(number, false).clear();
+        this.canonical.tailMap(number, false).clear();
+    }
+
+    /**
+     * Update the finalized block number, the blocks up to it may be evicted.
+     *
+     * @param number the finalized block number
+     */
+    public synchronized void updateFinalized(BigInteger number) {
+        if (number.compareTo(this.finalized) > 0) {
+            this.finalized = number;
+            this.evict();
+        }
+    }
+
+    /**
+     * Update the block of the tag.
+     *
+     * @param tag the tag
+     * @param blockInfo the block of the tag
+     */
+    public synchronized void setTag(Tag tag, BlockInfo blockInfo) {
+        if (blockInfo != null) {
+            this.tags.put(tag, blockInfo);
+        }
+    }
+
+    /**
+     * Gets the block of the tag.
+     *
+     * @param tag the tag
+     * @return the block of the tag, or null if it is not known yet
+     */
+    public synchronized BlockInfo tag(Tag tag) {
+        return this.tags.get(tag);
+    }
+
+    /**
+     * Gets the estimated size of the stored blocks.
+     *
+     * @return the estimated size in bytes
+     */
+    public synchronized long bytes() {
+        return this.bytes;
+    }
+
+    private Entry entry(EthBlock.Block header, boolean canonical) {
+        final String hash = key(header.getHash());
+        final BigInteger number = header.getNumber();
+        Entry entry = this.byHash.get(hash);
+        if (entry == null) {
+            entry = new Entry(BlockInfo.from(header), header.getLogsBloom());
+            this.byHash.put(hash, entry);
+            this.hashesByNumber.computeIfAbsent(number, k -> new HashSet<>()).add(hash);
+            this.resize(entry);
+        }
+        if (canonical) {
+            this.canonical.put(number, hash);
+        }
+        return entry;
+    }
+
+    private void resize(Entry entry) {
+        long size = HEADER_BYTES;
+        if (entry.batcherBlock != null) {
+            for (BatcherEthBlock.BatcherTransaction tx : entry.batcherBlock.block().getBatcherTransactions()) {
+                size += TX_BYTES + tx.input().length;
+            }
+            for (byte[] data : entry.batcherBlock.batcherData().component1()) {
+                size += data == null ? 0L : data.length;
+            }
+        }
+        if (entry.block != null && entry.block.getTransactions() != null) {
+            for (EthBlock.TransactionResult<?> tx : entry.block.getTransactions()) {
+                size += TX_BYTES;
+                if (tx instanceof EthBlock.TransactionObject txObject && txObject.getInput() != null) {
+                    size += txObject.getInput().length() / 2;
+                }
+            }
+        }
+        if (entry.receipts != null) {
+            for (TransactionReceipt receipt : entry.receipts) {
+                size += TX_BYTES;
+                if (receipt.getLogs() != null) {
+                    for (Log log : receipt.getLogs()) {
+                        size += LOG_BYTES + (log.getData() == null ? 0 : log.getData().length() / 2);
+                    }
+                }
+            }
+        }
+        this.bytes += size - entry.bytes;
+        entry.bytes = size;
+    }
+
+    private void evict() {
+        while (this.bytes > this.maxBytes && !this.hashesByNumber.isEmpty()) {
+            BigInteger lowest = this.hashesByNumber.firstKey();
+            if (lowest.compareTo(this.finalized) > 0) {
+                return;
+            }
+            for (String hash : this.hashesByNumber.remove(lowest)) {
+                Entry removed = this.byHash.remove(hash);
+                if (removed != null) {
+                    this.bytes -= removed.bytes;
+                }
+            }
+            this.canonical.remove(lowest);
+        }
+    }
+
+    private static String key(String hash) {
+        return Numeric.prependHexPrefix(hash).toLowerCase(Locale.ROOT);
+    }
+
+    /** The tags of the L1 blocks. */
+    public enum Tag {
+        /** The latest block. */
+        HEAD,
+        /** The safe block. */
+        SAFE,
+        /** The finalized block. */
+        FINALIZED
+    }
+
+    /**
+     * The L1 block with the batcher transactions.
+     *
+     * @param block the L1 block with the batcher transactions only
+     * @param batchSender the batch sender address the batcher transactions were filtered with
+     * @param batcherData the batcher transactions data and the blob block header
+     */
+    record BatcherBlock(
+            BatcherEthBlock.Block block,
+            String batchSender,
+            Tuple2<List<byte[]>, BeaconSignedBlockHeader> batcherData) {}
+
+    /** A stored block. */
+    private static final class Entry {
+
+        private final BlockInfo info;
+
+        private final String logsBloom;
+
+        private BatcherBlock batcherBlock;
+
+        private EthBlock.Block block;
+
+        private List<TransactionReceipt> receipts;
+
+        private long bytes;
+
+        private Entry(BlockInfo info, String logsBloom) {
+            this.info = info;
+            this.logsBloom = logsBloom;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package io.optimism.l1;
+
+import io.optimism.types.BlockInfo;
+import io.reactivex.disposables.Disposable;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.websocket.events.NewHead;
+import org.web3j.utils.Numeric;
+
+/**
+ * Tracks the L1 head block.
+ *
+ * <p>The head is pushed by the newHeads subscription of the websocket client if there is one, and
+ * a thread waiting for a new head is woken as soon as it arrives. Without a subscription, or when
+ * no head has been pushed for a while, the head is polled from the http client instead. Every head
+ * that differs from the previous one bumps the version, so callers can refresh the data derived
+ * from the head only when it has changed.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+class L1HeadTracker implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(L1HeadTracker.class);
+
+    private final Web3j wsProvider;
+
+    private final Callable<EthBlock.Block> headPoller;
+
+    private final Duration pollInterval;
+
+    private final Duration subscriptionTimeout;
+
+    private final ReentrantLock lock;
+
+    private final Condition headChanged;
+
+    private volatile BlockInfo head;
+
+    private volatile long version;
+
+    private volatile long lastPushedNanos;
+
+    private volatile Disposable listener;
+
+    private volatile boolean closed;
+
+    /**
+     * the L1HeadTracker constructor.
+     *
+     * @param wsProvider the websocket client to subscribe new heads from, or null to only poll
+     * @param headPoller polls the latest block from the http client
+     * @param pollInterval the interval to poll the head at without a subscription
+     * @param subscriptionTimeout the time without a pushed head after which the head is polled
+     */
+    L1HeadTracker(
+            Web3j wsProvider,
+            Callable<EthBlock.Block> headPoller,
+            Duration pollInterval,
+            Duration subscriptionTimeout) {
+        this.wsProvider = wsProvider;
+        this.headPoller = headPoller;
+        this.pollInterval = pollInterval;
+        this.subscriptionTimeout = subscriptionTimeout;
+        this.lock = new ReentrantLock();
+        this.headChanged = this.lock.newCondition();
+        this.lastPushedNanos = System.nanoTime() - subscriptionTimeout.toNanos();
+    }
+
+    /** Subscribe the new heads of the websocket client, if there is one. */
+    void start() {
+        if (this.wsProvider == null || this.closed) {
+            return;
+        }
+        this.listener = this.wsProvider
+                .newHeadsNotifications()
+                .subscribe(
+                        notification -> {
+                            NewHead header = notification.getParams().getResult();
+                            this.lastPushedNanos = System.nanoTime();
+                            this.update(new BlockInfo(
+                                    header.getHash(),
+                                    Numeric.toBigInt(header.getNumber()),
+                                    header.getParentHash(),
+                                    Numeric.toBigInt(header.getTimestamp())));
+                        },
+                        t -> {
+                            if (t instanceof WebsocketNotConnectedException) {
+                                this.start();
+                            } else {
+                                LOGGER.warn("L1 new heads subscription failed, will poll the head", t);
+                            }
+                        });
+    }
+
+    /**
+     * Gets the last known head block.
+     *
+     * @return the head block, or null if no head is known yet
+     */
+    BlockInfo head() {
+        return this.head;
+    }
+
+    /**
+     * Gets the version of the head, it is bumped every time the head changes.
+     *
+     * @return the version of the head
+     */
+    long version() {
+        return this.version;
+    }
+
+    /**
+     * Gets the head block, it is polled if no head is known yet or the subscription is stale.
+     *
+     * @return the head block
+     * @throws ExecutionException thrown if failed to poll the head
+     * @throws InterruptedException thrown if interrupted while polling the head
+     */
+    BlockInfo latest() throws ExecutionException, InterruptedException {
+        final BlockInfo current = this.head;
+        if (current == null || !this.isSubscribed()) {
+            return this.poll();
+        }
+        return current;
+    }
+
+    /**
+     * Wait for a head block above the block number. The caller is woken as soon as the subscription
+     * pushes such a head, otherwise the head is polled once the wait times out. A caller waiting on a
+     * closed tracker is woken at once and gets the last known head.
+     *
+     * @param number the block number the head must be above
+     * @return the head block, it may still not be above the number if none arrived in time
+     * @throws ExecutionException thrown if failed to poll the head
+     * @throws InterruptedException thrown if interrupted while waiting
+     */
+    BlockInfo awaitAbove(BigInteger number) throws ExecutionException, InterruptedException {
+        long remaining = (this.isSubscribed() ? this.subscriptionTimeout : this.pollInterval).toNanos();
+        this.lock.lockInterruptibly();
+        try {
+            while (!this.isAbove(number) && remaining > 0L && !this.closed) {
+                remaining = this.headChanged.awaitNanos(remaining);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        final BlockInfo current = this.head;
+        if (current != null && (current.number().compareTo(number) > 0 || this.closed)) {
+            return current;
+        }
+        return this.poll();
+    }
+
+    /** Close the tracker, the subscription is disposed and the callers waiting for a head are woken. */
+    @Override
+    public void close() {
+        this.closed = true;
+        final Disposable current = this.listener;
+        if (current != null && !current.isDisposed()) {
+            current.dispose();
+        }
+        this.lock.lock();
+        try {
+            this.headChanged.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private BlockInfo poll() throws ExecutionException, InterruptedException {
+        final EthBlock.Block block;
+        try {
+            block = this.headPoller.call();
+        } catch (ExecutionException | InterruptedException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ExecutionException(e);
+        }
+        final BlockInfo polled = BlockInfo.from(block);
+        this.update(polled);
+        return polled;
+    }
+
+    private void update(BlockInfo newHead) {
+        this.lock.lock();
+        try {
+            final BlockInfo current = this.head;
+            if (current != null && current.hash().equalsIgnoreCase(newHead.hash())) {
+                return;
+            }
+            this.head = newHead;
+            this.version++;
+            this.headChanged.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private boolean isAbove(BigInteger number) {
+        final BlockInfo current = this.head;
+        return current != null && current.number().compareTo(number) > 0;
+    }
+
+    private boolean isSubscribed() {
+        final Disposable current = this.listener;
+        return current != null
+                && !current.isDisposed()
+                && System.nanoTime() - this.lastPushedNanos < this.subscriptionTimeout.toNanos();
+    }
+}
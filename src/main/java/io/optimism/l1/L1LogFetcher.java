@@ -0,0 +1,240 @@
+package io.optimism.l1;
+
+import io.optimism.derive.stages.Attributes.UserDeposited;
+import io.optimism.exceptions.Web3jCallException;
+import io.optimism.telemetry.TracerTaskWrapper;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.web3j.abi.EventEncoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Bytes;
+import org.web3j.abi.datatypes.Event;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.abi.datatypes.generated.Uint8;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.EthLog.LogObject;
+
+/**
+ * Fetches the TransactionDeposited logs of the deposit contract and the ConfigUpdate logs of the
+ * system config contract together, with one eth_getLogs request per block range.
+ *
+ * <p>The logs are cached by block number. The block range of the next request grows while the
+ * logs are sparse, and shrinks when the provider rejects a request because of too many results.
+ * This class is not thread safe and must only be used by the watcher thread.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+class L1LogFetcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(L1LogFetcher.class);
+
+    /** The topic of the ConfigUpdate event of the system config contract. */
+    static final String CONFIG_UPDATE_TOPIC = EventEncoder.encode(new Event(
+            "ConfigUpdate",
+            Arrays.asList(
+                    new TypeReference<Uint256>() {}, new TypeReference<Uint8>() {}, new TypeReference<Bytes>() {})));
+
+    /** The topic of the TransactionDeposited event of the deposit contract. */
+    static final String TRANSACTION_DEPOSITED_TOPIC = EventEncoder.encode(new Event(
+            "TransactionDeposited",
+            Arrays.asList(
+                    new TypeReference<Address>() {},
+                    new TypeReference<Address>() {},
+                    new TypeReference<Uint256>() {},
+                    new TypeReference<Bytes>() {})));
+
+    private static final long INITIAL_RANGE = 1000L;
+
+    private static final long MIN_RANGE = 1L;
+
+    private static final long MAX_RANGE = 10_000L;
+
+    // the range grows while a request returns fewer logs than this
+    private static final int SPARSE_LOGS = 100;
+
+    private static final Pattern TOO_MANY_RESULTS = Pattern.compile(
+            "too many|more than \\d+ results|limit exceeded|exceeds? (the )?(max|limit)|range is too large"
+                    + "|block range|response size|query timeout",
+            Pattern.CASE_INSENSITIVE);
+
+    private final Web3j provider;
+
+    private final String depositContract;
+
+    private final String systemConfigContract;
+
+    private final TreeMap<BigInteger, List<LogObject>> logs;
+
+    private BigInteger coveredFrom;
+
+    private BigInteger coveredTo;
+
+    private long range;
+
+    /**
+     * the L1LogFetcher constructor.
+     *
+     * @param provider the L1 client
+     * @param depositContract the address of the deposit contract
+     * @param systemConfigContract the address of the system config contract
+     */
+    L1LogFetcher(Web3j provider, String depositContract, String systemConfigContract) {
+        this.provider = provider;
+        this.depositContract = depositContract;
+        this.systemConfigContract = systemConfigContract;
+        this.logs = new TreeMap<>();
+        this.range = INITIAL_RANGE;
+    }
+
+    /**
+     * Get the user deposits of the block.
+     *
+     * @param blockNum the L1 block number
+     * @param head the L1 head block number, logs are not fetched beyond it
+     * @return the user deposits of the block
+     * @throws ExecutionException thrown if failed to fetch the logs
+     * @throws InterruptedException thrown if interrupted while fetching the logs
+     */
+    List<UserDeposited> deposits(BigInteger blockNum, BigInteger head) throws ExecutionException, InterruptedException {
+        this.ensure(blockNum, blockNum, head);
+        return this.logs.getOrDefault(blockNum, List.of()).stream()
+                .filter(log -> this.isLog(log, this.depositContract, TRANSACTION_DEPOSITED_TOPIC))
+                .map(UserDeposited::fromLog)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the ConfigUpdate logs from the block. The logs are returned up to {@link #coveredTo()}, which
+     * is never lower than the given end block.
+     *
+     * @param fromBlock the first L1 block number
+     * @param toBlock the last L1 block number that must be covered
+     * @param head the L1 head block number, logs are not fetched beyond it
+     * @return the ConfigUpdate logs in the order of block numbers
+     * @throws ExecutionException thrown if failed to fetch the logs
+     * @throws InterruptedException thrown if interrupted while fetching the logs
+     */
+    List<LogObject> configUpdates(BigInteger fromBlock, BigInteger toBlock, BigInteger head)
+            throws ExecutionException, InterruptedException {
+        this.ensure(fromBlock, toBlock, head);
+        return this.logs.subMap(fromBlock, true, this.coveredTo, true).values().stream()
+                .flatMap(List::stream)
+                .filter(log -> this.isLog(log, this.systemConfigContract, CONFIG_UPDATE_TOPIC))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the last block number of the cached logs.
+     *
+     * @return the last block number of the cached logs
+     */
+    BigInteger coveredTo() {
+        return this.coveredTo;
+    }
+
+    /** Drop all cached logs, they will be fetched again. */
+    void invalidate() {
+        this.logs.clear();
+        this.coveredFrom = null;
+        this.coveredTo = null;
+    }
+
+    private void ensure(BigInteger fromBlock, BigInteger toBlock, BigInteger head)
+            throws ExecutionException, InterruptedException {
+        if (this.coveredFrom != null
+                && fromBlock.compareTo(this.coveredFrom) >= 0
+                && toBlock.compareTo(this.coveredTo) <= 0) {
+            return;
+        }
+        BigInteger cursor = fromBlock;
+        if (this.coveredFrom != null
+                && fromBlock.compareTo(this.coveredFrom) >= 0
+                && fromBlock.compareTo(this.coveredTo.add(BigInteger.ONE)) <= 0) {
+            // only the logs after the cached range are missing
+            cursor = this.coveredTo.add(BigInteger.ONE);
+            this.logs.headMap(fromBlock).clear();
+        } else {
+            this.logs.clear();
+        }
+        final BigInteger end =
+                toBlock.max(fromBlock.add(BigInteger.valueOf(this.range - 1)).min(head));
+        while (cursor.compareTo(end) <= 0) {
+            BigInteger chunkEnd = cursor.add(BigInteger.valueOf(this.range - 1)).min(end);
+            EthLog result = this.getLogs(cursor, chunkEnd);
+            if (result.hasError()) {
+                Response.Error error = result.getError();
+                if (chunkEnd.compareTo(cursor) > 0 && isTooManyResults(error)) {
+                    this.range = Math.max(MIN_RANGE, chunkEnd.subtract(cursor).longValue() / 2);
+                    LOGGER.debug("too many logs in block range, shrink it to {}: {}", this.range, error.getMessage());
+                    continue;
+                }
+                throw new ExecutionException(
+                        "failed to get logs: fromBlock=%d, toBlock=%d".formatted(cursor, chunkEnd),
+                        new Web3jCallException(error.getMessage()));
+            }
+            int count = 0;
+            for (EthLog.LogResult<?> log : result.getLogs()) {
+                if (!(log instanceof LogObject logObject)) {
+                    throw new IllegalStateException(
+                            "Unexpected result type: %s required LogObject".formatted(log.get()));
+                }
+                if (logObject.getBlockNumber() == null) {
+                    continue;
+                }
+                this.logs
+                        .computeIfAbsent(logObject.getBlockNumber(), k -> new ArrayList<>())
+                        .add(logObject);
+                count++;
+            }
+            if (count < SPARSE_LOGS && chunkEnd.subtract(cursor).longValue() + 1 >= this.range) {
+                this.range = Math.min(MAX_RANGE, this.range * 2);
+            }
+            cursor = chunkEnd.add(BigInteger.ONE);
+        }
+        this.coveredFrom = fromBlock;
+        this.coveredTo = end;
+    }
+
+    private EthLog getLogs(BigInteger fromBlock, BigInteger toBlock) throws ExecutionException, InterruptedException {
+        LOGGER.debug("will get deposit and system config eth logs: fromBlock={} -> toBlock={}", fromBlock, toBlock);
+        final EthFilter ethFilter = new EthFilter(
+                        DefaultBlockParameter.valueOf(fromBlock),
+                        DefaultBlockParameter.valueOf(toBlock),
+                        List.of(this.depositContract, this.systemConfigContract))
+                .addOptionalTopics(TRANSACTION_DEPOSITED_TOPIC, CONFIG_UPDATE_TOPIC);
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+            var fork = scope.fork(TracerTaskWrapper.wrap(
+                    () -> this.provider.ethGetLogs(ethFilter).send()));
+            scope.join();
+            scope.throwIfFailed();
+            return fork.get();
+        }
+    }
+
+    private boolean isLog(LogObject log, String contract, String topic) {
+        return contract.equalsIgnoreCase(log.getAddress())
+                && !log.getTopics().isEmpty()
+                && topic.equalsIgnoreCase(log.getTopics().getFirst());
+    }
+
+    private static boolean isTooManyResults(Response.Error error) {
+        // -32005 is the limit exceeded error code of EIP-1474
+        return error.getCode() == -32005
+                || (error.getMessage() != null && TOO_MANY_RESULTS.matcher(error.getMessage()).find());
+    }
+}
@@ -0,0 +1,303 @@
+package io.optimism.rpc.response;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthBlock;
+
+/**
+ * L1 block object returned by eth_getBlockByNumber and eth_getBlockByHash with full transaction
+ * objects, that only keeps the transactions sent by the batch sender to the batch inbox.
+ *
+ * <p>The transactions array is decoded in a streaming way: the transactions that do not match the
+ * {@link BatcherTxFilter} bound to {@link #FILTER} while the request is sent are skipped, only the
+ * number of their blob versioned hashes is counted, so that the blob indices of the batcher
+ * transactions are still known. If no filter is bound, all transactions are kept.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+@SuppressWarnings("preview")
+public class BatcherEthBlock extends Response<BatcherEthBlock.Block> {
+
+    /**
+     * The batcher transaction filter used when decoding the response.
+     */
+    public static final ScopedValue<BatcherTxFilter> FILTER = ScopedValue.newInstance();
+
+    /**
+     * Instantiates a new batcher eth block.
+     */
+    public BatcherEthBlock() {}
+
+    @Override
+    @JsonDeserialize(using = ResponseDeserialiser.class)
+    public void setResult(Block result) {
+        super.setResult(result);
+    }
+
+    /**
+     * Gets block.
+     *
+     * @return the block
+     */
+    public Block getBlock() {
+        return getResult();
+    }
+
+    /**
+     * The filter of batcher transactions.
+     *
+     * @param batchInbox the batch inbox address
+     * @param batchSender the batch sender address
+     */
+    public record BatcherTxFilter(String batchInbox, String batchSender) {}
+
+    /**
+     * The batcher transaction.
+     *
+     * @param hash the transaction hash
+     * @param type the transaction type
+     * @param input the decoded transaction input
+     * @param blobVersionedHashes the blob versioned hashes of the transaction
+     * @param blobIndex the index of the first blob of the transaction in the block
+     */
+    public record BatcherTransaction(
+            String hash, String type, byte[] input, List<String> blobVersionedHashes, int blobIndex) {
+
+        /**
+         * Check if it is a blob transaction.
+         *
+         * @return true if it is a blob transaction, otherwise false
+         */
+        public boolean isBlobTx() {
+            return "0x3".equalsIgnoreCase(type) || "0x03".equalsIgnoreCase(type);
+        }
+    }
+
+    /**
+     * The block header with the batcher transactions. The transactions of {@link EthBlock.Block} are
+     * always empty, use {@link #getBatcherTransactions()} instead.
+     */
+    public static class Block extends EthBlock.Block {
+
+        private final List<BatcherTransaction> batcherTransactions;
+
+        private int blobCount;
+
+        /**
+         * Instantiates a new block.
+         */
+        public Block() {
+            super();
+            this.batcherTransactions = new ArrayList<>();
+            this.setTransactions(List.of());
+        }
+
+        /**
+         * Gets the transactions sent by the batch sender to the batch inbox.
+         *
+         * @return the batcher transactions
+         */
+        public List<BatcherTransaction> getBatcherTransactions() {
+            return batcherTransactions;
+        }
+
+        /**
+         * Gets the number of blobs of all transactions in the block.
+         *
+         * @return the number of blobs
+         */
+        public int getBlobCount() {
+            return blobCount;
+        }
+    }
+
+    /**
+     * The streaming block deserialiser.
+     */
+    public static class ResponseDeserialiser extends JsonDeserializer<Block> {
+
+        /**
+         * Instantiates a new response deserialiser.
+         */
+        public ResponseDeserialiser() {}
+
+        @Override
+        public Block deserialize(JsonParser jsonParser, DeserializationContext deserializationContext)
+                throws IOException {
+            if (jsonParser.getCurrentToken() == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            final BatcherTxFilter filter = FILTER.isBound() ? FILTER.get() : null;
+            final Block block = new Block();
+            for (JsonToken token = jsonParser.nextToken();
+                    token == JsonToken.FIELD_NAME;
+                    token = jsonParser.nextToken()) {
+                String field = jsonParser.getCurrentName();
+                jsonParser.nextToken();
+                switch (field) {
+                    case "number" -> block.setNumber(jsonParser.getValueAsString());
+                    case "hash" -> block.setHash(jsonParser.getValueAsString());
+                    case "parentHash" -> block.setParentHash(jsonParser.getValueAsString());
+                    case "timestamp" -> block.setTimestamp(jsonParser.getValueAsString());
+                    case "mixHash" -> block.setMixHash(jsonParser.getValueAsString());
+                    case "baseFeePerGas" -> block.setBaseFeePerGas(jsonParser.getValueAsString());
+                    case "excessBlobGas" -> block.setExcessBlobGas(jsonParser.getValueAsString());
+                    case "blobGasUsed" -> block.setBlobGasUsed(jsonParser.getValueAsString());
+                    case "parentBeaconBlockRoot" -> block.setParentBeaconBlockRoot(jsonParser.getValueAsString());
+                    case "logsBloom" -> block.setLogsBloom(jsonParser.getValueAsString());
+                    case "gasLimit" -> block.setGasLimit(jsonParser.getValueAsString());
+                    case "gasUsed" -> block.setGasUsed(jsonParser.getValueAsString());
+                    case "stateRoot" -> block.setStateRoot(jsonParser.getValueAsString());
+                    case "receiptsRoot" -> block.setReceiptsRoot(jsonParser.getValueAsString());
+                    case "transactionsRoot" -> block.setTransactionsRoot(jsonParser.getValueAsString());
+                    case "transactions" -> readTransactions(jsonParser, filter, block);
+                    default -> jsonParser.skipChildren();
+                }
+            }
+            return block;
+        }
+
+        private static void readTransactions(JsonParser jsonParser, BatcherTxFilter filter, Block block)
+                throws IOException {
+            if (jsonParser.getCurrentToken() != JsonToken.START_ARRAY) {
+                jsonParser.skipChildren();
+                return;
+            }
+            final StringBuilder input = new StringBuilder();
+            final List<String> blobHashes = new ArrayList<>();
+            for (JsonToken token = jsonParser.nextToken();
+                    token != JsonToken.END_ARRAY;
+                    token = jsonParser.nextToken()) {
+                if (token != JsonToken.START_OBJECT) {
+                    // transaction hashes only, there is nothing to keep
+                    jsonParser.skipChildren();
+                    continue;
+                }
+                readTransaction(jsonParser, filter, block, input, blobHashes);
+            }
+        }
+
+        private static void readTransaction(
+                JsonParser jsonParser,
+                BatcherTxFilter filter,
+                Block block,
+                StringBuilder input,
+                List<String> blobHashes)
+                throws IOException {
+            boolean fromMatched = filter == null;
+            boolean toMatched = filter == null;
+            boolean fromSeen = false;
+            boolean toSeen = false;
+            String hash = null;
+            String type = null;
+            input.setLength(0);
+            blobHashes.clear();
+            int blobCount = 0;
+            for (JsonToken token = jsonParser.nextToken();
+                    token == JsonToken.FIELD_NAME;
+                    token = jsonParser.nextToken()) {
+                String field = jsonParser.getCurrentName();
+                JsonToken value = jsonParser.nextToken();
+                // once the from or the to is known to mismatch, only the blob hashes are counted
+                final boolean rejected = filter != null && (fromSeen && !fromMatched || toSeen && !toMatched);
+                switch (field) {
+                    case "from" -> {
+                        fromSeen = true;
+                        fromMatched = filter == null || textEquals(jsonParser, value, filter.batchSender());
+                    }
+                    case "to" -> {
+                        toSeen = true;
+                        toMatched = filter == null || textEquals(jsonParser, value, filter.batchInbox());
+                    }
+                    case "hash" -> hash = jsonParser.getValueAsString();
+                    case "type" -> type = jsonParser.getValueAsString();
+                    case "input" -> {
+                        // the input is copied into a reused buffer, as it is only needed by batcher transactions
+                        if (value == JsonToken.VALUE_STRING && !rejected) {
+                            input.append(
+                                    jsonParser.getTextCharacters(),
+                                    jsonParser.getTextOffset(),
+                                    jsonParser.getTextLength());
+                        }
+                    }
+                    case "blobVersionedHashes" -> {
+                        if (value != JsonToken.START_ARRAY) {
+                            jsonParser.skipChildren();
+                            continue;
+                        }
+                        for (JsonToken item = jsonParser.nextToken();
+                                item != JsonToken.END_ARRAY;
+                                item = jsonParser.nextToken()) {
+                            if (rejected) {
+                                jsonParser.skipChildren();
+                            } else {
+                                blobHashes.add(jsonParser.getValueAsString());
+                            }
+                            blobCount++;
+                        }
+                    }
+                    default -> jsonParser.skipChildren();
+                }
+            }
+            if (fromMatched && toMatched) {
+                block.batcherTransactions.add(new BatcherTransaction(
+                        hash, type, decodeHex(jsonParser, input), List.copyOf(blobHashes), block.blobCount));
+            }
+            block.blobCount += blobCount;
+        }
+
+        private static byte[] decodeHex(JsonParser jsonParser, CharSequence hex) throws IOException {
+            int start = hex.length() >= 2 && hex.charAt(0) == '0' && (hex.charAt(1) == 'x' || hex.charAt(1) == 'X')
+                    ? 2
+                    : 0;
+            final int digits = hex.length() - start;
+            final byte[] bytes = new byte[(digits + 1) / 2];
+            int pos = 0;
+            if (digits % 2 != 0) {
+                bytes[pos++] = (byte) hexDigit(jsonParser, hex.charAt(start++));
+            }
+            for (int i = start; i < hex.length(); i += 2) {
+                int high = hexDigit(jsonParser, hex.charAt(i));
+                int low = hexDigit(jsonParser, hex.charAt(i + 1));
+                bytes[pos++] = (byte) ((high << 4) | low);
+            }
+            return bytes;
+        }
+
+        private static int hexDigit(JsonParser jsonParser, char c) throws IOException {
+            int digit = Character.digit(c, 16);
+            if (digit < 0) {
+                throw new JsonParseException(jsonParser, "invalid hex character in transaction input: " + c);
+            }
+            return digit;
+        }
+
+        private static boolean textEquals(JsonParser jsonParser, JsonToken value, String expected)
+                throws IOException {
+            if (value != JsonToken.VALUE_STRING || expected == null) {
+                return false;
+            }
+            final int len = jsonParser.getTextLength();
+            if (len != expected.length()) {
+                return false;
+            }
+            final char[] chars = jsonParser.getTextCharacters();
+            final int offset = jsonParser.getTextOffset();
+            for (int i = 0; i < len; i++) {
+                if (Character.toLowerCase(chars[offset + i]) != Character.toLowerCase(expected.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
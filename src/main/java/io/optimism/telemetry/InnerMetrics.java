@@ -2,6 +2,8 @@ package io.optimism.telemetry;
 
 import io.micrometer.core.instrument.Gauge;
 import java.math.BigInteger;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -15,6 +17,8 @@ public class InnerMetrics {
     private static AtomicReference<BigInteger> FINALIZED_HEAD;
     private static AtomicReference<BigInteger> SAFE_HEAD;
     private static AtomicReference<BigInteger> SYNCED;
+    private static AtomicLong BLOCK_UPDATE_QUEUE_DEPTH;
+    private static AtomicLong BLOCK_UPDATE_STALL_NANOS;
 
     private InnerMetrics() {}
 
@@ -27,6 +31,8 @@ public class InnerMetrics {
         FINALIZED_HEAD = new AtomicReference<>(BigInteger.ZERO);
         SAFE_HEAD = new AtomicReference<>(BigInteger.ZERO);
         SYNCED = new AtomicReference<>(BigInteger.ZERO);
+        BLOCK_UPDATE_QUEUE_DEPTH = new AtomicLong();
+        BLOCK_UPDATE_STALL_NANOS = new AtomicLong();
         var registry = MetricsServer.createPrometheusRegistry();
         Gauge.builder("finalized_head", FINALIZED_HEAD, ref -> ref.get().doubleValue())
                 .description("finalized head number")
@@ -39,6 +45,14 @@ public class InnerMetrics {
         Gauge.builder("synced", SYNCED, ref -> ref.get().doubleValue())
                 .description("synced flag")
                 .register(registry);
+
+        Gauge.builder("block_update_queue_depth", BLOCK_UPDATE_QUEUE_DEPTH, AtomicLong::doubleValue)
+                .description("number of L1 block updates waiting for the driver")
+                .register(registry);
+
+        Gauge.builder("block_update_stall_seconds", BLOCK_UPDATE_STALL_NANOS, ref -> ref.get() / 1e9)
+                .description("total time the L1 watcher was parked on a full block update queue")
+                .register(registry);
         MetricsServer.start(registry, port);
     }
 
@@ -79,4 +93,26 @@ public class InnerMetrics {
             SYNCED.getAndSet(synced);
         }
     }
+
+    /**
+     * set metrics block update queue depth.
+     *
+     * @param depth number of block updates in the queue
+     */
+    public static void setBlockUpdateQueueDepth(long depth) {
+        if (BLOCK_UPDATE_QUEUE_DEPTH != null) {
+            BLOCK_UPDATE_QUEUE_DEPTH.set(depth);
+        }
+    }
+
+    /**
+     * add the time the L1 watcher was parked on a full block update queue.
+     *
+     * @param stall the stall time
+     */
+    public static void addBlockUpdateStall(Duration stall) {
+        if (BLOCK_UPDATE_STALL_NANOS != null) {
+            BLOCK_UPDATE_STALL_NANOS.addAndGet(stall.toNanos());
+        }
+    }
 }
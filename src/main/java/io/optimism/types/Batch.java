@@ -2,7 +2,8 @@ package io.optimism.types;
 
 import io.netty.buffer.Unpooled;
 import java.math.BigInteger;
-import org.web3j.rlp.RlpList;
+import org.apache.tuweni.bytes.Bytes;
+import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
 
 /**
  * The type Batch.
@@ -42,12 +43,12 @@ public record Batch(IBatch batch, BigInteger l1InclusionBlock) {
     /**
      * Decode singular batch.
      *
-     * @param rlp the rlp
+     * @param rlp the rlp encoded singular batch
      * @param l1InclusionBlock L1 inclusion block
      * @return the batch
      */
-    public static Batch decodeSingularBatch(final RlpList rlp, final BigInteger l1InclusionBlock) {
-        return new Batch(SingularBatch.decode(rlp), l1InclusionBlock);
+    public static Batch decodeSingularBatch(final Bytes rlp, final BigInteger l1InclusionBlock) {
+        return new Batch(SingularBatch.decode(new BytesValueRLPInput(rlp, false)), l1InclusionBlock);
     }
 
     /**
@@ -1,6 +1,14 @@
 package io.optimism.types;
 
 import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import org.web3j.crypto.Hash;
@@ -13,9 +21,38 @@ import org.web3j.utils.Numeric;
  * @since 0.3.0
  */
 public class BlobSidecar {
+
+    /** The size of a blob. */
+    public static final int BYTES_PER_BLOB = 131072;
+
+    private static final int BYTES_PER_UINT64 = 8;
+
+    private static final int BYTES_PER_ROOT = 32;
+
+    private static final int BYTES_PER_KZG = 48;
+
+    private static final int BYTES_PER_SIGNATURE = 96;
+
+    private static final int KZG_COMMITMENT_INCLUSION_PROOF_DEPTH = 17;
+
+    /** The size of a ssz encoded blob sidecar. */
+    public static final int SSZ_SIZE = BYTES_PER_UINT64
+            + BYTES_PER_BLOB
+            + BYTES_PER_KZG * 2
+            + BYTES_PER_UINT64 * 2
+            + BYTES_PER_ROOT * 3
+            + BYTES_PER_SIGNATURE
+            + BYTES_PER_ROOT * KZG_COMMITMENT_INCLUSION_PROOF_DEPTH;
+
     private String index;
     private String blob;
 
+    /**
+     * The blob data, decoded from ssz or from the hex string on first use. The hex string is dropped once
+     * decoded, and is only created again when requested.
+     */
+    private byte[] blobBytes;
+
     @JsonAlias("signed_block_header")
     private BeaconSignedBlockHeader signedBlockHeader;
 
@@ -81,7 +118,10 @@ public class BlobSidecar {
      *
      * @return the blob
      */
-    public String getBlob() {
+    public synchronized String getBlob() {
+        if (blob == null && blobBytes != null) {
+            return Numeric.toHexString(blobBytes);
+        }
         return blob;
     }
 
@@ -90,8 +130,23 @@ public class BlobSidecar {
      *
      * @param blob the blob
      */
-    public void setBlob(String blob) {
+    public synchronized void setBlob(String blob) {
         this.blob = blob;
+        this.blobBytes = null;
+    }
+
+    /**
+     * Gets blob bytes.
+     *
+     * @return the blob bytes
+     */
+    @JsonIgnore
+    public synchronized byte[] getBlobBytes() {
+        if (blobBytes == null && blob != null) {
+            blobBytes = Numeric.hexStringToByteArray(blob);
+            blob = null;
+        }
+        return blobBytes;
     }
 
     /**
@@ -184,7 +239,7 @@ public class BlobSidecar {
             return false;
         }
         return Objects.equals(index, that.index)
-                && Objects.equals(blob, that.blob)
+                && Arrays.equals(getBlobBytes(), that.getBlobBytes())
                 && Objects.equals(signedBlockHeader, that.signedBlockHeader)
                 && Objects.equals(kzgCommitment, that.kzgCommitment)
                 && Objects.equals(kzgProof, that.kzgProof)
@@ -193,6 +248,100 @@ public class BlobSidecar {
 
     @Override
     public int hashCode() {
-        return Objects.hash(index, blob, signedBlockHeader, kzgCommitment, kzgProof, kzgCommitmentInclusionProof);
+        return Objects.hash(
+                index,
+                Arrays.hashCode(getBlobBytes()),
+                signedBlockHeader,
+                kzgCommitment,
+                kzgProof,
+                kzgCommitmentInclusionProof);
+    }
+
+    /**
+     * Decode the ssz encoded list of blob sidecars. All fields of a blob sidecar have a fixed size, so
+     * the sidecars are read one after another until the end of the stream.
+     *
+     * @param in the ssz encoded blob sidecars
+     * @return the list of blob sidecars
+     * @throws IOException if the stream could not be read or is truncated
+     */
+    public static List<BlobSidecar> fromSsz(InputStream in) throws IOException {
+        final List<BlobSidecar> sidecars = new ArrayList<>();
+        final byte[] index = new byte[BYTES_PER_UINT64];
+        while (true) {
+            int read = in.readNBytes(index, 0, index.length);
+            if (read == 0) {
+                return sidecars;
+            }
+            if (read != index.length) {
+                throw new EOFException("truncated blob sidecar");
+            }
+            BlobSidecar sidecar = new BlobSidecar();
+            sidecar.index = readUint64(index);
+            sidecar.blobBytes = readFully(in, BYTES_PER_BLOB);
+            sidecar.kzgCommitment = Numeric.toHexString(readFully(in, BYTES_PER_KZG));
+            sidecar.kzgProof = Numeric.toHexString(readFully(in, BYTES_PER_KZG));
+            BeaconBlockHeader header = new BeaconBlockHeader(
+                    readUint64(readFully(in, BYTES_PER_UINT64)),
+                    readUint64(readFully(in, BYTES_PER_UINT64)),
+                    Numeric.toHexString(readFully(in, BYTES_PER_ROOT)),
+                    Numeric.toHexString(readFully(in, BYTES_PER_ROOT)),
+                    Numeric.toHexString(readFully(in, BYTES_PER_ROOT)));
+            sidecar.signedBlockHeader =
+                    new BeaconSignedBlockHeader(header, Numeric.toHexString(readFully(in, BYTES_PER_SIGNATURE)));
+            List<String> inclusionProof = new ArrayList<>(KZG_COMMITMENT_INCLUSION_PROOF_DEPTH);
+            for (int i = 0; i < KZG_COMMITMENT_INCLUSION_PROOF_DEPTH; i++) {
+                inclusionProof.add(Numeric.toHexString(readFully(in, BYTES_PER_ROOT)));
+            }
+            sidecar.kzgCommitmentInclusionProof = inclusionProof;
+            sidecars.add(sidecar);
+        }
+    }
+
+    /**
+     * Encode the blob sidecar as ssz.
+     *
+     * @return the ssz encoded blob sidecar
+     */
+    public byte[] toSsz() {
+        final ByteBuffer buffer = ByteBuffer.allocate(SSZ_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putLong(Long.parseUnsignedLong(this.index));
+        putFixed(buffer, this.getBlobBytes(), BYTES_PER_BLOB);
+        putFixed(buffer, Numeric.hexStringToByteArray(this.kzgCommitment), BYTES_PER_KZG);
+        putFixed(buffer, Numeric.hexStringToByteArray(this.kzgProof), BYTES_PER_KZG);
+        BeaconBlockHeader header = this.signedBlockHeader.getMessage();
+        buffer.putLong(Long.parseUnsignedLong(header.getSlot()));
+        buffer.putLong(Long.parseUnsignedLong(header.getProposerIndex()));
+        putFixed(buffer, Numeric.hexStringToByteArray(header.getParentRoot()), BYTES_PER_ROOT);
+        putFixed(buffer, Numeric.hexStringToByteArray(header.getStateRoot()), BYTES_PER_ROOT);
+        putFixed(buffer, Numeric.hexStringToByteArray(header.getBodyRoot()), BYTES_PER_ROOT);
+        putFixed(buffer, Numeric.hexStringToByteArray(this.signedBlockHeader.getSignature()), BYTES_PER_SIGNATURE);
+        if (this.kzgCommitmentInclusionProof == null
+                || this.kzgCommitmentInclusionProof.size() != KZG_COMMITMENT_INCLUSION_PROOF_DEPTH) {
+            throw new IllegalArgumentException("invalid kzg commitment inclusion proof");
+        }
+        for (String proof : this.kzgCommitmentInclusionProof) {
+            putFixed(buffer, Numeric.hexStringToByteArray(proof), BYTES_PER_ROOT);
+        }
+        return buffer.array();
+    }
+
+    private static void putFixed(ByteBuffer buffer, byte[] bytes, int size) {
+        if (bytes == null || bytes.length != size) {
+            throw new IllegalArgumentException("invalid blob sidecar field size, expected %d bytes".formatted(size));
+        }
+        buffer.put(bytes);
+    }
+
+    private static byte[] readFully(InputStream in, int size) throws IOException {
+        byte[] bytes = in.readNBytes(size);
+        if (bytes.length != size) {
+            throw new EOFException("truncated blob sidecar");
+        }
+        return bytes;
+    }
+
+    private static String readUint64(byte[] bytes) {
+        return Long.toUnsignedString(ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getLong());
     }
 }
@@ -64,7 +64,27 @@ public abstract class BlockUpdate {
     /** update Reorg. */
     public static class Reorg extends BlockUpdate {
 
-        /** Reorg constructor. */
+        private BlockInfo commonAncestor;
+
+        /** Reorg constructor, the common ancestor is unknown. */
         public Reorg() {}
+
+        /**
+         * Reorg constructor.
+         *
+         * @param commonAncestor the last L1 block that is still canonical
+         */
+        public Reorg(BlockInfo commonAncestor) {
+            this.commonAncestor = commonAncestor;
+        }
+
+        /**
+         * get the last L1 block that is still canonical.
+         *
+         * @return the common ancestor, or null if it is unknown and all unfinalized blocks must be dropped
+         */
+        public BlockInfo getCommonAncestor() {
+            return commonAncestor;
+        }
     }
 }
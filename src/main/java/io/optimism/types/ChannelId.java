@@ -0,0 +1,69 @@
+package io.optimism.types;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import org.web3j.utils.Numeric;
+
+/**
+ * The id of a channel, the 16 bytes of the id are held as two longs.
+ *
+ * @param high the first 8 bytes of the id
+ * @param low the last 8 bytes of the id
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+public record ChannelId(long high, long low) implements Comparable<ChannelId> {
+
+    /** The length of a channel id in bytes. */
+    public static final int LENGTH = 16;
+
+    /**
+     * Read the channel id from the buffer.
+     *
+     * @param data the buffer
+     * @param index the index of the channel id in the buffer
+     * @return the channel id
+     */
+    public static ChannelId from(ByteBuffer data, int index) {
+        return new ChannelId(data.getLong(index), data.getLong(index + Long.BYTES));
+    }
+
+    /**
+     * Create the channel id from its numeric value.
+     *
+     * @param id the numeric value of the channel id
+     * @return the channel id
+     */
+    public static ChannelId from(BigInteger id) {
+        return from(ByteBuffer.wrap(Numeric.toBytesPadded(id, LENGTH)), 0);
+    }
+
+    /**
+     * Gets the bytes of the channel id.
+     *
+     * @return the bytes
+     */
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(LENGTH).putLong(this.high).putLong(this.low).array();
+    }
+
+    /**
+     * Gets the numeric value of the channel id.
+     *
+     * @return the numeric value
+     */
+    public BigInteger toBigInteger() {
+        return new BigInteger(1, this.toBytes());
+    }
+
+    @Override
+    public int compareTo(ChannelId o) {
+        int res = Long.compareUnsigned(this.high, o.high);
+        return res != 0 ? res : Long.compareUnsigned(this.low, o.low);
+    }
+
+    @Override
+    public String toString() {
+        return Numeric.toHexString(this.toBytes());
+    }
+}
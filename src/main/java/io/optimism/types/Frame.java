@@ -3,34 +3,27 @@ package io.optimism.types;
 import com.google.common.base.Objects;
 import com.google.common.primitives.Ints;
 import com.google.common.primitives.Shorts;
-import io.optimism.exceptions.InvalidFrameSizeException;
 import java.io.ByteArrayOutputStream;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.web3j.utils.Numeric;
 
 /**
  * The type Frame.
  *
  * @param channelId the channel id
  * @param frameNumber the frame number
- * @param frameDataLen the frame data len
- * @param frameData the frame data
+ * @param data the frame data, a slice of the batcher transaction
  * @param isLastFrame the is last frame
  * @param l1InclusionBlock the L1 inclusion block
  * @author grapebaba
  * @since 0.1.0
  */
 public record Frame(
-        BigInteger channelId,
-        Integer frameNumber,
-        Integer frameDataLen,
-        byte[] frameData,
-        Boolean isLastFrame,
-        BigInteger l1InclusionBlock) {
+        ChannelId channelId, int frameNumber, ByteBuffer data, boolean isLastFrame, BigInteger l1InclusionBlock) {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Frame.class);
 
@@ -42,6 +35,45 @@ public record Frame(
      */
     public static final int FRAME_V0_OVER_HEAD_SIZE = 23;
 
+    /**
+     * Instantiates a new Frame of the frame data.
+     *
+     * @param channelId the channel id
+     * @param frameNumber the frame number
+     * @param frameData the frame data
+     * @param isLastFrame the is last frame
+     * @param l1InclusionBlock the L1 inclusion block
+     */
+    public Frame(
+            BigInteger channelId, int frameNumber, byte[] frameData, boolean isLastFrame, BigInteger l1InclusionBlock) {
+        this(
+                ChannelId.from(channelId),
+                frameNumber,
+                ByteBuffer.wrap(frameData == null ? new byte[0] : frameData),
+                isLastFrame,
+                l1InclusionBlock);
+    }
+
+    /**
+     * Gets the frame data len.
+     *
+     * @return the frame data len
+     */
+    public int frameDataLen() {
+        return data.remaining();
+    }
+
+    /**
+     * Gets a copy of the frame data.
+     *
+     * @return the frame data
+     */
+    public byte[] frameData() {
+        byte[] frameData = new byte[data.remaining()];
+        data.duplicate().get(frameData);
+        return frameData;
+    }
+
     /**
      * Get tx bytes.
      *
@@ -70,8 +102,7 @@ public record Frame(
      * @return a new Frame instance
      */
     public static Frame create(BigInteger id, int frameNumber, byte[] data, boolean isLastFrame) {
-        var dataLen = data == null ? 0 : data.length;
-        return new Frame(id, frameNumber, dataLen, data, isLastFrame, null);
+        return new Frame(id, frameNumber, data, isLastFrame, null);
     }
 
     /**
@@ -81,9 +112,9 @@ public record Frame(
      */
     public byte[] encode() {
         var bos = new ByteArrayOutputStream();
-        bos.writeBytes(Numeric.toBytesPadded(channelId, 16));
-        bos.writeBytes(Shorts.toByteArray((short) frameNumber().intValue()));
-        bos.writeBytes(Ints.toByteArray(frameData().length));
+        bos.writeBytes(channelId.toBytes());
+        bos.writeBytes(Shorts.toByteArray((short) frameNumber()));
+        bos.writeBytes(Ints.toByteArray(frameDataLen()));
         bos.writeBytes(frameData());
         bos.write(isLastFrame() ? 1 : 0);
         return bos.toByteArray();
@@ -95,31 +126,20 @@ public record Frame(
      * @param data the data
      * @param offset the offset
      * @param l1InclusionBlock the L1 inclusion block
-     * @return the immutable pair
+     * @return the immutable pair, left is the frame, right is the offset after the frame
      */
     public static ImmutablePair<Frame, Integer> from(byte[] data, int offset, BigInteger l1InclusionBlock) {
-        final byte[] frameDataMessage = ArrayUtils.subarray(data, offset, data.length);
-        if (frameDataMessage.length < 23) {
-            throw new InvalidFrameSizeException("invalid frame size");
-        }
-
-        final BigInteger channelId = Numeric.toBigInt(ArrayUtils.subarray(frameDataMessage, 0, 16));
-        final int frameNumber =
-                Numeric.toBigInt(ArrayUtils.subarray(frameDataMessage, 16, 18)).intValue();
-        final int frameDataLen =
-                Numeric.toBigInt(ArrayUtils.subarray(frameDataMessage, 18, 22)).intValue();
-        final int frameDataEnd = 22 + frameDataLen;
-
-        if (frameDataMessage.length < frameDataEnd) {
-            throw new InvalidFrameSizeException("invalid frame size");
-        }
-
-        final byte[] frameData = ArrayUtils.subarray(frameDataMessage, 22, frameDataEnd);
-        final boolean isLastFrame = frameDataMessage[frameDataEnd] != 0;
-        final Frame frame = new Frame(channelId, frameNumber, frameDataLen, frameData, isLastFrame, l1InclusionBlock);
-        LOGGER.debug(String.format(
-                "saw batcher tx: block=%d, number=%d, is_last=%b", l1InclusionBlock, frameNumber, isLastFrame));
-
-        return new ImmutablePair<>(frame, offset + frameDataMessage.length);
+        final ImmutablePair<Frame, Integer> framePair = FrameParser.parseFrame(
+                data,
+                offset,
+                Integer.MAX_VALUE,
+                (channelId, frameNumber, frameData, isLastFrame) ->
+                        new Frame(channelId, frameNumber, frameData, isLastFrame, l1InclusionBlock));
+        LOGGER.debug(
+                "saw batcher tx: block={}, number={}, is_last={}",
+                l1InclusionBlock,
+                framePair.getLeft().frameNumber(),
+                framePair.getLeft().isLastFrame());
+        return framePair;
     }
 }
@@ -0,0 +1,97 @@
+package io.optimism.types;
+
+import io.optimism.exceptions.InvalidFrameSizeException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+
+/**
+ * Parses the frames of a batcher transaction.
+ *
+ * <p>The frame data is a slice of the batcher transaction bytes and the channel id is read as two
+ * longs, so the bytes of a frame are not copied.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+public final class FrameParser {
+
+    // channel id, frame number and frame data length
+    private static final int FRAME_HEADER_SIZE = ChannelId.LENGTH + Short.BYTES + Integer.BYTES;
+
+    private FrameParser() {}
+
+    /**
+     * Creates a frame of the parsed fields.
+     *
+     * @param <T> the type of the frame
+     * @author thinkAfCod
+     * @since 0.4.6
+     */
+    @FunctionalInterface
+    public interface FrameFactory<T> {
+
+        /**
+         * Create a frame.
+         *
+         * @param channelId the channel id
+         * @param frameNumber the frame number
+         * @param frameData the slice of the frame data
+         * @param isLastFrame the is last frame
+         * @return the frame
+         */
+        T create(ChannelId channelId, int frameNumber, ByteBuffer frameData, boolean isLastFrame);
+    }
+
+    /**
+     * Parse the frame at the offset.
+     *
+     * @param <T> the type of the frame
+     * @param data the data
+     * @param offset the offset of the frame
+     * @param maxFrameDataLen the max length of the frame data
+     * @param factory the frame factory
+     * @return the immutable pair, left is the frame, right is the offset after the frame
+     */
+    public static <T> ImmutablePair<T, Integer> parseFrame(
+            byte[] data, int offset, int maxFrameDataLen, FrameFactory<T> factory) {
+        if (data.length - offset < Frame.FRAME_V0_OVER_HEAD_SIZE) {
+            throw new InvalidFrameSizeException("invalid frame size");
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(data);
+        final ChannelId channelId = ChannelId.from(buffer, offset);
+        final int frameNumber = Short.toUnsignedInt(buffer.getShort(offset + ChannelId.LENGTH));
+        final long frameDataLen = Integer.toUnsignedLong(buffer.getInt(offset + ChannelId.LENGTH + Short.BYTES));
+        final int frameDataStart = offset + FRAME_HEADER_SIZE;
+        // the frame data is followed by the is last frame byte
+        if (frameDataLen > maxFrameDataLen || frameDataLen > data.length - frameDataStart - 1L) {
+            throw new InvalidFrameSizeException("invalid frame size");
+        }
+        final int frameDataEnd = frameDataStart + (int) frameDataLen;
+        final ByteBuffer frameData = buffer.slice(frameDataStart, (int) frameDataLen);
+        final boolean isLastFrame = data[frameDataEnd] != 0;
+        return new ImmutablePair<>(factory.create(channelId, frameNumber, frameData, isLastFrame), frameDataEnd + 1);
+    }
+
+    /**
+     * Parse the frames from the offset to the end of the data.
+     *
+     * @param <T> the type of the frame
+     * @param data the data
+     * @param offset the offset of the first frame
+     * @param maxFrameDataLen the max length of the frame data
+     * @param factory the frame factory
+     * @return the frames
+     */
+    public static <T> List<T> parseFrames(byte[] data, int offset, int maxFrameDataLen, FrameFactory<T> factory) {
+        List<T> frames = new ArrayList<>();
+        int next = offset;
+        while (next < data.length) {
+            ImmutablePair<T, Integer> framePair = parseFrame(data, next, maxFrameDataLen, factory);
+            frames.add(framePair.getLeft());
+            next = framePair.getRight();
+        }
+        return frames;
+    }
+}
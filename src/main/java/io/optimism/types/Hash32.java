@@ -0,0 +1,153 @@
+package io.optimism.types;
+
+import java.nio.ByteBuffer;
+import org.apache.tuweni.bytes.Bytes;
+import org.web3j.utils.Numeric;
+
+/**
+ * A 32 bytes hash, the bytes of the hash are held as four longs.
+ *
+ * @param w0 the bytes 0 to 7 of the hash
+ * @param w1 the bytes 8 to 15 of the hash
+ * @param w2 the bytes 16 to 23 of the hash
+ * @param w3 the bytes 24 to 31 of the hash
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+public record Hash32(long w0, long w1, long w2, long w3) {
+
+    /** The length of a hash in bytes. */
+    public static final int LENGTH = 32;
+
+    private static final int HEX_LENGTH = LENGTH * 2;
+
+    private static final int NIBBLES_PER_WORD = Long.BYTES * 2;
+
+    /**
+     * Parse the hash from the hex string, the hex string shorter than 32 bytes is left padded with
+     * zeros.
+     *
+     * @param hex the hex string of the hash
+     * @return the hash, or null if the hex string is null
+     */
+    public static Hash32 fromHexString(String hex) {
+        if (hex == null) {
+            return null;
+        }
+        final int start = hexStart(hex);
+        final int digits = hex.length() - start;
+        if (digits > HEX_LENGTH) {
+            throw new IllegalArgumentException("invalid hash length: %s".formatted(hex));
+        }
+        final long[] words = new long[4];
+        for (int i = 0; i < digits; i++) {
+            final int digit = Character.digit(hex.charAt(start + i), 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("invalid hash: %s".formatted(hex));
+            }
+            final int nibble = HEX_LENGTH - digits + i;
+            words[nibble / NIBBLES_PER_WORD] |= (long) digit << shift(nibble);
+        }
+        return new Hash32(words[0], words[1], words[2], words[3]);
+    }
+
+    /**
+     * Checks the hash is equal to the hash of the hex string, ignoring the case of the hex string.
+     *
+     * @param hex the hex string of a hash
+     * @return true if the hex string is the same hash, otherwise false
+     */
+    public boolean equalsHexString(String hex) {
+        if (hex == null) {
+            return false;
+        }
+        final int start = hexStart(hex);
+        final int digits = hex.length() - start;
+        if (digits > HEX_LENGTH) {
+            return false;
+        }
+        final int padding = HEX_LENGTH - digits;
+        for (int nibble = 0; nibble < HEX_LENGTH; nibble++) {
+            final int digit = nibble < padding ? 0 : Character.digit(hex.charAt(start + nibble - padding), 16);
+            if (digit != (int) (this.word(nibble / NIBBLES_PER_WORD) >>> shift(nibble) & 0xF)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks the hash starts with the bytes.
+     *
+     * @param prefix the bytes
+     * @return true if the first bytes of the hash are the bytes, otherwise false
+     */
+    public boolean startsWith(Bytes prefix) {
+        final int size = prefix.size();
+        if (size > LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (prefix.get(i) != this.byteAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the byte of the hash at the index.
+     *
+     * @param index the index of the byte
+     * @return the byte
+     */
+    public byte byteAt(int index) {
+        return (byte) (this.word(index / Long.BYTES) >>> ((Long.BYTES - 1 - index % Long.BYTES) * Byte.SIZE));
+    }
+
+    /**
+     * Gets the bytes of the hash.
+     *
+     * @return the bytes
+     */
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(LENGTH)
+                .putLong(this.w0)
+                .putLong(this.w1)
+                .putLong(this.w2)
+                .putLong(this.w3)
+                .array();
+    }
+
+    /**
+     * Gets the hex string of the hash.
+     *
+     * @return the hex string
+     */
+    public String toHexString() {
+        return Numeric.toHexString(this.toBytes());
+    }
+
+    @Override
+    public String toString() {
+        return this.toHexString();
+    }
+
+    private long word(int index) {
+        return switch (index) {
+            case 0 -> this.w0;
+            case 1 -> this.w1;
+            case 2 -> this.w2;
+            case 3 -> this.w3;
+            default -> throw new IndexOutOfBoundsException(index);
+        };
+    }
+
+    private static int shift(int nibble) {
+        return (NIBBLES_PER_WORD - 1 - nibble % NIBBLES_PER_WORD) * 4;
+    }
+
+    private static int hexStart(String hex) {
+        return hex.length() >= 2 && hex.charAt(0) == '0' && (hex.charAt(1) == 'x' || hex.charAt(1) == 'X') ? 2 : 0;
+    }
+}
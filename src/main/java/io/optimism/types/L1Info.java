@@ -10,6 +10,7 @@ import io.optimism.exceptions.BlockNotIncludedException;
 import java.math.BigInteger;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.web3j.utils.Numeric;
 
 /**
  * The type L1Info.
@@ -27,7 +28,7 @@ public record L1Info(
         L1BlockInfo blockInfo,
         SystemConfig systemConfig,
         List<UserDeposited> userDeposits,
-        List<String> batcherTransactions,
+        List<byte[]> batcherTransactions,
         String parentBeaconRoot,
         boolean finalized) {
 
@@ -65,7 +66,7 @@ public record L1Info(
         }
         L1BlockInfo l1BlockInfo =
                 L1BlockInfo.create(blockNumber, blockHash, block.getTimestamp(), baseFeePerGas, mixHash);
-        List<String> batcherTransactions = createBatcherTransactions(block, systemConfig.batchSender(), batchInbox);
+        List<byte[]> batcherTransactions = createBatcherTransactions(block, systemConfig.batchSender(), batchInbox);
 
         return new L1Info(l1BlockInfo, systemConfig, userDeposits, batcherTransactions, null, finalized);
     }
@@ -86,7 +87,7 @@ public record L1Info(
             List<UserDeposited> userDeposits,
             boolean finalized,
             SystemConfig systemConfig,
-            List<String> batcherTransactions,
+            List<byte[]> batcherTransactions,
             String parentBeaconRoot) {
         checkBlock(block);
         BigInteger blockNumber = block.getNumber();
@@ -123,11 +124,12 @@ public record L1Info(
      * @param batchInbox the batch inbox contract address
      * @return the list of batcher transactions
      */
-    public static List<String> createBatcherTransactions(Block block, String batchSender, String batchInbox) {
+    public static List<byte[]> createBatcherTransactions(Block block, String batchSender, String batchInbox) {
         return block.getTransactions().stream()
                 .filter(transactionResult ->
                         isValidBatcherTx((TransactionObject) transactionResult, batchSender, batchInbox))
                 .map(transactionResult -> ((TransactionObject) transactionResult).getInput())
+                .map(Numeric::hexStringToByteArray)
                 .collect(Collectors.toList());
     }
 
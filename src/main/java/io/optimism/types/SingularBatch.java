@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
 import org.web3j.rlp.RlpEncoder;
 import org.web3j.rlp.RlpList;
 import org.web3j.rlp.RlpString;
@@ -82,9 +83,9 @@ public class SingularBatch implements IBatch {
      */
     public static SingularBatch decode(RlpList rlp) {
         String parentHash = ((RlpString) rlp.getValues().get(0)).asString();
-        BigInteger epochNum = ((RlpString) rlp.getValues().get(1)).asPositiveBigInteger();
+        BigInteger epochNum = uint64(((RlpString) rlp.getValues().get(1)).asPositiveBigInteger(), "epoch number");
         String epochHash = ((RlpString) rlp.getValues().get(2)).asString();
-        BigInteger timestamp = ((RlpString) rlp.getValues().get(3)).asPositiveBigInteger();
+        BigInteger timestamp = uint64(((RlpString) rlp.getValues().get(3)).asPositiveBigInteger(), "timestamp");
         List<String> transactions = ((RlpList) rlp.getValues().get(4))
                 .getValues().stream()
                         .map(rlpString -> ((RlpString) rlpString).asString())
@@ -92,6 +93,30 @@ public class SingularBatch implements IBatch {
         return new SingularBatch(parentHash, epochNum, epochHash, timestamp, transactions);
     }
 
+    /**
+     * Decode batch from the rlp input, the fields are read in place without building the rlp tree.
+     *
+     * @param input the rlp input
+     * @return the batch
+     */
+    public static SingularBatch decode(RLPInput input) {
+        input.enterList();
+        String parentHash = input.readBytes().toHexString();
+        BigInteger epochNum = uint64(input.readBigIntegerScalar(), "epoch number");
+        String epochHash = input.readBytes().toHexString();
+        BigInteger timestamp = uint64(input.readBigIntegerScalar(), "timestamp");
+        List<String> transactions = input.readList(txInput -> txInput.readBytes().toHexString());
+        input.leaveListLenient();
+        return new SingularBatch(parentHash, epochNum, epochHash, timestamp, transactions);
+    }
+
+    private static BigInteger uint64(BigInteger value, String field) {
+        if (value.signum() < 0 || value.bitLength() > Long.SIZE) {
+            throw new IllegalArgumentException("invalid batch %s, not a uint64: %s".formatted(field, value));
+        }
+        return value;
+    }
+
     @Override
     public BatchType getBatchType() {
         return BatchType.SINGULAR_BATCH_TYPE;
@@ -131,6 +131,26 @@ public class SpanBatch implements IBatch {
         return this.parentCheck.equals(hash.slice(0, this.parentCheck.size()));
     }
 
+    /**
+     * checks if the l1OriginCheck matches the first 20 bytes of given hash, probably the L1 origin of the last block.
+     *
+     * @param hash the hash.
+     * @return boolean. boolean
+     */
+    public boolean checkOriginHash(Hash32 hash) {
+        return hash.startsWith(this.l1OriginCheck);
+    }
+
+    /**
+     * checks if the parentCheck matches the first 20 bytes of given hash, probably the current L2 safe head.
+     *
+     * @param hash the hash.
+     * @return boolean. boolean
+     */
+    public boolean checkParentHash(Hash32 hash) {
+        return hash.startsWith(this.parentCheck);
+    }
+
     /**
      * GetBlockEpochNum
      *
@@ -3,91 +3,89 @@ package io.optimism.types;
 import static org.hyperledger.besu.ethereum.core.Transaction.REPLAY_PROTECTED_V_BASE;
 import static org.hyperledger.besu.ethereum.core.Transaction.REPLAY_UNPROTECTED_V_BASE;
 
-import com.google.common.primitives.Longs;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.PooledByteBufAllocator;
-import io.optimism.utilities.spanbatch.RLPEncodingHelpers;
 import io.optimism.utilities.spanbatch.SpanBatchUtils;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
-import org.apache.commons.lang3.tuple.Pair;
 import org.apache.tuweni.bytes.Bytes;
-import org.apache.tuweni.bytes.MutableBytes;
 import org.hyperledger.besu.datatypes.TransactionType;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.encoding.EncodingContext;
 import org.hyperledger.besu.ethereum.core.encoding.TransactionDecoder;
 import org.hyperledger.besu.ethereum.core.encoding.TransactionEncoder;
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
-import org.hyperledger.besu.ethereum.rlp.RLPInput;
 import org.web3j.utils.Numeric;
 
 /**
  * The type SpanBatchTxs.
  *
+ * <p>The txs are held in columns of primitive arrays: the nonces, gases and v of the signatures
+ * are longs, the r and s of the signatures and the tos are packed bytes, and the tx datas are
+ * packed bytes indexed by their offsets. The bitfields are bit sets.
+ *
  * @author grapebaba
  * @since 0.2.4
  */
 public class SpanBatchTxs {
 
+    private static final int ADDRESS_LENGTH = 20;
+
+    private static final int SIG_RS_LENGTH = 64;
+
+    private static final int SIG_SCALAR_LENGTH = 32;
+
+    private static final BigInteger TWO_POW_64 = BigInteger.ONE.shiftLeft(Long.SIZE);
+
     private long totalBlockTxCount;
-    private BigInteger contractCreationBits;
-    private BigInteger yParityBits;
-    private List<SpanBatchSignature> txSigs;
-    private List<BigInteger> txNonces;
-    private List<BigInteger> txGases;
-    private List<String> txTos;
-    private List<Bytes> txDatas;
-    private List<TransactionType> txTypes;
+    private BitSet contractCreationBits;
+    private BitSet yParityBits;
+    private long[] txSigsV = new long[0];
+    private byte[] txSigsRS = new byte[0];
+    private long[] txNonces = new long[0];
+    private long[] txGases = new long[0];
+    private byte[] txTos = new byte[0];
+    private byte[] txDatas = new byte[0];
+    private int[] txDataOffsets = new int[] {0};
+    private TransactionType[] txTypes = new TransactionType[0];
 
     private long totalLegacyTxCount;
 
-    private BigInteger protectedBits;
+    private BitSet protectedBits;
 
     /**
      * Instantiates a new Span batch txs.
      */
     public SpanBatchTxs() {}
 
-    /**
-     * Instantiates a new Span batch txs.
-     *
-     * @param totalBlockTxCount    the total block tx count
-     * @param contractCreationBits the contract creation bits
-     * @param yParityBits          the y parity bits
-     * @param txSigs               the tx sigs
-     * @param txNonces             the tx nonces
-     * @param txGases              the tx gases
-     * @param txTos                the tx tos
-     * @param txDatas              the tx datas
-     * @param txTypes              the tx types
-     * @param totalLegacyTxCount   the total legacy tx count
-     * @param protectedBits        the protected bits
-     */
-    public SpanBatchTxs(
-            Long totalBlockTxCount,
-            BigInteger contractCreationBits,
-            BigInteger yParityBits,
-            List<SpanBatchSignature> txSigs,
-            List<BigInteger> txNonces,
-            List<BigInteger> txGases,
-            List<String> txTos,
-            List<Bytes> txDatas,
-            List<TransactionType> txTypes,
+    private SpanBatchTxs(
+            long totalBlockTxCount,
+            BitSet contractCreationBits,
+            BitSet yParityBits,
+            long[] txSigsV,
+            byte[] txSigsRS,
+            long[] txNonces,
+            long[] txGases,
+            byte[] txTos,
+            byte[] txDatas,
+            int[] txDataOffsets,
+            TransactionType[] txTypes,
             long totalLegacyTxCount,
-            BigInteger protectedBits) {
+            BitSet protectedBits) {
         this.totalBlockTxCount = totalBlockTxCount;
         this.contractCreationBits = contractCreationBits;
         this.yParityBits = yParityBits;
-        this.txSigs = txSigs;
+        this.txSigsV = txSigsV;
+        this.txSigsRS = txSigsRS;
         this.txNonces = txNonces;
         this.txGases = txGases;
         this.txTos = txTos;
         this.txDatas = txDatas;
+        this.txDataOffsets = txDataOffsets;
         this.txTypes = txTypes;
         this.totalLegacyTxCount = totalLegacyTxCount;
         this.protectedBits = protectedBits;
@@ -99,7 +97,7 @@ public class SpanBatchTxs {
      * @return encoded contract creation bits.
      */
     public byte[] encodeContractCreationBits() {
-        return SpanBatchUtils.encodeSpanBatchBits((int) this.totalBlockTxCount, this.contractCreationBits);
+        return SpanBatchUtils.encodeSpanBatchBitSet((int) this.totalBlockTxCount, this.contractCreationBits);
     }
 
     /**
@@ -109,7 +107,7 @@ public class SpanBatchTxs {
      */
     public void decodeContractCreationBits(ByteBuf contractCreationBit) {
         this.contractCreationBits =
-                SpanBatchUtils.decodeSpanBatchBits(contractCreationBit, (int) this.totalBlockTxCount);
+                SpanBatchUtils.decodeSpanBatchBitSet(contractCreationBit, (int) this.totalBlockTxCount);
     }
 
     /**
@@ -118,7 +116,7 @@ public class SpanBatchTxs {
      * @return encoded protected bits.
      */
     public byte[] encodeProtectedBits() {
-        return SpanBatchUtils.encodeSpanBatchBits((int) this.totalLegacyTxCount, this.protectedBits);
+        return SpanBatchUtils.encodeSpanBatchBitSet((int) this.totalLegacyTxCount, this.protectedBits);
     }
 
     /**
@@ -127,7 +125,7 @@ public class SpanBatchTxs {
      * @param protectedBit encoded protected bits.
      */
     public void decodeProtectedBits(ByteBuf protectedBit) {
-        this.protectedBits = SpanBatchUtils.decodeSpanBatchBits(protectedBit, (int) this.totalLegacyTxCount);
+        this.protectedBits = SpanBatchUtils.decodeSpanBatchBitSet(protectedBit, (int) this.totalLegacyTxCount);
     }
 
     /**
@@ -139,13 +137,7 @@ public class SpanBatchTxs {
         if (contractCreationBits == null) {
             throw new RuntimeException("dev error: contract creation bits not set");
         }
-        long result = 0L;
-        for (int i = 0; i < this.totalBlockTxCount; i++) {
-            if (contractCreationBits.testBit(i)) {
-                result++;
-            }
-        }
-        return result;
+        return contractCreationBits.get(0, (int) this.totalBlockTxCount).cardinality();
     }
 
     /**
@@ -154,7 +146,7 @@ public class SpanBatchTxs {
      * @return encoded y parity bits.
      */
     public byte[] encodeYParityBits() {
-        return SpanBatchUtils.encodeSpanBatchBits((int) this.totalBlockTxCount, this.yParityBits);
+        return SpanBatchUtils.encodeSpanBatchBitSet((int) this.totalBlockTxCount, this.yParityBits);
     }
 
     /**
@@ -163,7 +155,7 @@ public class SpanBatchTxs {
      * @param yParityBit encoded y parity bits.
      */
     public void decodeYParityBits(ByteBuf yParityBit) {
-        this.yParityBits = SpanBatchUtils.decodeSpanBatchBits(yParityBit, (int) this.totalBlockTxCount);
+        this.yParityBits = SpanBatchUtils.decodeSpanBatchBitSet(yParityBit, (int) this.totalBlockTxCount);
     }
 
     /**
@@ -172,14 +164,7 @@ public class SpanBatchTxs {
      * @return the byte [ ]
      */
     public byte[] encodeTxSigsRS() {
-        ByteBuf result = PooledByteBufAllocator.DEFAULT.buffer(64 * txSigs.size());
-        for (SpanBatchSignature txSig : txSigs) {
-            byte[] rBytes = Numeric.toBytesPadded(txSig.r(), 32);
-            byte[] sBytes = Numeric.toBytesPadded(txSig.s(), 32);
-            result.writeBytes(rBytes);
-            result.writeBytes(sBytes);
-        }
-        return ByteBufUtil.getBytes(result);
+        return this.txSigsRS.clone();
     }
 
     /**
@@ -188,16 +173,10 @@ public class SpanBatchTxs {
      * @param txSigsBuffer the tx sigs buffer
      */
     public void decodeTxSigsRS(ByteBuf txSigsBuffer) {
-        List<SpanBatchSignature> txSigs = new ArrayList<>();
-        for (int i = 0; i < totalBlockTxCount; i++) {
-            var r = ByteBufUtil.getBytes(txSigsBuffer.readBytes(32));
-            var s = ByteBufUtil.getBytes(txSigsBuffer.readBytes(32));
-            BigInteger rInt = Numeric.toBigInt(r);
-            BigInteger sInt = Numeric.toBigInt(s);
-            txSigs.add(new SpanBatchSignature(BigInteger.ZERO, rInt, sInt));
-        }
-
-        this.txSigs = txSigs;
+        byte[] txSigsRS = new byte[Math.multiplyExact((int) totalBlockTxCount, SIG_RS_LENGTH)];
+        txSigsBuffer.readBytes(txSigsRS);
+        this.txSigsRS = txSigsRS;
+        this.txSigsV = new long[(int) totalBlockTxCount];
     }
 
     /**
@@ -206,11 +185,7 @@ public class SpanBatchTxs {
      * @return the byte [ ]
      */
     public byte[] encodeTxNonces() {
-        ByteBuf buffer = PooledByteBufAllocator.DEFAULT.buffer(10 * txNonces.size());
-        for (BigInteger txNonce : txNonces) {
-            SpanBatchUtils.putVarLong(txNonce.longValue(), buffer);
-        }
-        return ByteBufUtil.getBytes(buffer);
+        return encodeVarLongs(this.txNonces);
     }
 
     /**
@@ -219,13 +194,7 @@ public class SpanBatchTxs {
      * @param txNoncesBuffer the tx nonces buffer
      */
     public void decodeTxNonces(ByteBuf txNoncesBuffer) {
-        List<BigInteger> txNonces = new ArrayList<>();
-
-        for (int i = 0; i < totalBlockTxCount; i++) {
-            txNonces.add(Numeric.toBigInt(Longs.toByteArray(SpanBatchUtils.getVarLong(txNoncesBuffer))));
-        }
-
-        this.txNonces = txNonces;
+        this.txNonces = decodeVarLongs(txNoncesBuffer, (int) totalBlockTxCount);
     }
 
     /**
@@ -234,11 +203,7 @@ public class SpanBatchTxs {
      * @return the byte [ ]
      */
     public byte[] encodeTxGases() {
-        ByteBuf buffer = PooledByteBufAllocator.DEFAULT.buffer(10 * txGases.size());
-        for (BigInteger txGas : txGases) {
-            SpanBatchUtils.putVarLong(txGas.longValue(), buffer);
-        }
-        return ByteBufUtil.getBytes(buffer);
+        return encodeVarLongs(this.txGases);
     }
 
     /**
@@ -247,13 +212,7 @@ public class SpanBatchTxs {
      * @param gases the gases
      */
     public void decodeTxGases(ByteBuf gases) {
-        List<BigInteger> txNonces = new ArrayList<>();
-
-        for (int i = 0; i < totalBlockTxCount; i++) {
-            txNonces.add(Numeric.toBigInt(Longs.toByteArray(SpanBatchUtils.getVarLong(gases))));
-        }
-
-        this.txGases = txNonces;
+        this.txGases = decodeVarLongs(gases, (int) totalBlockTxCount);
     }
 
     /**
@@ -262,12 +221,7 @@ public class SpanBatchTxs {
      * @return the byte [ ]
      */
     public byte[] encodeTxTos() {
-        ByteBuf result = PooledByteBufAllocator.DEFAULT.buffer(20 * txTos.size());
-        for (String txTo : txTos) {
-            byte[] addressBytes = Numeric.hexStringToByteArray(txTo);
-            result.writeBytes(addressBytes);
-        }
-        return ByteBufUtil.getBytes(result);
+        return this.txTos.clone();
     }
 
     /**
@@ -276,13 +230,9 @@ public class SpanBatchTxs {
      * @param txTosBuffer the tx tos buffer
      */
     public void decodeTxTos(ByteBuf txTosBuffer) {
-        List<String> txTos = new ArrayList<>();
         var contractCreationCount = contractCreationCount();
-        for (int i = 0; i < totalBlockTxCount - contractCreationCount; i++) {
-            ByteBuf addressBuf = txTosBuffer.readBytes(20);
-            txTos.add(Numeric.toHexString(ByteBufUtil.getBytes(addressBuf)));
-        }
-
+        byte[] txTos = new byte[Math.multiplyExact((int) (totalBlockTxCount - contractCreationCount), ADDRESS_LENGTH)];
+        txTosBuffer.readBytes(txTos);
         this.txTos = txTos;
     }
 
@@ -292,40 +242,55 @@ public class SpanBatchTxs {
      * @return the byte [ ]
      */
     public byte[] encodeTxDatas() {
-        ByteBuf result = PooledByteBufAllocator.DEFAULT.buffer();
-        for (Bytes txData : txDatas) {
-            result.writeBytes(txData.toArrayUnsafe());
-        }
-        return ByteBufUtil.getBytes(result);
+        return Arrays.copyOf(this.txDatas, this.txDataOffsets[this.txDataOffsets.length - 1]);
     }
 
     /**
      * Decode tx datas.
      *
+     * <p>The bounds of the tx datas are read from the rlp list headers in the buffer, and then all
+     * tx datas are copied at once.
+     *
      * @param txDatasBuffer the tx datas buffer
      */
     public void decodeTxDatas(ByteBuf txDatasBuffer) {
-        List<Bytes> txDatas = new ArrayList<>();
-        List<TransactionType> txTypes = new ArrayList<>();
-
-        for (int i = 0; i < totalBlockTxCount; i++) {
-            Bytes remaining =
-                    Bytes.wrapByteBuf(txDatasBuffer, txDatasBuffer.readerIndex(), txDatasBuffer.readableBytes());
-
-            RLPInput input = new BytesValueRLPInput(remaining, false, false);
-            var tx = readTxData(input, i == totalBlockTxCount - 1);
-            Bytes txData = tx.getLeft();
-            TransactionType txType = tx.getRight();
-            txDatas.add(txData);
-            txTypes.add(txType);
-            if (txType == TransactionType.FRONTIER) {
+        final int txCount = (int) totalBlockTxCount;
+        final int[] txDataOffsets = new int[txCount + 1];
+        final TransactionType[] txTypes = new TransactionType[txCount];
+        final int start = txDatasBuffer.readerIndex();
+        final int readable = txDatasBuffer.readableBytes();
+        long totalLegacyTxCount = 0;
+        int offset = 0;
+        for (int i = 0; i < txCount; i++) {
+            int listOffset = offset;
+            if (offset >= readable) {
+                throw new RuntimeException("read error");
+            }
+            int prefix = txDatasBuffer.getUnsignedByte(start + offset);
+            if (prefix < 0xc0) {
+                txTypes[i] = typedTransactionType(prefix);
+                listOffset++;
+            } else {
+                txTypes[i] = TransactionType.FRONTIER;
                 totalLegacyTxCount++;
             }
-            txDatasBuffer.readerIndex(txDatasBuffer.readerIndex() + txData.size());
+            long listSize = rlpListSize(txDatasBuffer, start + listOffset, readable - listOffset);
+            if (listSize > SpanBatchUtils.MaxSpanBatchSize) {
+                throw new RuntimeException("tx size too large");
+            }
+            if (listSize > readable - listOffset) {
+                throw new RuntimeException("read error");
+            }
+            offset = listOffset + (int) listSize;
+            txDataOffsets[i + 1] = offset;
         }
+        byte[] txDatas = new byte[offset];
+        txDatasBuffer.readBytes(txDatas);
 
         this.txDatas = txDatas;
+        this.txDataOffsets = txDataOffsets;
         this.txTypes = txTypes;
+        this.totalLegacyTxCount = totalLegacyTxCount;
     }
 
     /**
@@ -334,7 +299,7 @@ public class SpanBatchTxs {
      * @param chainId the chain id
      */
     public void recoverV(BigInteger chainId) {
-        if (this.txTypes.size() != this.txSigs.size()) {
+        if (this.txTypes.length != this.txSigsV.length) {
             throw new RuntimeException("tx type length and tx sigs length mismatch");
         }
 
@@ -342,20 +307,19 @@ public class SpanBatchTxs {
             throw new RuntimeException("protected bits not set");
         }
 
+        final BigInteger protectedVBase = chainId.multiply(BigInteger.TWO).add(REPLAY_PROTECTED_V_BASE);
         int protectedBitsIdx = 0;
-        for (int i = 0; i < this.txTypes.size(); i++) {
-            BigInteger bit = this.yParityBits.testBit(i) ? BigInteger.ONE : BigInteger.ZERO;
-            BigInteger v;
-            switch (this.txTypes.get(i)) {
+        for (int i = 0; i < this.txTypes.length; i++) {
+            long bit = this.yParityBits.get(i) ? 1L : 0L;
+            long v;
+            switch (this.txTypes[i]) {
                 case FRONTIER:
-                    boolean isProtected = this.protectedBits.testBit(protectedBitsIdx);
+                    boolean isProtected = this.protectedBits.get(protectedBitsIdx);
                     protectedBitsIdx++;
                     if (isProtected) {
-                        v = chainId.multiply(BigInteger.TWO)
-                                .add(REPLAY_PROTECTED_V_BASE)
-                                .add(bit);
+                        v = protectedVBase.longValueExact() + bit;
                     } else {
-                        v = bit.add(REPLAY_UNPROTECTED_V_BASE);
+                        v = REPLAY_UNPROTECTED_V_BASE.longValue() + bit;
                     }
                     break;
                 case EIP1559:
@@ -363,9 +327,9 @@ public class SpanBatchTxs {
                     v = bit;
                     break;
                 default:
-                    throw new RuntimeException("invalid tx type:%s".formatted(this.txTypes.get(i)));
+                    throw new RuntimeException("invalid tx type:%s".formatted(this.txTypes[i]));
             }
-            this.txSigs.get(i).setV(v);
+            this.txSigsV[i] = v;
         }
     }
 
@@ -410,24 +374,25 @@ public class SpanBatchTxs {
      * @return the list
      */
     public List<byte[]> fullTxs(BigInteger chainId) {
-        List<byte[]> fullTxs = new ArrayList<>();
+        List<byte[]> fullTxs = new ArrayList<>((int) this.totalBlockTxCount);
         int toIdx = 0;
+        final int txToCount = this.txTos.length / ADDRESS_LENGTH;
         for (int i = 0; i < this.totalBlockTxCount; i++) {
-            SpanBatchTx spanBatchTx =
-                    SpanBatchTx.unmarshalBinary(this.txDatas.get(i).toArrayUnsafe());
-            BigInteger nonce = this.txNonces.get(i);
-            BigInteger gas = this.txGases.get(i);
+            SpanBatchTx spanBatchTx = SpanBatchTx.unmarshalBinary(
+                    Arrays.copyOfRange(this.txDatas, this.txDataOffsets[i], this.txDataOffsets[i + 1]));
+            BigInteger nonce = unsignedBigInteger(this.txNonces[i]);
+            BigInteger gas = unsignedBigInteger(this.txGases[i]);
             String to = null;
-            if (!this.contractCreationBits.testBit(i)) {
-                if (this.txTos.size() <= toIdx) {
+            if (!this.contractCreationBits.get(i)) {
+                if (txToCount <= toIdx) {
                     throw new RuntimeException("tx to not enough");
                 }
-                to = this.txTos.get(toIdx);
+                to = Numeric.toHexString(this.txTos, toIdx * ADDRESS_LENGTH, ADDRESS_LENGTH, true);
                 toIdx++;
             }
-            BigInteger v = this.txSigs.get(i).v();
-            BigInteger r = this.txSigs.get(i).r();
-            BigInteger s = this.txSigs.get(i).s();
+            BigInteger v = BigInteger.valueOf(this.txSigsV[i]);
+            BigInteger r = new BigInteger(1, this.txSigsRS, i * SIG_RS_LENGTH, SIG_SCALAR_LENGTH);
+            BigInteger s = new BigInteger(1, this.txSigsRS, i * SIG_RS_LENGTH + SIG_SCALAR_LENGTH, SIG_SCALAR_LENGTH);
             Transaction tx = spanBatchTx.convertToFullTx(nonce, gas, to, chainId, v, r, s);
             Bytes txBytes = TransactionEncoder.encodeOpaqueBytes(tx, EncodingContext.BLOCK_BODY);
             fullTxs.add(txBytes.toArrayUnsafe());
@@ -443,27 +408,26 @@ public class SpanBatchTxs {
      * @return the span batch txs
      */
     public static SpanBatchTxs newSpanBatchTxs(List<byte[]> txs, BigInteger chainId) {
-        long totalBlockTxCount = txs.size();
-        BigInteger contractCreationBits = BigInteger.ZERO;
-        BigInteger yParityBits = BigInteger.ZERO;
-        BigInteger protectedBits = BigInteger.ZERO;
-        List<SpanBatchSignature> txSigs = new ArrayList<>();
-        List<String> txTos = new ArrayList<>();
-        List<BigInteger> txNonces = new ArrayList<>();
-        List<BigInteger> txGases = new ArrayList<>();
-        List<Bytes> txDatas = new ArrayList<>();
-        List<TransactionType> txTypes = new ArrayList<>();
-        long totalLegacyTxCount = 0;
+        final int totalBlockTxCount = txs.size();
+        BitSet contractCreationBits = new BitSet(totalBlockTxCount);
+        BitSet yParityBits = new BitSet(totalBlockTxCount);
+        BitSet protectedBits = new BitSet();
+        long[] txSigsV = new long[totalBlockTxCount];
+        byte[] txSigsRS = new byte[totalBlockTxCount * SIG_RS_LENGTH];
+        byte[] txTos = new byte[totalBlockTxCount * ADDRESS_LENGTH];
+        long[] txNonces = new long[totalBlockTxCount];
+        long[] txGases = new long[totalBlockTxCount];
+        byte[][] stxDatas = new byte[totalBlockTxCount][];
+        int[] txDataOffsets = new int[totalBlockTxCount + 1];
+        TransactionType[] txTypes = new TransactionType[totalBlockTxCount];
+        int totalLegacyTxCount = 0;
+        int txToCount = 0;
         for (int idx = 0; idx < totalBlockTxCount; idx++) {
             byte[] tx = txs.get(idx);
             Bytes txnBytes = Bytes.wrap(tx);
             Transaction rawTransaction = TransactionDecoder.decodeOpaqueBytes(txnBytes, EncodingContext.BLOCK_BODY);
             if (rawTransaction.getType() == TransactionType.FRONTIER) {
-                if (rawTransaction.getChainId().isPresent()) {
-                    protectedBits = protectedBits.setBit((int) totalLegacyTxCount);
-                } else {
-                    protectedBits = protectedBits.clearBit((int) totalLegacyTxCount);
-                }
+                protectedBits.set(totalLegacyTxCount, rawTransaction.getChainId().isPresent());
                 totalLegacyTxCount++;
             }
             if (rawTransaction.getChainId().isPresent()
@@ -472,43 +436,61 @@ public class SpanBatchTxs {
                         .formatted(rawTransaction.getChainId().get(), chainId, chainId));
             }
 
-            SpanBatchSignature txSig = new SpanBatchSignature(
-                    rawTransaction.getType() == TransactionType.FRONTIER
+            txSigsV[idx] = (rawTransaction.getType() == TransactionType.FRONTIER
                             ? rawTransaction.getV()
-                            : rawTransaction.getYParity(),
-                    rawTransaction.getR(),
-                    rawTransaction.getS());
-            txSigs.add(txSig);
+                            : rawTransaction.getYParity())
+                    .longValueExact();
+            System.arraycopy(
+                    Numeric.toBytesPadded(rawTransaction.getR(), SIG_SCALAR_LENGTH),
+                    0,
+                    txSigsRS,
+                    idx * SIG_RS_LENGTH,
+                    SIG_SCALAR_LENGTH);
+            System.arraycopy(
+                    Numeric.toBytesPadded(rawTransaction.getS(), SIG_SCALAR_LENGTH),
+                    0,
+                    txSigsRS,
+                    idx * SIG_RS_LENGTH + SIG_SCALAR_LENGTH,
+                    SIG_SCALAR_LENGTH);
             if (rawTransaction.getTo().isPresent()) {
-                txTos.add(rawTransaction.getTo().get().toHexString());
-                contractCreationBits = contractCreationBits.clearBit(idx);
+                System.arraycopy(
+                        rawTransaction.getTo().get().toArrayUnsafe(),
+                        0,
+                        txTos,
+                        txToCount * ADDRESS_LENGTH,
+                        ADDRESS_LENGTH);
+                txToCount++;
             } else {
-                contractCreationBits = contractCreationBits.setBit(idx);
+                contractCreationBits.set(idx);
             }
             BigInteger yParityBit = convertVToYParity(rawTransaction);
             if (yParityBit.equals(BigInteger.ONE)) {
-                yParityBits = yParityBits.setBit(idx);
-            } else if (yParityBit.equals(BigInteger.ZERO)) {
-                yParityBits = yParityBits.clearBit(idx);
-            } else {
+                yParityBits.set(idx);
+            } else if (!yParityBit.equals(BigInteger.ZERO)) {
                 throw new RuntimeException("invalid y parity bit:%d".formatted(yParityBit));
             }
-            txNonces.add(Numeric.toBigInt(Longs.toByteArray(rawTransaction.getNonce())));
-            txGases.add(Numeric.toBigInt(Longs.toByteArray(rawTransaction.getGasLimit())));
+            txNonces[idx] = rawTransaction.getNonce();
+            txGases[idx] = rawTransaction.getGasLimit();
             SpanBatchTx stx = SpanBatchTx.newSpanBatchTx(rawTransaction);
-            byte[] stxByte = stx.marshalBinary();
-            txDatas.add(Bytes.wrap(stxByte));
-            txTypes.add(rawTransaction.getType());
+            stxDatas[idx] = stx.marshalBinary();
+            txDataOffsets[idx + 1] = Math.addExact(txDataOffsets[idx], stxDatas[idx].length);
+            txTypes[idx] = rawTransaction.getType();
+        }
+        byte[] txDatas = new byte[txDataOffsets[totalBlockTxCount]];
+        for (int idx = 0; idx < totalBlockTxCount; idx++) {
+            System.arraycopy(stxDatas[idx], 0, txDatas, txDataOffsets[idx], stxDatas[idx].length);
         }
         return new SpanBatchTxs(
                 totalBlockTxCount,
                 contractCreationBits,
                 yParityBits,
-                txSigs,
+                txSigsV,
+                txSigsRS,
                 txNonces,
                 txGases,
-                txTos,
+                Arrays.copyOf(txTos, txToCount * ADDRESS_LENGTH),
                 txDatas,
+                txDataOffsets,
                 txTypes,
                 totalLegacyTxCount,
                 protectedBits);
@@ -519,7 +501,7 @@ public class SpanBatchTxs {
      *
      * @return the contract creation bits
      */
-    public BigInteger getContractCreationBits() {
+    public BitSet getContractCreationBits() {
         return contractCreationBits;
     }
 
@@ -528,7 +510,7 @@ public class SpanBatchTxs {
      *
      * @param contractCreationBits the contract creation bits
      */
-    public void setContractCreationBits(BigInteger contractCreationBits) {
+    public void setContractCreationBits(BitSet contractCreationBits) {
         this.contractCreationBits = contractCreationBits;
     }
 
@@ -537,116 +519,74 @@ public class SpanBatchTxs {
      *
      * @return the parity bits
      */
-    public BigInteger getyParityBits() {
+    public BitSet getyParityBits() {
         return yParityBits;
     }
 
     /**
-     * Sets parity bits.
-     *
-     * @param yParityBits the y parity bits
-     */
-    public void setyParityBits(BigInteger yParityBits) {
-        this.yParityBits = yParityBits;
-    }
-
-    /**
-     * Gets tx sigs.
+     * Gets tx sigs, the signatures are created from the v, r and s columns.
      *
      * @return the tx sigs
      */
     public List<SpanBatchSignature> getTxSigs() {
+        List<SpanBatchSignature> txSigs = new ArrayList<>(this.txSigsV.length);
+        for (int i = 0; i < this.txSigsV.length; i++) {
+            txSigs.add(new SpanBatchSignature(
+                    BigInteger.valueOf(this.txSigsV[i]),
+                    new BigInteger(1, this.txSigsRS, i * SIG_RS_LENGTH, SIG_SCALAR_LENGTH),
+                    new BigInteger(1, this.txSigsRS, i * SIG_RS_LENGTH + SIG_SCALAR_LENGTH, SIG_SCALAR_LENGTH)));
+        }
         return txSigs;
     }
 
-    /**
-     * Sets tx sigs.
-     *
-     * @param txSigs the tx sigs
-     */
-    public void setTxSigs(List<SpanBatchSignature> txSigs) {
-        this.txSigs = txSigs;
-    }
-
     /**
      * Gets tx nonces.
      *
      * @return the tx nonces
      */
-    public List<BigInteger> getTxNonces() {
+    public long[] getTxNonces() {
         return txNonces;
     }
 
-    /**
-     * Sets tx nonces.
-     *
-     * @param txNonces the tx nonces
-     */
-    public void setTxNonces(List<BigInteger> txNonces) {
-        this.txNonces = txNonces;
-    }
-
     /**
      * Gets tx gases.
      *
      * @return the tx gases
      */
-    public List<BigInteger> getTxGases() {
+    public long[] getTxGases() {
         return txGases;
     }
 
     /**
-     * Sets tx gases.
-     *
-     * @param txGases the tx gases
-     */
-    public void setTxGases(List<BigInteger> txGases) {
-        this.txGases = txGases;
-    }
-
-    /**
-     * Gets tx tos.
+     * Gets tx tos, the 20 bytes addresses of the txs are packed in order.
      *
      * @return the tx tos
      */
-    public List<String> getTxTos() {
+    public byte[] getTxTos() {
         return txTos;
     }
 
-    /**
-     * Sets tx tos.
-     *
-     * @param txTos the tx tos
-     */
-    public void setTxTos(List<String> txTos) {
-        this.txTos = txTos;
-    }
-
     /**
      * Gets tx datas.
      *
      * @return the tx datas
      */
     public List<Bytes> getTxDatas() {
+        List<Bytes> txDatas = new ArrayList<>(this.txDataOffsets.length - 1);
+        for (int i = 0; i < this.txDataOffsets.length - 1; i++) {
+            txDatas.add(Bytes.wrap(
+                    this.txDatas, this.txDataOffsets[i], this.txDataOffsets[i + 1] - this.txDataOffsets[i]));
+        }
         return txDatas;
     }
 
-    /**
-     * Sets tx datas.
-     *
-     * @param txDatas the tx datas
-     */
-    public void setTxDatas(List<Bytes> txDatas) {
-        this.txDatas = txDatas;
-    }
-
     /**
      * Gets tx types.
      *
      * @return the tx types
      */
     public List<TransactionType> getTxTypes() {
-        return txTypes;
+        return Arrays.asList(txTypes);
     }
 
     /**
@@ -655,7 +595,7 @@ public class SpanBatchTxs {
      * @param txTypes the tx types
      */
     public void setTxTypes(List<TransactionType> txTypes) {
-        this.txTypes = txTypes;
+        this.txTypes = txTypes.toArray(new TransactionType[0]);
     }
 
     /**
@@ -681,7 +621,7 @@ public class SpanBatchTxs {
      *
      * @return the protected bits
      */
-    public BigInteger getProtectedBits() {
+    public BitSet getProtectedBits() {
         return protectedBits;
     }
 
@@ -725,83 +665,70 @@ public class SpanBatchTxs {
         }
     }
 
-    /**
-     * Read tx data pair.
-     *
-     * @param input  the input
-     * @param isLast the is last
-     * @return the pair
-     */
-    public static Pair<Bytes, TransactionType> readTxData(RLPInput input, boolean isLast) {
-        if (isTypedTransaction(input)) {
-            final Bytes typedTransactionBytes = input.readBytes();
-            Bytes txBytes = isLast ? lastCurrentListAsBytes(input) : input.currentListAsBytes();
-            if (txBytes.size() > SpanBatchUtils.MaxSpanBatchSize) {
-                throw new RuntimeException("tx size too large");
-            }
-            var transactionType = getTransactionType(typedTransactionBytes).orElseThrow();
-            return Pair.of(Bytes.concatenate(typedTransactionBytes, txBytes), transactionType);
-        } else {
-            Bytes bytes = isLast ? lastCurrentListAsBytes(input) : input.currentListAsBytes();
-            if (bytes.size() > SpanBatchUtils.MaxSpanBatchSize) {
-                throw new RuntimeException("tx size too large");
-            }
-            return Pair.of(bytes, TransactionType.FRONTIER);
+    private static TransactionType typedTransactionType(int typeByte) {
+        // a typed transaction starts with a value in the range [0, 0x7f]
+        if (typeByte > 0x7f) {
+            throw new RuntimeException("invalid tx type:%d".formatted(typeByte));
+        }
+        try {
+            return TransactionType.of(typeByte);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("invalid tx type:%d".formatted(typeByte));
         }
     }
 
     /**
-     * Last current list as bytes.
+     * Gets the size of the rlp list at the index of the buffer, including the list header.
      *
-     * @param input the input
-     * @return the bytes
+     * @param buffer    the buffer
+     * @param index     the index of the list header
+     * @param available the bytes available from the index
+     * @return the size of the list
      */
-    private static Bytes lastCurrentListAsBytes(RLPInput input) {
-        if (!input.nextIsList()) {
+    private static long rlpListSize(ByteBuf buffer, int index, int available) {
+        if (available < 1) {
+            throw new RuntimeException("read error");
+        }
+        int prefix = buffer.getUnsignedByte(index);
+        if (prefix < 0xc0) {
             throw new RuntimeException("Cannot read list, current item is not a list list");
         }
-
-        var currentPayloadSize = input.nextSize();
-        var currentOffset = input.nextOffset();
-        final MutableBytes scratch = MutableBytes.create(currentPayloadSize + 10);
-        final int headerSize = RLPEncodingHelpers.writeListHeader(currentPayloadSize, scratch, 0);
-        input.raw().slice(currentOffset, currentPayloadSize).copyTo(scratch, headerSize);
-
-        return scratch.slice(0, currentPayloadSize + headerSize);
+        if (prefix <= 0xf7) {
+            return 1L + prefix - 0xc0;
+        }
+        int lengthSize = prefix - 0xf7;
+        if (available < 1 + lengthSize) {
+            throw new RuntimeException("read error");
+        }
+        long payloadSize = 0L;
+        for (int i = 1; i <= lengthSize; i++) {
+            payloadSize = (payloadSize << 8) | buffer.getUnsignedByte(index + i);
+            if (payloadSize > SpanBatchUtils.MaxSpanBatchSize) {
+                throw new RuntimeException("tx size too large");
+            }
+        }
+        return 1L + lengthSize + payloadSize;
     }
 
-    /**
-     * Checks if the given RLP input is a typed transaction.
-     *
-     * <p>See EIP-2718
-     *
-     * <p>If it starts with a value in the range [0, 0x7f] then it is a new transaction type
-     *
-     * <p>if it starts with a value in the range [0xc0, 0xfe] then it is a legacy transaction type
-     *
-     * @param rlpInput the RLP input
-     * @return true if the RLP input is a typed transaction, false otherwise
-     */
-    private static boolean isTypedTransaction(final RLPInput rlpInput) {
-        return !rlpInput.nextIsList();
+    private static byte[] encodeVarLongs(long[] values) {
+        ByteBuf buffer = PooledByteBufAllocator.DEFAULT.buffer(10 * values.length);
+        for (long value : values) {
+            SpanBatchUtils.putVarLong(value, buffer);
+        }
+        return ByteBufUtil.getBytes(buffer);
     }
 
-    /**
-     * Retrieves the transaction type from the provided bytes. The method attempts to extract the
-     * first byte from the input bytes and interpret it as a transaction type. If the byte does not
-     * correspond to a valid transaction type, the method returns an empty Optional.
-     *
-     * @param opaqueBytes the bytes from which to extract the transaction type
-     * @return an Optional containing the TransactionType if the first byte of the input corresponds
-     * to a valid transaction type, or an empty Optional if it does not
-     */
-    private static Optional<TransactionType> getTransactionType(final Bytes opaqueBytes) {
-        try {
-            byte transactionTypeByte = opaqueBytes.get(0);
-            return Optional.of(TransactionType.of(transactionTypeByte));
-        } catch (IllegalArgumentException ex) {
-            return Optional.empty();
+    private static long[] decodeVarLongs(ByteBuf buffer, int count) {
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = SpanBatchUtils.getVarLong(buffer);
         }
+        return values;
+    }
+
+    private static BigInteger unsignedBigInteger(long value) {
+        BigInteger result = BigInteger.valueOf(value);
+        return value >= 0 ? result : result.add(TWO_POW_64);
     }
 
     @Override
@@ -812,28 +739,29 @@ public class SpanBatchTxs {
                 && totalLegacyTxCount == txs.totalLegacyTxCount
                 && Objects.equals(contractCreationBits, txs.contractCreationBits)
                 && Objects.equals(yParityBits, txs.yParityBits)
-                && Objects.equals(txSigs, txs.txSigs)
-                && Objects.equals(txNonces, txs.txNonces)
-                && Objects.equals(txGases, txs.txGases)
-                && Objects.equals(txTos, txs.txTos)
-                && Objects.equals(txDatas, txs.txDatas)
-                && Objects.equals(txTypes, txs.txTypes)
+                && Arrays.equals(txSigsV, txs.txSigsV)
+                && Arrays.equals(txSigsRS, txs.txSigsRS)
+                && Arrays.equals(txNonces, txs.txNonces)
+                && Arrays.equals(txGases, txs.txGases)
+                && Arrays.equals(txTos, txs.txTos)
+                && Arrays.equals(txDatas, txs.txDatas)
+                && Arrays.equals(txDataOffsets, txs.txDataOffsets)
+                && Arrays.equals(txTypes, txs.txTypes)
                 && Objects.equals(protectedBits, txs.protectedBits);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(
-                totalBlockTxCount,
-                contractCreationBits,
-                yParityBits,
-                txSigs,
-                txNonces,
-                txGases,
-                txTos,
-                txDatas,
-                txTypes,
-                totalLegacyTxCount,
-                protectedBits);
+        int result = Objects.hash(
+                totalBlockTxCount, contractCreationBits, yParityBits, totalLegacyTxCount, protectedBits);
+        result = 31 * result + Arrays.hashCode(txSigsV);
+        result = 31 * result + Arrays.hashCode(txSigsRS);
+        result = 31 * result + Arrays.hashCode(txNonces);
+        result = 31 * result + Arrays.hashCode(txGases);
+        result = 31 * result + Arrays.hashCode(txTos);
+        result = 31 * result + Arrays.hashCode(txDatas);
+        result = 31 * result + Arrays.hashCode(txDataOffsets);
+        result = 31 * result + Arrays.hashCode(txTypes);
+        return result;
     }
 }
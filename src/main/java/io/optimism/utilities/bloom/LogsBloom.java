@@ -0,0 +1,71 @@
+package io.optimism.utilities.bloom;
+
+import org.web3j.crypto.Hash;
+import org.web3j.utils.Numeric;
+
+/**
+ * The logs bloom filter of a block header.
+ *
+ * <p>Every log address and log topic of a block sets three of the 2048 bits of the bloom. A log
+ * can only be in the block if the bits of both its address and its topic are set, so a block whose
+ * bloom misses any of them can be skipped without fetching its logs or receipts.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+public final class LogsBloom {
+
+    /** The size of the logs bloom in bytes. */
+    public static final int BYTES = 256;
+
+    private static final int BITS_MASK = BYTES * 8 - 1;
+
+    /**
+     * Instantiates a new logs bloom.
+     */
+    private LogsBloom() {}
+
+    /**
+     * Check if the block of the logs bloom may contain a log of the address with the first topic.
+     *
+     * @param logsBloom the hex logs bloom of the block header
+     * @param address the log address
+     * @param topic the first log topic
+     * @return false if the block does not contain such a log, true if it may contain it, or if the
+     *     logs bloom is missing or malformed
+     */
+    public static boolean mayContain(String logsBloom, String address, String topic) {
+        if (logsBloom == null || address == null || topic == null) {
+            return true;
+        }
+        final byte[] bloom;
+        try {
+            bloom = Numeric.hexStringToByteArray(logsBloom);
+        } catch (RuntimeException e) {
+            return true;
+        }
+        if (bloom.length != BYTES) {
+            return true;
+        }
+        return contains(bloom, Numeric.hexStringToByteArray(address))
+                && contains(bloom, Numeric.hexStringToByteArray(topic));
+    }
+
+    /**
+     * Check if the bits of the value are set in the logs bloom.
+     *
+     * @param bloom the logs bloom
+     * @param value the log address or log topic
+     * @return true if all the bits of the value are set
+     */
+    public static boolean contains(byte[] bloom, byte[] value) {
+        final byte[] hash = Hash.sha3(value);
+        for (int i = 0; i < 6; i += 2) {
+            int bit = (((hash[i] & 0xff) << 8) | (hash[i + 1] & 0xff)) & BITS_MASK;
+            if ((bloom[BYTES - 1 - bit / 8] & (1 << (bit % 8))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
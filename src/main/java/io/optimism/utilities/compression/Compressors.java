@@ -1,14 +1,17 @@
 package io.optimism.utilities.compression;
 
 import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.decoder.BrotliInputStream;
 import com.aayushatharva.brotli4j.decoder.Decoder;
 import com.aayushatharva.brotli4j.decoder.DecoderJNI;
 import com.aayushatharva.brotli4j.decoder.DirectDecompress;
 import com.aayushatharva.brotli4j.encoder.Encoder;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.zip.DataFormatException;
 import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 /**
  * The type Compressors.
@@ -70,6 +73,27 @@ public class Compressors {
         }
     }
 
+    /**
+     * Brotli decompress the stream, the data is decompressed as it is read.
+     *
+     * @param in the compressed stream
+     * @return the decompressed stream
+     * @throws IOException the io exception
+     */
+    public static InputStream brotliInputStream(InputStream in) throws IOException {
+        return new BrotliInputStream(in);
+    }
+
+    /**
+     * Zlib decompress the stream, the data is decompressed as it is read.
+     *
+     * @param in the compressed stream
+     * @return the decompressed stream
+     */
+    public static InputStream zlibInputStream(InputStream in) {
+        return new InflaterInputStream(in);
+    }
+
     /**
      * Zlib decompress byte [ ].
      *
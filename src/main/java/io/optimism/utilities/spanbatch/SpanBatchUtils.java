@@ -2,6 +2,7 @@ package io.optimism.utilities.spanbatch;
 
 import io.netty.buffer.ByteBuf;
 import java.math.BigInteger;
+import java.util.BitSet;
 import org.web3j.utils.Numeric;
 
 /**
@@ -73,6 +74,67 @@ public class SpanBatchUtils {
         return Numeric.toBytesPadded(bits, bufLen);
     }
 
+    /**
+     * Decode span batch bits into a bit set, the bit i of the bit set is the bit i of the big-endian
+     * bitlist.
+     *
+     * @param source    the source
+     * @param bitLength the bit length
+     * @return the bit set
+     */
+    public static BitSet decodeSpanBatchBitSet(ByteBuf source, int bitLength) {
+        final int bufLen = bitsBufLen(bitLength);
+        if (source.readableBytes() < bufLen) {
+            throw new RuntimeException("read error");
+        }
+        final long[] words = new long[(bufLen + Long.BYTES - 1) / Long.BYTES];
+        final int start = source.readerIndex();
+        for (int i = 0; i < bufLen; i++) {
+            // the last byte of the bitlist holds the bits 0 to 7
+            final int byteIndex = bufLen - 1 - i;
+            words[byteIndex / Long.BYTES] |= (source.getByte(start + i) & 0xFFL) << (byteIndex % Long.BYTES * 8);
+        }
+        source.readerIndex(start + bufLen);
+        final BitSet bits = BitSet.valueOf(words);
+        if (bits.length() > bitLength) {
+            throw new RuntimeException("invalid bit length");
+        }
+        return bits;
+    }
+
+    /**
+     * Encode the bit set into span batch bits.
+     *
+     * @param bitLength the bit length
+     * @param bits      the bits
+     * @return the byte [ ]
+     */
+    public static byte[] encodeSpanBatchBitSet(int bitLength, BitSet bits) {
+        if (bits.length() > bitLength) {
+            throw new RuntimeException(
+                    "bitfield is larger than bitLength: %d > %d".formatted(bits.length(), bitLength));
+        }
+        final int bufLen = bitsBufLen(bitLength);
+        final byte[] buf = new byte[bufLen];
+        final long[] words = bits.toLongArray();
+        final int byteCount = Math.min(bufLen, words.length * Long.BYTES);
+        for (int byteIndex = 0; byteIndex < byteCount; byteIndex++) {
+            buf[bufLen - 1 - byteIndex] = (byte) (words[byteIndex / Long.BYTES] >>> (byteIndex % Long.BYTES * 8));
+        }
+        return buf;
+    }
+
+    private static int bitsBufLen(int bitLength) {
+        var bufLen = bitLength / 8;
+        if (bitLength % 8 != 0) {
+            bufLen++;
+        }
+        if (bufLen > MaxSpanBatchSize) {
+            throw new RuntimeException("span batch size limit reached");
+        }
+        return bufLen;
+    }
+
     /**
      * Reads an up to 64 bit long varint from the current position of the
      * given ByteBuffer and returns the decoded value as long.
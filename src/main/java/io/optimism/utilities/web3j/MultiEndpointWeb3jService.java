@@ -0,0 +1,275 @@
+package io.optimism.utilities.web3j;
+
+import io.reactivex.Flowable;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.websocket.events.Notification;
+import org.web3j.utils.Async;
+
+/**
+ * A Web3jService that sends requests to several endpoints of the same chain.
+ *
+ * <p>Every endpoint tracks an EWMA of its request latency and of its error rate, and a request is
+ * sent to the healthiest endpoint first. When a read fails, the next endpoint is requested. With a
+ * hedge delay, a read that has not been answered in time is also sent to the next endpoint
+ * concurrently, and the first answer wins. A write or a filter request is only sent to the first
+ * endpoint of the urls, as a failed write may still have been accepted by the endpoint.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+public class MultiEndpointWeb3jService implements Web3jService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultiEndpointWeb3jService.class);
+
+    private static final double EWMA_ALPHA = 0.2;
+
+    // a failed request counts at least this long, so a failing endpoint is not the fastest one
+    private static final double FAILED_REQUEST_LATENCY_MILLIS = 10_000.0;
+
+    // the score of an endpoint that always fails is this many times its latency
+    private static final double ERROR_RATE_PENALTY = 10.0;
+
+    private final List<Endpoint> endpoints;
+
+    private final Duration hedgeDelay;
+
+    /**
+     * the MultiEndpointWeb3jService constructor.
+     *
+     * @param urls the urls of the endpoints
+     * @param services the services of the endpoints, in the order of the urls
+     * @param hedgeDelay the time to wait for a read before the next endpoint is requested
+     *     concurrently, the next endpoint is only requested on errors if null
+     */
+    public MultiEndpointWeb3jService(List<String> urls, List<? extends Web3jService> services, Duration hedgeDelay) {
+        if (services.isEmpty() || urls.size() != services.size()) {
+            throw new IllegalArgumentException("expected one service for each of the urls: %s".formatted(urls));
+        }
+        this.endpoints = new ArrayList<>(services.size());
+        for (int i = 0; i < services.size(); i++) {
+            this.endpoints.add(new Endpoint(urls.get(i), services.get(i)));
+        }
+        this.hedgeDelay = hedgeDelay == null || hedgeDelay.isZero() || hedgeDelay.isNegative() ? null : hedgeDelay;
+    }
+
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        return this.call(
+                isIdempotent(request.getMethod()),
+                request.getMethod(),
+                service -> service.send(request, responseType));
+    }
+
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(Request request, Class<T> responseType) {
+        return Async.run(() -> this.send(request, responseType));
+    }
+
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        boolean idempotent = batchRequest.getRequests().stream()
+                .allMatch(request -> isIdempotent(request.getMethod()));
+        return this.call(idempotent, "batch", service -> service.sendBatch(batchRequest));
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        return Async.run(() -> this.sendBatch(batchRequest));
+    }
+
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(
+            Request request, String unsubscribeMethod, Class<T> responseType) {
+        return this.ranked().getFirst().service.subscribe(request, unsubscribeMethod, responseType);
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Endpoint endpoint : this.endpoints) {
+            try {
+                endpoint.service.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private <T> T call(boolean idempotent, String method, ServiceCall<T> serviceCall) throws IOException {
+        if (!idempotent) {
+            // neither failed over nor hedged, the failed write may still have been accepted
+            return this.endpoints.getFirst().call(serviceCall);
+        }
+        final List<Endpoint> ranked = this.ranked();
+        if (ranked.size() == 1) {
+            return ranked.getFirst().call(serviceCall);
+        }
+        if (this.hedgeDelay == null) {
+            IOException failure = null;
+            for (Endpoint endpoint : ranked) {
+                try {
+                    return endpoint.call(serviceCall);
+                } catch (IOException e) {
+                    LOGGER.warn("request to l1 rpc failed, try the next one: method={}, url={}", method, endpoint.url);
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            throw failure;
+        }
+        try (var scope = new FirstResultScope<T>()) {
+            for (int i = 0; i < ranked.size(); i++) {
+                final Endpoint endpoint = ranked.get(i);
+                scope.fork(() -> endpoint.call(serviceCall));
+                if (i == ranked.size() - 1) {
+                    scope.join();
+                } else {
+                    try {
+                        scope.joinUntil(Instant.now().plus(this.hedgeDelay));
+                    } catch (TimeoutException e) {
+                        LOGGER.debug("request to l1 rpc is slow, hedge with the next one: method={}", method);
+                    }
+                }
+                if (scope.hasResult()) {
+                    return scope.result();
+                }
+            }
+            throw scope.failure();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while requesting l1 rpc: method=%s".formatted(method), e);
+        }
+    }
+
+    private List<Endpoint> ranked() {
+        List<Endpoint> ranked = new ArrayList<>(this.endpoints);
+        ranked.sort(Comparator.comparingDouble(Endpoint::score));
+        return ranked;
+    }
+
+    private static boolean isIdempotent(String method) {
+        // a read can be sent twice, a write or a filter must only be sent to one endpoint
+        return method != null
+                && !method.startsWith("eth_send")
+                && !method.contains("Filter")
+                && !method.endsWith("subscribe");
+    }
+
+    @FunctionalInterface
+    private interface ServiceCall<T> {
+        T call(Web3jService service) throws IOException;
+    }
+
+    /** An endpoint that requests are sent to. */
+    private static final class Endpoint {
+
+        private final String url;
+
+        private final Web3jService service;
+
+        private volatile double latencyMillis;
+
+        private volatile double errorRate;
+
+        private Endpoint(String url, Web3jService service) {
+            this.url = url;
+            this.service = service;
+        }
+
+        private double score() {
+            return this.latencyMillis * (1.0 + ERROR_RATE_PENALTY * this.errorRate);
+        }
+
+        private <T> T call(ServiceCall<T> serviceCall) throws IOException {
+            final long start = System.nanoTime();
+            boolean success = false;
+            try {
+                T result = serviceCall.call(this.service);
+                success = true;
+                return result;
+            } finally {
+                // a request cancelled by a faster endpoint still took at least the elapsed time
+                this.record(System.nanoTime() - start, success || Thread.currentThread().isInterrupted());
+            }
+        }
+
+        private synchronized void record(long nanos, boolean success) {
+            double millis = nanos / 1_000_000.0;
+            if (!success) {
+                millis = Math.max(millis, FAILED_REQUEST_LATENCY_MILLIS);
+            }
+            double last = this.latencyMillis;
+            this.latencyMillis = last == 0 ? millis : last + EWMA_ALPHA * (millis - last);
+            this.errorRate += EWMA_ALPHA * ((success ? 0.0 : 1.0) - this.errorRate);
+        }
+    }
+
+    /** Takes the first result returned by a subtask, the other subtasks are cancelled. */
+    private static final class FirstResultScope<T> extends StructuredTaskScope<T> {
+
+        private volatile boolean hasResult;
+
+        private volatile T result;
+
+        private volatile IOException failure;
+
+        @Override
+        protected void handleComplete(Subtask<? extends T> subtask) {
+            if (subtask.state() == Subtask.State.FAILED) {
+                synchronized (this) {
+                    Throwable e = subtask.exception();
+                    IOException ex = e instanceof IOException io ? io : new IOException(e);
+                    if (this.failure == null) {
+                        this.failure = ex;
+                    } else {
+                        this.failure.addSuppressed(ex);
+                    }
+                }
+                return;
+            }
+            if (subtask.state() != Subtask.State.SUCCESS) {
+                return;
+            }
+            synchronized (this) {
+                if (!this.hasResult) {
+                    this.result = subtask.get();
+                    this.hasResult = true;
+                }
+            }
+            this.shutdown();
+        }
+
+        private boolean hasResult() {
+            return this.hasResult;
+        }
+
+        private T result() {
+            return this.result;
+        }
+
+        private IOException failure() {
+            return this.failure != null ? this.failure : new IOException("no l1 rpc answered the request");
+        }
+    }
+}
@@ -4,6 +4,9 @@ import ch.qos.logback.classic.Level;
 import io.optimism.rpc.HttpClientProvider;
 import io.optimism.rpc.RetryRateLimitInterceptor;
 import java.net.ConnectException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.Consumer;
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
@@ -47,6 +50,34 @@ public class Web3jProvider {
      * @return web3j client and web3j service
      */
     public static Tuple2<Web3j, Web3jService> create(String url) {
+        Web3jService web3Srv = createService(url);
+        return new Tuple2<>(Web3j.build(web3Srv), web3Srv);
+    }
+
+    /**
+     * Create web3j client of several urls of the same chain, and return Web3jService. Requests are sent to
+     * the healthiest url first, see {@link MultiEndpointWeb3jService}.
+     *
+     * @param urls ethereum/optimism client node urls, separated by comma
+     * @param hedgeDelay the time to wait for a read before the next url is requested concurrently,
+     *     the next url is only requested on errors if null
+     * @return web3j client and web3j service
+     */
+    public static Tuple2<Web3j, Web3jService> create(String urls, Duration hedgeDelay) {
+        List<String> urlList = Arrays.stream(urls.split(","))
+                .map(String::trim)
+                .filter(StringUtils::isNotEmpty)
+                .toList();
+        if (urlList.size() <= 1) {
+            return create(urlList.isEmpty() ? urls : urlList.getFirst());
+        }
+        List<Web3jService> services =
+                urlList.stream().map(Web3jProvider::createService).toList();
+        Web3jService web3Srv = new MultiEndpointWeb3jService(urlList, services, hedgeDelay);
+        return new Tuple2<>(Web3j.build(web3Srv), web3Srv);
+    }
+
+    private static Web3jService createService(String url) {
         Web3jService web3Srv;
         if (Web3jProvider.isHttp(url)) {
             var okHttpClientBuilder = new OkHttpClient.Builder();
@@ -71,7 +102,7 @@ public class Web3jProvider {
         } else {
             throw new IllegalArgumentException("not supported scheme:%s".formatted(url));
         }
-        return new Tuple2<>(Web3j.build(web3Srv), web3Srv);
+        return web3Srv;
     }
 
     private static void wsConnect(final WebSocketService wss) {
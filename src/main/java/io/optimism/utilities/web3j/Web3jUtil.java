@@ -1,11 +1,15 @@
 package io.optimism.utilities.web3j;
 
+import com.google.common.collect.Lists;
 import io.optimism.exceptions.Web3jCallException;
 import io.optimism.rpc.response.OpEthBlock;
 import io.optimism.telemetry.TracerTaskWrapper;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.StructuredTaskScope;
 import org.web3j.abi.FunctionEncoder;
@@ -18,9 +22,11 @@ import org.web3j.crypto.RawTransaction;
 import org.web3j.crypto.TransactionEncoder;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
 import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.protocol.core.DefaultBlockParameterName;
 import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
 import org.web3j.protocol.core.methods.request.Transaction;
 import org.web3j.protocol.core.methods.response.EthBlock;
 import org.web3j.protocol.core.methods.response.EthGetBlockReceipts;
@@ -155,6 +161,53 @@ public class Web3jUtil {
         }
     }
 
+    /**
+     * Send the requests as JSON-RPC batch requests, each batch contains at most the given number of requests.
+     *
+     * @param client the web3j client
+     * @param requests the requests to send
+     * @param maxBatchSize the max number of requests in one batch
+     * @param <T> the type of response
+     * @return the responses in the order of the requests
+     * @throws ExecutionException thrown if failed to send the requests
+     * @throws InterruptedException thrown if interrupted while waiting for the responses
+     */
+    public static <T extends Response<?>> List<T> sendBatch(
+            final Web3j client, final List<? extends Request<?, T>> requests, final int maxBatchSize)
+            throws ExecutionException, InterruptedException {
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+            var fork = scope.fork(TracerTaskWrapper.wrap(() -> {
+                final List<T> responses = new ArrayList<>(requests.size());
+                for (List<? extends Request<?, T>> part : Lists.partition(requests, Math.max(1, maxBatchSize))) {
+                    if (part.size() == 1) {
+                        responses.add(part.getFirst().send());
+                        continue;
+                    }
+                    BatchRequest batch = client.newBatch();
+                    part.forEach(batch::add);
+                    // the responses of a batch may be returned in any order, so match them by request id
+                    Map<Long, Response<?>> responsesById = new HashMap<>();
+                    for (Response<?> response : batch.send().getResponses()) {
+                        responsesById.put(response.getId(), response);
+                    }
+                    for (Request<?, T> request : part) {
+                        Response<?> response = responsesById.get(request.getId());
+                        if (response == null) {
+                            throw new Web3jCallException(
+                                    "missing batch response: method = %s, id = %d"
+                                            .formatted(request.getMethod(), request.getId()));
+                        }
+                        responses.add(request.getResponseType().cast(response));
+                    }
+                }
+                return responses;
+            }));
+            scope.join();
+            scope.throwIfFailed();
+            return fork.get();
+        }
+    }
+
     /**
      * Execute the contract.
      * @param client the web3j client
@@ -1,8 +1,8 @@
 package io.optimism.v2.derive.datasource.impl;
 
-import com.google.common.cache.Cache;
+import io.optimism.config.Config;
 import io.optimism.exceptions.BlockNotIncludedException;
-import io.optimism.utilities.LruCacheProvider;
+import io.optimism.l1.L1BlockStore;
 import io.optimism.utilities.web3j.Web3jUtil;
 import io.optimism.v2.derive.datasource.ChainProvider;
 import io.optimism.v2.derive.types.BlockInfo;
@@ -25,59 +25,68 @@ public class L1ChainFetcher implements ChainProvider {
 
     private final Web3j l1Client;
 
-    private Cache<String, EthBlock> blockByHashCache;
-
-    private Cache<BigInteger, BlockInfo> blockInfoByNumCache;
-
-    private Cache<String, List<TransactionReceipt>> receiptsByHashCache;
+    private final L1BlockStore blockStore;
 
     private final boolean devnet;
 
-    public L1ChainFetcher(Web3j l1Client, boolean devnet) {
+    /**
+     * the L1ChainFetcher constructor, the blocks are kept in the block store shared by the process.
+     *
+     * @param l1Client the l1 web3j client
+     * @param config the config, sizes the shared block store
+     */
+    public L1ChainFetcher(Web3j l1Client, Config config) {
+        this(l1Client, config.devnet() != null && config.devnet(), L1BlockStore.shared(config));
+    }
+
+    /**
+     * the L1ChainFetcher constructor.
+     *
+     * @param l1Client the l1 web3j client
+     * @param devnet true if the l1 chain is a devnet, the latest block is used as safe and finalized
+     * @param blockStore the block store, the finalized block read by the fetcher bounds its evictions
+     */
+    public L1ChainFetcher(Web3j l1Client, boolean devnet, L1BlockStore blockStore) {
         this.l1Client = l1Client;
-        this.blockByHashCache = LruCacheProvider.create();
-        this.blockInfoByNumCache = LruCacheProvider.create();
-        this.receiptsByHashCache = LruCacheProvider.create();
+        this.blockStore = blockStore;
         this.devnet = devnet;
     }
 
     @Override
     public EthBlock.Block headerByHash(String hash) {
-        EthBlock block = this.blockByHashCache.getIfPresent(hash);
+        EthBlock.Block block = this.blockStore.block(hash);
         if (block != null) {
-            return block.getBlock();
+            return block;
         }
 
         EthBlock ethBlock = Web3jUtil.pollBlockByHash(this.l1Client, hash, true);
         if (ethBlock == null || ethBlock.getBlock() == null) {
             throw new BlockNotIncludedException("Block not found by hash: " + hash);
         }
-        cacheBlock(ethBlock);
-        cacheBlockInfo(fromBlock(ethBlock));
-        return null;
+        // the block may have been reorged out, it does not replace the canonical block of its number
+        this.blockStore.putBlock(ethBlock.getBlock(), false);
+        return ethBlock.getBlock();
     }
 
     @Override
     public BlockInfo blockInfoByNumber(BigInteger num) {
-        final BlockInfo cachedBlockInfo = this.blockInfoByNumCache.getIfPresent(num);
-        if (cachedBlockInfo != null) {
-            return cachedBlockInfo;
+        final io.optimism.types.BlockInfo stored = this.blockStore.info(num);
+        if (stored != null) {
+            return new BlockInfo(stored.hash(), stored.number(), stored.parentHash(), stored.timestamp());
         }
         EthBlock ethBlock = Web3jUtil.pollBlockByNum(this.l1Client, DefaultBlockParameter.valueOf(num), true);
-        cacheBlock(ethBlock);
-        BlockInfo info = fromBlock(ethBlock);
-        if (info == null) {
+        if (ethBlock == null || ethBlock.getBlock() == null) {
             throw new BlockNotIncludedException("Block Info not found by number: " + num);
         }
-        cacheBlockInfo(info);
-        return null;
+        this.blockStore.putBlock(ethBlock.getBlock());
+        return BlockInfo.from(ethBlock.getBlock());
     }
 
     @Override
     public List<TransactionReceipt> receiptsByHash(String hash) {
-        List<TransactionReceipt> cachedReceipts = this.receiptsByHashCache.getIfPresent(hash);
-        if (cachedReceipts != null) {
-            return cachedReceipts;
+        List<TransactionReceipt> storedReceipts = this.blockStore.receipts(hash);
+        if (storedReceipts != null) {
+            return storedReceipts;
         }
         EthBlock.Block block = this.headerByHash(hash);
         var receipts = Web3jUtil.getBlockReceipts(this.l1Client, DefaultBlockParameter.valueOf(block.getNumber()));
@@ -90,7 +99,7 @@ public class L1ChainFetcher implements ChainProvider {
         } else {
             inner = List.of();
         }
-        this.receiptsByHashCache.put(hash, inner);
+        this.blockStore.putReceipts(hash, inner);
         return inner;
     }
 
@@ -106,33 +115,16 @@ public class L1ChainFetcher implements ChainProvider {
 
     public EthBlock.Block getFinalized() throws ExecutionException, InterruptedException {
         var parameter = this.devnet ? DefaultBlockParameterName.LATEST : DefaultBlockParameterName.FINALIZED;
-        return getHeaderByTag(this.l1Client, parameter);
+        var finalized = getHeaderByTag(this.l1Client, parameter);
+        this.blockStore.setTag(L1BlockStore.Tag.FINALIZED, io.optimism.types.BlockInfo.from(finalized));
+        this.blockStore.updateFinalized(finalized.getNumber());
+        return finalized;
     }
 
     public EthBlock.Block getHead() throws ExecutionException, InterruptedException {
         return getHeaderByTag(this.l1Client, DefaultBlockParameterName.LATEST);
     }
 
-    private void cacheBlock(EthBlock block) {
-        if (block != null && block.getBlock() != null) {
-            this.blockByHashCache.put(block.getBlock().getHash(), block);
-        }
-    }
-
-    private void cacheBlockInfo(BlockInfo blockInfo) {
-        if (blockInfo != null) {
-            this.blockInfoByNumCache.put(blockInfo.number(), blockInfo);
-        }
-    }
-
-    private BlockInfo fromBlock(EthBlock block) {
-        if (block == null || block.getBlock() == null) {
-            return null;
-        }
-        var inner = block.getBlock();
-        return new BlockInfo(inner.getHash(), inner.getNumber(), inner.getParentHash(), inner.getTimestamp());
-    }
-
     private EthBlock.Block getHeaderByTag(Web3j client, DefaultBlockParameterName tag)
             throws ExecutionException, InterruptedException {
         var blockWrapper = Web3jUtil.pollBlockByNum(client, tag, false);
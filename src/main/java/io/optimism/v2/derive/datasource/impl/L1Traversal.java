@@ -10,6 +10,7 @@ import io.optimism.v2.derive.types.BlockInfo;
 import io.optimism.v2.derive.types.SystemConfig;
 import java.math.BigInteger;
 import java.util.List;
+import org.web3j.protocol.core.methods.response.EthBlock;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 
 /**
@@ -65,11 +66,17 @@ public class L1Traversal implements L1RetrievalProvider {
             throw new ResetException("reorg detected");
         }
 
-        List<TransactionReceipt> txReceipts = this.dataSource.receiptsByHash(nextL1Origin.hash());
-        curSysConfig = curSysConfig.updateByReceipts(
-                txReceipts,
-                this.rollupConfig.systemConfigContract(),
-                this.rollupConfig.isEcotone(nextL1Origin.timestamp()));
+        // most blocks have no system config update, the logs bloom of the header rules them out
+        // without fetching all the receipts of the block
+        EthBlock.Block header = this.dataSource.headerByHash(nextL1Origin.hash());
+        if (header == null
+                || SystemConfig.mayUpdateByBlock(header.getLogsBloom(), this.rollupConfig.systemConfigContract())) {
+            List<TransactionReceipt> txReceipts = this.dataSource.receiptsByHash(nextL1Origin.hash());
+            curSysConfig = curSysConfig.updateByReceipts(
+                    txReceipts,
+                    this.rollupConfig.systemConfigContract(),
+                    this.rollupConfig.isEcotone(nextL1Origin.timestamp()));
+        }
 
         this.block = nextL1Origin;
         this.done = false;
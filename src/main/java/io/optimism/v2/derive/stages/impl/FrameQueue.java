@@ -75,13 +75,13 @@ public class FrameQueue implements ChannelBankProvider, OriginProvider, OriginAd
                 this.queue.remove(i + 1);
                 continue;
             }
-            if (!extendsChannel && !nextFrame.frameNumber().equals(0)) {
+            if (!extendsChannel && nextFrame.frameNumber() != 0) {
                 this.queue.remove(i + 1);
                 continue;
             }
             if (!extendsChannel
                     && !prevFrame.isLastFrame()
-                    && nextFrame.frameNumber().equals(0)) {
+                    && nextFrame.frameNumber() == 0) {
                 this.queue = this.queue.stream()
                         .filter(f -> f.channelId().equals(prevFrame.channelId()))
                         .collect(Collectors.toList());
@@ -4,30 +4,29 @@ import com.google.common.base.Objects;
 import com.google.common.primitives.Ints;
 import com.google.common.primitives.Shorts;
 import io.optimism.exceptions.InvalidFrameSizeException;
+import io.optimism.types.ChannelId;
+import io.optimism.types.FrameParser;
 import io.optimism.v2.derive.exception.FrameParseException;
 import java.io.ByteArrayOutputStream;
 import java.math.BigInteger;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
 import java.util.List;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.web3j.utils.Numeric;
 
 /**
  * The type Frame.
  *
  * @param channelId the channel id
  * @param frameNumber the frame number
- * @param frameDataLen the frame data len
- * @param frameData the frame data
+ * @param data the frame data, a slice of the batcher transaction
  * @param isLastFrame the is last frame
  * @author grapebaba
  * @since 0.1.0
  */
-public record Frame(
-        BigInteger channelId, Integer frameNumber, Integer frameDataLen, byte[] frameData, Boolean isLastFrame) {
+public record Frame(ChannelId channelId, int frameNumber, ByteBuffer data, boolean isLastFrame) {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Frame.class);
 
@@ -41,6 +40,26 @@ public record Frame(
 
     public static final int MAX_FRAME_LEN = 1000000;
 
+    /**
+     * Gets the frame data len.
+     *
+     * @return the frame data len
+     */
+    public int frameDataLen() {
+        return data.remaining();
+    }
+
+    /**
+     * Gets a copy of the frame data.
+     *
+     * @return the frame data
+     */
+    public byte[] frameData() {
+        byte[] frameData = new byte[data.remaining()];
+        data.duplicate().get(frameData);
+        return frameData;
+    }
+
     /**
      * Get tx bytes.
      *
@@ -69,8 +88,8 @@ public record Frame(
      * @return a new Frame instance
      */
     public static Frame create(BigInteger chId, int frameNumber, byte[] data, boolean isLastFrame) {
-        var dataLen = data == null ? 0 : data.length;
-        return new Frame(chId, frameNumber, dataLen, data, isLastFrame);
+        return new Frame(
+                ChannelId.from(chId), frameNumber, ByteBuffer.wrap(data == null ? new byte[0] : data), isLastFrame);
     }
 
     /**
@@ -80,9 +99,9 @@ public record Frame(
      */
     public byte[] encode() {
         var bos = new ByteArrayOutputStream();
-        bos.writeBytes(Numeric.toBytesPadded(channelId, 16));
-        bos.writeBytes(Shorts.toByteArray((short) frameNumber().intValue()));
-        bos.writeBytes(Ints.toByteArray(frameData().length));
+        bos.writeBytes(channelId.toBytes());
+        bos.writeBytes(Shorts.toByteArray((short) frameNumber()));
+        bos.writeBytes(Ints.toByteArray(frameDataLen()));
         bos.writeBytes(frameData());
         bos.write(isLastFrame() ? 1 : 0);
         return bos.toByteArray();
@@ -95,31 +114,12 @@ public record Frame(
      * @return the immutable pair, left is frame, right is current read bytes
      */
     public static ImmutablePair<Frame, Integer> from(byte[] data) {
-        if (data.length < FRAME_V0_OVER_HEAD_SIZE) {
-            throw new InvalidFrameSizeException("invalid frame size");
-        }
-        var offset = 0;
-        final BigInteger channelId = Numeric.toBigInt(ArrayUtils.subarray(data, offset, 16));
-        offset += 16;
-        final int frameNumber =
-                Numeric.toBigInt(ArrayUtils.subarray(data, offset, offset + 2)).intValue();
-        offset += 2;
-        final int frameDataLen =
-                Numeric.toBigInt(ArrayUtils.subarray(data, offset, offset + 4)).intValue();
-        offset += 4;
-
-        final int frameDataEnd = offset + frameDataLen;
-
-        if (frameDataEnd < 0 || frameDataEnd > MAX_FRAME_LEN || data.length < frameDataEnd) {
-            throw new FrameParseException("invalid frame size");
-        }
-
-        final byte[] frameData = ArrayUtils.subarray(data, offset, frameDataEnd);
-        final boolean isLastFrame = data[frameDataEnd] != 0;
-        final Frame frame = new Frame(channelId, frameNumber, frameDataLen, frameData, isLastFrame);
-        LOGGER.debug(String.format("saw batcher tx: number=%d, is_last=%b", frameNumber, isLastFrame));
-
-        return new ImmutablePair<>(frame, FRAME_V0_OVER_HEAD_SIZE + frameDataEnd);
+        final ImmutablePair<Frame, Integer> framePair = FrameParser.parseFrame(data, 0, MAX_FRAME_LEN, Frame::new);
+        LOGGER.debug(
+                "saw batcher tx: number={}, is_last={}",
+                framePair.getLeft().frameNumber(),
+                framePair.getLeft().isLastFrame());
+        return framePair;
     }
 
     /**
@@ -137,21 +137,12 @@ public record Frame(
             throw new FrameParseException("Unsupported version");
         }
 
-        byte[] data = new byte[encoded.length - 1];
-        System.arraycopy(encoded, 1, data, 0, data.length);
-
-        List<Frame> frames = new ArrayList<>();
-        int offset = 0;
-
-        while (offset < data.length) {
-            byte[] parseBytes = offset == 0 ? data : ArrayUtils.subarray(data, offset, data.length);
-            ImmutablePair<Frame, Integer> result = Frame.from(parseBytes);
-            frames.add(result.left);
-            offset += result.right;
-        }
-
-        if (offset != data.length) {
-            throw new FrameParseException("Data length mismatch");
+        // the frames are parsed in place, after the version byte
+        List<Frame> frames;
+        try {
+            frames = FrameParser.parseFrames(encoded, 1, MAX_FRAME_LEN, Frame::new);
+        } catch (InvalidFrameSizeException e) {
+            throw new FrameParseException("invalid frame size", e);
         }
 
         if (frames.isEmpty()) {
@@ -4,6 +4,7 @@ import com.google.common.primitives.Bytes;
 import io.optimism.config.Config;
 import io.optimism.exceptions.InvalidSystemConfigUpdateException;
 import io.optimism.rpc.response.OpEthBlock;
+import io.optimism.utilities.bloom.LogsBloom;
 import io.optimism.v2.derive.types.enums.TxType;
 import java.math.BigInteger;
 import java.util.Arrays;
@@ -133,6 +134,17 @@ public record SystemConfig(
         return config;
     }
 
+    /**
+     * Check if the block of the logs bloom may contain a ConfigUpdate log of the system config contract.
+     *
+     * @param logsBloom the logs bloom of the block header
+     * @param sysConfigAddr the system config contract address
+     * @return false if the block has no ConfigUpdate log, so its receipts need not be fetched
+     */
+    public static boolean mayUpdateByBlock(final String logsBloom, final String sysConfigAddr) {
+        return LogsBloom.mayContain(logsBloom, sysConfigAddr, TOPIC_0);
+    }
+
     public SystemConfig updateByReceipts(
             final List<TransactionReceipt> txReceipts, final String sysConfigAddr, final boolean ecotoneActive) {
         SystemConfig config = this;
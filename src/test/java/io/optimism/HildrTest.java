@@ -39,7 +39,14 @@ class HildrTest {
                 null,
                 Config.SyncMode.Full,
                 false,
-                false);
+                false,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null);
         TomlMapper mapper = new TomlMapper();
         String cliConfigStr = mapper.writerFor(CliConfig.class).writeValueAsString(cliConfig);
 
@@ -1,6 +1,7 @@
 package io.optimism;
 
 import io.optimism.config.Config;
+import io.optimism.config.Config.ChainConfig;
 import java.util.Map;
 
 /**
@@ -61,7 +62,47 @@ public class TestConstants {
                 null,
                 Config.SyncMode.Full,
                 false,
-                false);
+                false,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null);
         return Config.create(null, cliConfig, Config.ChainConfig.optimismSepolia());
     }
+
+    /**
+     * Create a config of the optimism sepolia chain without any endpoint, for the tests that do not
+     * request a client.
+     *
+     * @return the config
+     */
+    public static Config createOfflineConfig() {
+        return new Config(
+                "",
+                "",
+                "",
+                "",
+                "",
+                "",
+                null,
+                null,
+                null,
+                9545,
+                null,
+                null,
+                false,
+                false,
+                Config.SyncMode.Full,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                ChainConfig.optimismSepolia());
+    }
 }
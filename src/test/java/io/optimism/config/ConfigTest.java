@@ -43,7 +43,14 @@ class ConfigTest {
                 null,
                 Config.SyncMode.Full,
                 false,
-                false);
+                false,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null);
         Config config = Config.create(
                 Paths.get("src", "test", "resources", "test.toml"), cliConfig, ChainConfig.optimismSepolia());
         assertEquals("https://example2.com", config.l2RpcUrl());
@@ -70,7 +77,14 @@ class ConfigTest {
                 92,
                 Config.SyncMode.Full,
                 false,
-                false);
+                false,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null);
         Config configBootNodes = Config.create(
                 Paths.get("src", "test", "resources", "test.toml"), bootCliConfig, ChainConfig.optimismSepolia());
         assertEquals(92, configBootNodes.discPort());
@@ -0,0 +1,79 @@
+package io.optimism.derive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case of BlockRing.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+class BlockRingTest {
+
+    @Test
+    @DisplayName("test put and get the values of a growing range")
+    void testPutAndGet() {
+        BlockRing<String> ring = new BlockRing<>(2, value -> {});
+        for (long number = 100L; number < 110L; number++) {
+            ring.put(number, "block" + number);
+        }
+        assertEquals(100L, ring.first());
+        assertEquals(110L, ring.end());
+        for (long number = 100L; number < 110L; number++) {
+            assertEquals("block" + number, ring.get(number));
+        }
+        assertNull(ring.get(99L));
+        assertNull(ring.get(110L));
+
+        // the block numbers between the range and the put block number are empty
+        ring.put(113L, "block113");
+        ring.put(97L, "block97");
+        assertEquals(97L, ring.first());
+        assertEquals(114L, ring.end());
+        assertNull(ring.get(98L));
+        assertNull(ring.get(111L));
+        assertEquals("block113", ring.get(113L));
+        assertEquals("block97", ring.get(97L));
+        assertEquals("block105", ring.get(105L));
+    }
+
+    @Test
+    @DisplayName("test remove the values before and after a block number")
+    void testRemove() {
+        List<String> removed = new ArrayList<>();
+        BlockRing<String> ring = new BlockRing<>(8, removed::add);
+        for (long number = 0L; number < 8L; number++) {
+            ring.put(number, "block" + number);
+        }
+        ring.removeBefore(2L);
+        ring.removeAfter(5L);
+        assertEquals(List.of("block0", "block1", "block7", "block6"), removed);
+        assertEquals(2L, ring.first());
+        assertEquals(6L, ring.end());
+        assertNull(ring.get(1L));
+        assertNull(ring.get(6L));
+
+        // the slots of the removed block numbers are reused without growing
+        ring.put(6L, "new6");
+        ring.put(9L, "new9");
+        assertNull(ring.get(8L));
+        assertEquals("new9", ring.get(9L));
+        assertEquals("block2", ring.get(2L));
+
+        ring.put(9L, "replaced9");
+        assertEquals("new9", removed.getLast());
+
+        ring.removeBefore(100L);
+        assertTrue(ring.isEmpty());
+        ring.put(1_000_000_000L, "far");
+        assertEquals("far", ring.get(1_000_000_000L));
+        assertNull(ring.get(9L));
+    }
+}
@@ -0,0 +1,216 @@
+package io.optimism.derive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+import com.google.common.io.Resources;
+import io.optimism.TestConstants;
+import io.optimism.config.Config;
+import io.optimism.types.BlockInfo;
+import io.optimism.types.Epoch;
+import io.optimism.types.L1Info;
+import io.optimism.types.L1Info.L1BlockInfo;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.tuples.generated.Tuple2;
+import org.web3j.utils.Numeric;
+
+/**
+ * Test case of State.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+class StateTest {
+
+    @Test
+    @DisplayName("test the prefetched L2 refs are not fetched again")
+    void testPrefetchL2Refs() throws InterruptedException {
+        Config config = TestConstants.createOfflineConfig();
+        BlockInfo genesis = config.chainConfig().l2Genesis();
+        AtomicInteger fetched = new AtomicInteger();
+        CountDownLatch prefetched = new CountDownLatch(9);
+        Set<Thread> fetchThreads = ConcurrentHashMap.newKeySet();
+        BiFunction<DefaultBlockParameter, Boolean, Tuple2<BlockInfo, Epoch>> l2Fetcher = (parameter, fullTx) -> {
+            fetched.incrementAndGet();
+            fetchThreads.add(Thread.currentThread());
+            prefetched.countDown();
+            long offset = Numeric.decodeQuantity(parameter.getValue())
+                    .subtract(genesis.number())
+                    .longValueExact();
+            return l2Block(genesis, offset);
+        };
+        Tuple2<BlockInfo, Epoch> safeHead = l2Block(genesis, 10L);
+        State state =
+                State.create(new TreeMap<>(), l2Fetcher, safeHead.component1(), safeHead.component2(), config);
+
+        // the blocks after the safe head are not prefetched
+        state.prefetchL2Refs(timestamp(genesis, 2L), timestamp(genesis, 12L));
+        assertTrue(prefetched.await(5, TimeUnit.SECONDS));
+        assertEquals(9, fetched.get());
+        assertFalse(fetchThreads.contains(Thread.currentThread()));
+
+        for (long offset = 2L; offset <= 10L; offset++) {
+            L2Ref ref = state.l2Ref(timestamp(genesis, offset));
+            assertEquals(genesis.number().longValueExact() + offset, ref.number());
+            assertEquals(offset, ref.sequenceNumber());
+        }
+        assertEquals(9, fetched.get());
+
+        state.prefetchL2Refs(timestamp(genesis, 2L), timestamp(genesis, 10L));
+        assertEquals(9, fetched.get());
+    }
+
+    @Test
+    @DisplayName("test the rollback drops the L1 and L2 refs after the rollback point")
+    void testRollback() throws InterruptedException {
+        Config config = TestConstants.createOfflineConfig();
+        BlockInfo genesis = config.chainConfig().l2Genesis();
+        AtomicInteger fetched = new AtomicInteger();
+        CountDownLatch prefetchStarted = new CountDownLatch(2);
+        CountDownLatch prefetchCancelled = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        BiFunction<DefaultBlockParameter, Boolean, Tuple2<BlockInfo, Epoch>> l2Fetcher = (parameter, fullTx) -> {
+            fetched.incrementAndGet();
+            prefetchStarted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                prefetchCancelled.countDown();
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            long offset = Numeric.decodeQuantity(parameter.getValue())
+                    .subtract(genesis.number())
+                    .longValueExact();
+            return l2Block(genesis, offset);
+        };
+        TreeMap<BigInteger, Tuple2<BlockInfo, Epoch>> l2Refs = new TreeMap<>();
+        for (long offset = 2L; offset <= 8L; offset++) {
+            Tuple2<BlockInfo, Epoch> block = l2Block(genesis, offset);
+            l2Refs.put(block.component1().number(), block);
+        }
+        Tuple2<BlockInfo, Epoch> safeHead = l2Block(genesis, 10L);
+        State state = State.create(l2Refs, l2Fetcher, safeHead.component1(), safeHead.component2(), config);
+        for (long number = 1L; number <= 5L; number++) {
+            state.updateL1Info(l1Info(number));
+        }
+        // the blocks 9 and 10 are prefetched, the fetches wait until released
+        state.prefetchL2Refs(timestamp(genesis, 2L), timestamp(genesis, 10L));
+        assertTrue(prefetchStarted.await(5, TimeUnit.SECONDS));
+
+        Tuple2<BlockInfo, Epoch> rollbackHead = l2Block(genesis, 5L);
+        state.rollback(BigInteger.valueOf(3L), rollbackHead.component1(), rollbackHead.component2());
+        assertTrue(prefetchCancelled.await(5, TimeUnit.SECONDS));
+        release.countDown();
+
+        assertEquals(BigInteger.valueOf(3L), state.getCurrentEpochNum());
+        assertNotNull(state.l1Info(3L));
+        assertNull(state.l1Info(4L));
+        assertNull(state.l1Info(l1Info(4L).blockInfo().hash()));
+        assertEquals(genesis.number().longValueExact() + 5L, state.getSafeHeadRef().number());
+
+        // the refs up to the safe head are kept, the ones after it are fetched again
+        assertEquals(genesis.number().longValueExact() + 5L, state.l2Ref(timestamp(genesis, 5L)).number());
+        assertEquals(2, fetched.get());
+        assertEquals(genesis.number().longValueExact() + 7L, state.l2Ref(timestamp(genesis, 7L)).number());
+        assertEquals(3, fetched.get());
+    }
+
+    @Test
+    @DisplayName("test the L2 refs are initialized from the block headers and the deposited txs")
+    @SuppressWarnings("unchecked")
+    void testInitL2Refs() throws Exception {
+        Config.ChainConfig chainConfig = TestConstants.createOfflineConfig().chainConfig();
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, Object> fixture = objectMapper.readValue(
+                Resources.toString(Resources.getResource("bedrock_raw_block.txt"), Charsets.UTF_8), Map.class);
+        Map<String, Object> fullBlock = (Map<String, Object>) fixture.get("test_block_data");
+        Object depositedTx = ((List<Object>) fullBlock.get("transactions")).getFirst();
+        Map<String, Object> header = new HashMap<>(fullBlock);
+        header.put("transactions", List.of());
+        Map<String, Object> replacedHeader = new HashMap<>(header);
+        replacedHeader.put("hash", "0x" + "11".repeat(32));
+
+        try (MockWebServer server = new MockWebServer()) {
+            Web3j l2Client = Web3j.build(new HttpService(server.url("/").toString()));
+
+            // the deposited tx belongs to the fetched header
+            server.enqueue(result(objectMapper, header));
+            server.enqueue(result(objectMapper, depositedTx));
+            assertL2Refs(fixture, State.initL2Refs(BigInteger.ZERO, BigInteger.ZERO, chainConfig, l2Client));
+            assertEquals(2, server.getRequestCount());
+
+            // the block was replaced between the requests, the full block is fetched again
+            server.enqueue(result(objectMapper, replacedHeader));
+            server.enqueue(result(objectMapper, depositedTx));
+            server.enqueue(result(objectMapper, fullBlock));
+            assertL2Refs(fixture, State.initL2Refs(BigInteger.ZERO, BigInteger.ZERO, chainConfig, l2Client));
+            assertEquals(5, server.getRequestCount());
+            for (int i = 0; i < 4; i++) {
+                server.takeRequest();
+            }
+            String refetch = server.takeRequest().getBody().readUtf8();
+            assertTrue(refetch.contains("eth_getBlockByNumber") && refetch.contains("true"));
+        }
+    }
+
+    private static MockResponse result(ObjectMapper objectMapper, Object result) throws JsonProcessingException {
+        return new MockResponse()
+                .setBody(objectMapper.writeValueAsString(Map.of("jsonrpc", "2.0", "id", 1, "result", result)));
+    }
+
+    private static void assertL2Refs(
+            Map<String, Object> fixture, TreeMap<BigInteger, Tuple2<BlockInfo, Epoch>> l2Refs) {
+        BigInteger number = new BigInteger((String) fixture.get("assert_l2_block_number"));
+        assertEquals(1, l2Refs.size());
+        Tuple2<BlockInfo, Epoch> ref = l2Refs.get(number);
+        assertEquals(fixture.get("assert_l2_block_hash"), ref.component1().hash());
+        assertEquals(fixture.get("assert_l1_block_hash"), ref.component2().hash());
+        assertEquals(new BigInteger((String) fixture.get("assert_l1_block_number")), ref.component2().number());
+    }
+
+    private static L1Info l1Info(long number) {
+        String hash = Numeric.toHexStringWithPrefixZeroPadded(BigInteger.valueOf(number), 64);
+        L1BlockInfo blockInfo = L1BlockInfo.create(
+                BigInteger.valueOf(number), hash, BigInteger.valueOf(number * 12L), BigInteger.ONE, hash);
+        return new L1Info(blockInfo, null, List.of(), List.of(), null, false);
+    }
+
+    private static long timestamp(BlockInfo genesis, long offset) {
+        return genesis.timestamp().longValueExact() + offset * 2L;
+    }
+
+    private static Tuple2<BlockInfo, Epoch> l2Block(BlockInfo genesis, long offset) {
+        BigInteger number = genesis.number().add(BigInteger.valueOf(offset));
+        BlockInfo blockInfo = new BlockInfo(
+                Numeric.toHexStringWithPrefix(number),
+                number,
+                Numeric.toHexStringWithPrefix(number.subtract(BigInteger.ONE)),
+                BigInteger.valueOf(timestamp(genesis, offset)));
+        Epoch epoch = new Epoch(BigInteger.ONE, "0x01", BigInteger.ONE, BigInteger.valueOf(offset));
+        return new Tuple2<>(blockInfo, epoch);
+    }
+}
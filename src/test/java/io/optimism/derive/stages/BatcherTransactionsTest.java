@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.optimism.derive.stages.BatcherTransactions.BatcherTransaction;
+import io.optimism.types.ChannelId;
 import io.optimism.types.Frame;
 import java.math.BigInteger;
 import org.apache.commons.lang3.ArrayUtils;
@@ -114,9 +115,27 @@ class BatcherTransactionsTest {
         BatcherTransaction tx = BatcherTransaction.create(data, BigInteger.valueOf(123456L));
         Frame frame = tx.frames().get(0);
         assertEquals(0, tx.version());
-        assertEquals(new BigInteger("239159748140584302248388764660258118408"), frame.channelId());
+        assertEquals(new BigInteger("239159748140584302248388764660258118408"), frame.channelId().toBigInteger());
         assertEquals(3028, frame.frameDataLen());
         assertTrue(frame.isLastFrame());
         assertArrayEquals(ArrayUtils.subarray(data, 23, data.length - 1), frame.frameData());
     }
+
+    /** Test decode tx of several frames. */
+    @Test
+    @DisplayName("test decode tx of several frames.")
+    void testDecodeMultiFramesTx() {
+        Frame frame0 = Frame.create(BigInteger.TEN, 0, new byte[] {1, 2, 3}, false);
+        Frame frame1 = Frame.create(BigInteger.TEN, 1, new byte[] {4, 5}, true);
+        byte[] data = ArrayUtils.addAll(new byte[] {Frame.DERIVATION_VERSION_0}, frame0.encode());
+        data = ArrayUtils.addAll(data, frame1.encode());
+
+        BatcherTransaction tx = BatcherTransaction.create(data, BigInteger.ONE);
+        assertEquals(2, tx.frames().size());
+        assertEquals(ChannelId.from(BigInteger.TEN), tx.frames().get(1).channelId());
+        assertEquals(1, tx.frames().get(1).frameNumber());
+        assertArrayEquals(new byte[] {1, 2, 3}, tx.frames().get(0).frameData());
+        assertArrayEquals(new byte[] {4, 5}, tx.frames().get(1).frameData());
+        assertTrue(tx.frames().get(1).isLastFrame());
+    }
 }
@@ -10,6 +10,7 @@ import io.optimism.config.Config.ChainConfig;
 import io.optimism.derive.State;
 import io.optimism.derive.stages.BatcherTransactions.BatcherTransactionMessage;
 import io.optimism.derive.stages.Channels.Channel;
+import io.optimism.types.ChannelId;
 import io.optimism.types.Frame;
 import java.math.BigInteger;
 import java.util.List;
@@ -36,12 +37,12 @@ class ChannelsTest {
     @DisplayName("test push single channel frame")
     void testPushSingleChannelFrame() {
         Tuple2<Channels<BatcherTransactions>, MessagePassingQueue<BatcherTransactionMessage>> tuple2 = createStage();
-        Frame frame = new Frame(BigInteger.valueOf(5L), 0, 0, new byte[0], true, BigInteger.ZERO);
+        Frame frame = new Frame(BigInteger.valueOf(5L), 0, new byte[0], true, BigInteger.ZERO);
 
         tuple2.component1().pushFrame(frame);
         assertEquals(1, tuple2.component1().getPendingChannels().size());
         assertEquals(
-                BigInteger.valueOf(5L),
+                ChannelId.from(BigInteger.valueOf(5L)),
                 tuple2.component1().getPendingChannels().get(0).getChannelId());
         assertTrue(tuple2.component1().getPendingChannels().get(0).isComplete());
     }
@@ -50,36 +51,54 @@ class ChannelsTest {
     @DisplayName("test push multi channel frames")
     void testPushMultiChannelFrames() {
         Tuple2<Channels<BatcherTransactions>, MessagePassingQueue<BatcherTransactionMessage>> tuple2 = createStage();
-        Frame frame1 = new Frame(BigInteger.valueOf(5L), 0, 0, new byte[0], false, BigInteger.ZERO);
+        Frame frame1 = new Frame(BigInteger.valueOf(5L), 0, new byte[0], false, BigInteger.ZERO);
 
         tuple2.component1().pushFrame(frame1);
         assertEquals(1, tuple2.component1().getPendingChannels().size());
         assertEquals(
-                BigInteger.valueOf(5L),
+                ChannelId.from(BigInteger.valueOf(5L)),
                 tuple2.component1().getPendingChannels().get(0).getChannelId());
         assertFalse(tuple2.component1().getPendingChannels().get(0).isComplete());
-        Frame frame2 = new Frame(BigInteger.valueOf(5L), 1, 0, new byte[0], true, BigInteger.ZERO);
+        Frame frame2 = new Frame(BigInteger.valueOf(5L), 1, new byte[0], true, BigInteger.ZERO);
 
         tuple2.component1().pushFrame(frame2);
         assertEquals(1, tuple2.component1().getPendingChannels().size());
         assertEquals(
-                BigInteger.valueOf(5L),
+                ChannelId.from(BigInteger.valueOf(5L)),
                 tuple2.component1().getPendingChannels().get(0).getChannelId());
         assertTrue(tuple2.component1().getPendingChannels().get(0).isComplete());
     }
 
+    @Test
+    @DisplayName("test push duplicated channel frame")
+    void testPushDuplicatedChannelFrame() {
+        Tuple2<Channels<BatcherTransactions>, MessagePassingQueue<BatcherTransactionMessage>> tuple2 = createStage();
+        Frame frame1 = new Frame(BigInteger.valueOf(5L), 0, new byte[3], false, BigInteger.ZERO);
+        Frame frame2 = new Frame(BigInteger.valueOf(6L), 0, new byte[2], false, BigInteger.ZERO);
+
+        tuple2.component1().pushFrame(frame1);
+        tuple2.component1().pushFrame(frame2);
+        tuple2.component1().pushFrame(frame1);
+        assertEquals(2, tuple2.component1().getPendingChannels().size());
+        assertEquals(
+                ChannelId.from(BigInteger.valueOf(5L)),
+                tuple2.component1().getPendingChannels().get(0).getChannelId());
+        assertEquals(1, tuple2.component1().getPendingChannels().get(0).getFrames().size());
+        assertEquals(3L, tuple2.component1().getPendingChannels().get(0).getBytes());
+    }
+
     @Test
     @DisplayName("test ready channel")
     void testReadyChannel() {
         Tuple2<Channels<BatcherTransactions>, MessagePassingQueue<BatcherTransactionMessage>> tuple2 = createStage();
-        Frame frame1 = new Frame(BigInteger.valueOf(5L), 0, 0, new byte[0], false, BigInteger.valueOf(43L));
+        Frame frame1 = new Frame(BigInteger.valueOf(5L), 0, new byte[0], false, BigInteger.valueOf(43L));
 
-        Frame frame2 = new Frame(BigInteger.valueOf(5L), 1, 0, new byte[0], true, BigInteger.valueOf(96L));
+        Frame frame2 = new Frame(BigInteger.valueOf(5L), 1, new byte[0], true, BigInteger.valueOf(96L));
 
         tuple2.component1().pushFrame(frame1);
         tuple2.component1().pushFrame(frame2);
         Channel channel =
-                tuple2.component1().fetchReadyChannel(BigInteger.valueOf(5L)).get();
+                tuple2.component1().fetchReadyChannel(ChannelId.from(BigInteger.valueOf(5L))).get();
         assertEquals(BigInteger.valueOf(5L), channel.id());
         assertEquals(BigInteger.valueOf(96L), channel.l1InclusionBlock());
     }
@@ -88,13 +107,33 @@ class ChannelsTest {
     @DisplayName("test ready channel not found")
     void testReadyChannelStillPending() {
         Tuple2<Channels<BatcherTransactions>, MessagePassingQueue<BatcherTransactionMessage>> tuple2 = createStage();
-        Frame frame1 = new Frame(BigInteger.valueOf(5L), 0, 0, new byte[0], false, BigInteger.valueOf(43L));
+        Frame frame1 = new Frame(BigInteger.valueOf(5L), 0, new byte[0], false, BigInteger.valueOf(43L));
 
         tuple2.component1().pushFrame(frame1);
-        Optional<Channel> channelOpt = tuple2.component1().fetchReadyChannel(BigInteger.valueOf(5L));
+        Optional<Channel> channelOpt = tuple2.component1().fetchReadyChannel(ChannelId.from(BigInteger.valueOf(5L)));
         assertTrue(channelOpt.isEmpty());
     }
 
+    @Test
+    @DisplayName("test rollback frames of dropped l1 blocks")
+    void testRollback() {
+        Tuple2<Channels<BatcherTransactions>, MessagePassingQueue<BatcherTransactionMessage>> tuple2 = createStage();
+        Frame frame1 = new Frame(BigInteger.valueOf(5L), 0, new byte[0], false, BigInteger.valueOf(43L));
+        Frame frame2 = new Frame(BigInteger.valueOf(5L), 1, new byte[0], true, BigInteger.valueOf(96L));
+
+        tuple2.component1().pushFrame(frame1);
+        tuple2.component1().pushFrame(frame2);
+        assertTrue(tuple2.component1().getPendingChannels().get(0).isComplete());
+
+        assertTrue(tuple2.component1().rollback(BigInteger.valueOf(50L)));
+        assertEquals(1, tuple2.component1().getPendingChannels().size());
+        assertFalse(tuple2.component1().getPendingChannels().get(0).isComplete());
+        assertTrue(tuple2.component1().fetchReadyChannel(ChannelId.from(BigInteger.valueOf(5L))).isEmpty());
+
+        assertTrue(tuple2.component1().rollback(BigInteger.valueOf(40L)));
+        assertTrue(tuple2.component1().getPendingChannels().isEmpty());
+    }
+
     @Test
     @DisplayName("Test read channel data from batch tx successfully")
     void testReadChannelData() {
@@ -135,6 +174,13 @@ class ChannelsTest {
                 false,
                 false,
                 Config.SyncMode.Full,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
                 ChainConfig.optimismSepolia());
         MessagePassingQueue<BatcherTransactionMessage> transactionMessageMessagePassingQueue =
                 new MpscGrowableArrayQueue<>(4096);
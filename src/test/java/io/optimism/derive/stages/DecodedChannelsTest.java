@@ -0,0 +1,96 @@
+package io.optimism.derive.stages;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.optimism.TestConstants;
+import io.optimism.derive.PurgeableIterator;
+import io.optimism.derive.stages.Channels.Channel;
+import io.optimism.utilities.compression.Compressors;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case of DecodedChannels.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+class DecodedChannelsTest {
+
+    @Test
+    @DisplayName("test decoded channels are returned in order")
+    void testDecodeInOrder() {
+        StubChannels channels = new StubChannels();
+        channels.add(emptyChannel(1L));
+        channels.add(new Channel(BigInteger.TWO, new byte[] {0x00}, BigInteger.TWO));
+        channels.add(emptyChannel(3L));
+        DecodedChannels<StubChannels> decodedChannels =
+                new DecodedChannels<>(channels, TestConstants.createOfflineConfig(), 4);
+
+        assertTrue(decodedChannels.next().isEmpty());
+        // the channels were all handed to the decoders by the first call
+        assertTrue(channels.channels.isEmpty());
+        assertThrows(IllegalArgumentException.class, decodedChannels::next);
+        assertTrue(decodedChannels.next().isEmpty());
+        assertNull(decodedChannels.next());
+    }
+
+    @Test
+    @DisplayName("test rollback drops the channels of dropped l1 blocks")
+    void testRollback() {
+        StubChannels channels = new StubChannels();
+        channels.add(emptyChannel(1L));
+        channels.add(emptyChannel(2L));
+        // the channel of the dropped block fails to decode, it must not be returned after the rollback
+        channels.add(new Channel(BigInteger.valueOf(3L), new byte[] {0x00}, BigInteger.valueOf(3L)));
+        DecodedChannels<StubChannels> decodedChannels =
+                new DecodedChannels<>(channels, TestConstants.createOfflineConfig(), 4);
+
+        assertEquals(List.of(), decodedChannels.next());
+        assertTrue(decodedChannels.rollback(BigInteger.TWO));
+        assertEquals(BigInteger.TWO, channels.rolledBackTo);
+        assertEquals(List.of(), decodedChannels.next());
+        assertNull(decodedChannels.next());
+    }
+
+    private static Channel emptyChannel(long l1InclusionBlock) {
+        return new Channel(
+                BigInteger.valueOf(l1InclusionBlock),
+                Compressors.zlibCompress(new byte[0]),
+                BigInteger.valueOf(l1InclusionBlock));
+    }
+
+    private static final class StubChannels implements PurgeableIterator<Channel> {
+
+        private final Deque<Channel> channels = new ArrayDeque<>();
+
+        private BigInteger rolledBackTo;
+
+        private void add(Channel channel) {
+            this.channels.addLast(channel);
+        }
+
+        @Override
+        public void purge() {
+            this.channels.clear();
+        }
+
+        @Override
+        public boolean rollback(BigInteger l1Block) {
+            this.rolledBackTo = l1Block;
+            return true;
+        }
+
+        @Override
+        public Channel next() {
+            return this.channels.pollFirst();
+        }
+    }
+}
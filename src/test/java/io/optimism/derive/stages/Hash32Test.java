@@ -0,0 +1,63 @@
+package io.optimism.derive.stages;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.optimism.types.Hash32;
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.web3j.utils.Numeric;
+
+/**
+ * Test case of Hash32.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+class Hash32Test {
+
+    private static final String HASH = "0x1f2e3d4c5b6a79880123456789abcdeffedcba9876543210a1b2c3d4e5f60718";
+
+    @Test
+    @DisplayName("test parse the hash from the hex string")
+    void testFromHexString() {
+        Hash32 hash = Hash32.fromHexString(HASH);
+        assertEquals(HASH, hash.toHexString());
+        assertArrayEquals(Numeric.hexStringToByteArray(HASH), hash.toBytes());
+        assertEquals(hash, Hash32.fromHexString(HASH.toUpperCase().replace("0X", "0x")));
+        assertEquals(Hash32.fromHexString("0x" + "0".repeat(63) + "1"), Hash32.fromHexString("0x1"));
+        assertNull(Hash32.fromHexString(null));
+        assertThrows(IllegalArgumentException.class, () -> Hash32.fromHexString(HASH + "00"));
+        assertThrows(IllegalArgumentException.class, () -> Hash32.fromHexString("0xzz"));
+    }
+
+    @Test
+    @DisplayName("test compare the hash with the hex string")
+    void testEqualsHexString() {
+        Hash32 hash = Hash32.fromHexString(HASH);
+        assertTrue(hash.equalsHexString(HASH));
+        assertTrue(hash.equalsHexString(HASH.substring(2).toUpperCase()));
+        assertFalse(hash.equalsHexString(HASH.substring(0, HASH.length() - 1) + "9"));
+        assertFalse(hash.equalsHexString(HASH + "00"));
+        assertFalse(hash.equalsHexString(null));
+        assertTrue(Hash32.fromHexString("0x1").equalsHexString("0x" + "0".repeat(63) + "1"));
+    }
+
+    @Test
+    @DisplayName("test check the prefix of the hash")
+    void testStartsWith() {
+        Hash32 hash = Hash32.fromHexString(HASH);
+        Bytes bytes = Bytes.fromHexString(HASH);
+        assertTrue(hash.startsWith(bytes.slice(0, 20)));
+        assertTrue(hash.startsWith(bytes));
+        assertFalse(hash.startsWith(bytes.slice(1, 20)));
+        for (int i = 0; i < Hash32.LENGTH; i++) {
+            assertEquals(bytes.get(i), hash.byteAt(i));
+        }
+    }
+}
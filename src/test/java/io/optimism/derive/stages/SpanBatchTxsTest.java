@@ -15,6 +15,7 @@ import java.math.BigInteger;
 import java.net.URL;
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.apache.tuweni.bytes.Bytes;
@@ -24,8 +25,6 @@ import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.encoding.EncodingContext;
 import org.hyperledger.besu.ethereum.core.encoding.TransactionEncoder;
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
-import org.hyperledger.besu.ethereum.rlp.RLPInput;
 import org.junit.jupiter.api.Test;
 import org.web3j.utils.Numeric;
 
@@ -49,6 +48,26 @@ public class SpanBatchTxsTest {
         assertArrayEquals(Numeric.hexStringToByteArray(test), res1);
     }
 
+    /**
+     * Decode and encode span batch bit set.
+     */
+    @Test
+    void decodeAndEncodeSpanBatchBitSet() {
+        String test = "0x01aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa";
+        int bitLength = 281;
+        BitSet res = SpanBatchUtils.decodeSpanBatchBitSet(
+                Unpooled.wrappedBuffer(Bytes.fromHexString(test).toArray()), bitLength);
+        BigInteger expected = SpanBatchUtils.decodeSpanBatchBits(
+                Unpooled.wrappedBuffer(Bytes.fromHexString(test).toArray()), bitLength);
+        assertEquals(toBitSet(expected), res);
+        assertEquals(expected.bitCount(), res.cardinality());
+        assertArrayEquals(Numeric.hexStringToByteArray(test), SpanBatchUtils.encodeSpanBatchBitSet(bitLength, res));
+        assertThrows(
+                RuntimeException.class,
+                () -> SpanBatchUtils.decodeSpanBatchBitSet(
+                        Unpooled.wrappedBuffer(Bytes.fromHexString(test).toArray()), bitLength - 1));
+    }
+
     /**
      * Decode and encode tx sigs.
      *
@@ -113,8 +132,8 @@ public class SpanBatchTxsTest {
         SpanBatchTxs txs = new SpanBatchTxs();
         txs.setTotalBlockTxCount(1625L);
         txs.setContractCreationBits(
-                Numeric.toBigInt(
-                        "0x93241abca2cd6bcf485b883fab54d2458d6ad00d09e56086e0cff4828c1c38166ccac0e9d1c32ee16ab3796a7d8433df02ce25b674efa6362cd044e7d5bb74cbc6ae2ad58b0eb7f8e8afbe13fd47470d2187872848468266ebd4914c1aefaacf1642381f001f0497261759e95f0ae2a5ac8fdd2883c9c7ca461178ded2a503661a491d1242f7236a3465a13c740ebabf5f927ca37812f3e22093345f4db5f30506cbbfac29a5fa8bdbb4d2690008701bad6b6ca8b8b5d17b6eb9e7487fcf07524564e36f5c1cbe15991e8e"));
+                toBitSet(Numeric.toBigInt(
+                        "0x93241abca2cd6bcf485b883fab54d2458d6ad00d09e56086e0cff4828c1c38166ccac0e9d1c32ee16ab3796a7d8433df02ce25b674efa6362cd044e7d5bb74cbc6ae2ad58b0eb7f8e8afbe13fd47470d2187872848468266ebd4914c1aefaacf1642381f001f0497261759e95f0ae2a5ac8fdd2883c9c7ca461178ded2a503661a491d1242f7236a3465a13c740ebabf5f927ca37812f3e22093345f4db5f30506cbbfac29a5fa8bdbb4d2690008701bad6b6ca8b8b5d17b6eb9e7487fcf07524564e36f5c1cbe15991e8e")));
         txs.decodeTxTos(Unpooled.wrappedBuffer(Numeric.hexStringToByteArray(test)));
         var res = txs.encodeTxTos();
         assertArrayEquals(Numeric.hexStringToByteArray(test), res);
@@ -464,8 +483,11 @@ public class SpanBatchTxsTest {
 
         Bytes txEncoded = TransactionEncoder.encodeOpaqueBytes(builder.build(), EncodingContext.BLOCK_BODY);
 
-        RLPInput rlpInput = new BytesValueRLPInput(txEncoded, false);
-        assertThrows(RuntimeException.class, () -> SpanBatchTxs.readTxData(rlpInput, true));
+        // the size is checked against the list header, before the tx data itself is read
+        SpanBatchTxs txs = new SpanBatchTxs();
+        txs.setTotalBlockTxCount(1L);
+        byte[] truncated = txEncoded.slice(0, 16).toArrayUnsafe();
+        assertThrows(RuntimeException.class, () -> txs.decodeTxDatas(Unpooled.wrappedBuffer(truncated)));
     }
 
     //
@@ -636,4 +658,12 @@ public class SpanBatchTxsTest {
     //        sbt.decodeTxTos(txTosBuffer);
     //        assertEquals(txTos, sbt.getTxTos());
     //    }
+
+    private static BitSet toBitSet(BigInteger bits) {
+        BitSet bitSet = new BitSet(bits.bitLength());
+        for (int i = 0; i < bits.bitLength(); i++) {
+            bitSet.set(i, bits.testBit(i));
+        }
+        return bitSet;
+    }
 }
@@ -1,19 +1,26 @@
 package io.optimism.driver;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.web3j.protocol.core.DefaultBlockParameterName.FINALIZED;
 
 import io.optimism.config.Config;
 import io.optimism.config.Config.ChainConfig;
 import io.optimism.config.Config.CliConfig;
 import io.optimism.engine.EngineApi;
+import io.optimism.types.BlockInfo;
+import io.optimism.types.Epoch;
 import java.io.IOException;
+import java.math.BigInteger;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import org.junit.jupiter.api.Test;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.methods.response.EthBlock;
 import org.web3j.protocol.http.HttpService;
+import org.web3j.tuples.generated.Tuple2;
+import org.web3j.utils.Numeric;
 
 class DriverTest {
 
@@ -41,7 +48,14 @@ class DriverTest {
                 null,
                 Config.SyncMode.Full,
                 false,
-                false);
+                false,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null);
 
         Config config = Config.create(null, cliConfig, ChainConfig.optimismSepolia());
         Web3j provider = Web3j.build(new HttpService(config.l2RpcUrl()));
@@ -52,4 +66,57 @@ class DriverTest {
                 driver.getEngineDriver().getFinalizedHead().number(),
                 finalizedBlock.getBlock().getNumber());
     }
+
+    @Test
+    void testRollbackSafeHead() {
+        Tuple2<BlockInfo, Epoch> finalized = head(100L, 10L);
+        Tuple2<BlockInfo, Epoch> safe = head(103L, 12L);
+        List<Driver.UnfinalizedBlock> unfinalized =
+                List.of(unfinalized(101L, 11L, 20L), unfinalized(102L, 11L, 21L), unfinalized(103L, 12L, 22L));
+
+        // no block was derived from the dropped L1 blocks
+        assertEquals(safe, Driver.rollbackSafeHead(unfinalized, BigInteger.valueOf(22L), safe, finalized));
+        // the last block derived from the kept L1 blocks
+        assertEquals(
+                head(102L, 11L), Driver.rollbackSafeHead(unfinalized, BigInteger.valueOf(21L), safe, finalized));
+        // every unfinalized block was derived from the dropped L1 blocks
+        assertEquals(finalized, Driver.rollbackSafeHead(unfinalized, BigInteger.valueOf(19L), safe, finalized));
+    }
+
+    @Test
+    void testRollbackSafeHeadFallback() {
+        Tuple2<BlockInfo, Epoch> finalized = head(100L, 10L);
+        Tuple2<BlockInfo, Epoch> safe = head(103L, 12L);
+
+        // a block after the first dropped one was derived from a batch that is not included again
+        List<Driver.UnfinalizedBlock> nonMonotonic =
+                List.of(unfinalized(101L, 11L, 20L), unfinalized(102L, 11L, 22L), unfinalized(103L, 12L, 21L));
+        assertNull(Driver.rollbackSafeHead(nonMonotonic, BigInteger.valueOf(21L), safe, finalized));
+
+        // the epoch of the kept block is after the common ancestor
+        List<Driver.UnfinalizedBlock> epochAfterAncestor =
+                List.of(unfinalized(101L, 21L, 20L), unfinalized(102L, 21L, 22L));
+        assertNull(Driver.rollbackSafeHead(epochAfterAncestor, BigInteger.valueOf(20L), safe, finalized));
+        assertNull(Driver.rollbackSafeHead(List.of(), BigInteger.valueOf(11L), safe, finalized));
+    }
+
+    private static Tuple2<BlockInfo, Epoch> head(long number, long epochNumber) {
+        BlockInfo blockInfo = new BlockInfo(
+                Numeric.toHexStringWithPrefix(BigInteger.valueOf(number)),
+                BigInteger.valueOf(number),
+                Numeric.toHexStringWithPrefix(BigInteger.valueOf(number - 1L)),
+                BigInteger.valueOf(number * 2L));
+        Epoch epoch = new Epoch(
+                BigInteger.valueOf(epochNumber),
+                Numeric.toHexStringWithPrefix(BigInteger.valueOf(epochNumber)),
+                BigInteger.valueOf(epochNumber * 12L),
+                BigInteger.ZERO);
+        return new Tuple2<>(blockInfo, epoch);
+    }
+
+    private static Driver.UnfinalizedBlock unfinalized(long number, long epochNumber, long l1InclusionBlock) {
+        Tuple2<BlockInfo, Epoch> head = head(number, epochNumber);
+        return new Driver.UnfinalizedBlock(
+                head.component1(), head.component2(), BigInteger.valueOf(l1InclusionBlock), BigInteger.ZERO);
+    }
 }
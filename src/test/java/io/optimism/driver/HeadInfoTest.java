@@ -14,8 +14,10 @@ import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.web3j.protocol.ObjectMapperFactory;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.Transaction;
 import org.web3j.protocol.http.HttpService;
 
 /**
@@ -108,6 +110,40 @@ class HeadInfoTest {
         }
     }
 
+    /**
+     * Should convert from a block header and its L1 attributes deposited tx to head info.
+     *
+     * @throws IOException the io exception
+     */
+    @Test
+    @DisplayName("should convert from a block header and its deposited tx to head info")
+    void shouldConvertFromBlockHeaderAndTxToHeadInfo() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        URL url = Resources.getResource("bedrock_raw_block.txt");
+        Map map = objectMapper.readValue(Resources.toString(url, Charsets.UTF_8), Map.class);
+        Map blockData = (Map) map.get("test_block_data");
+        EthBlock.Block fullBlock = objectMapper.convertValue(blockData, EthBlock.Block.class);
+
+        // the header is fetched without its transactions, the deposited tx is fetched on its own
+        Object txData = ((List) blockData.get("transactions")).getFirst();
+        Transaction tx = ObjectMapperFactory.getObjectMapper().convertValue(txData, Transaction.class);
+        blockData.put("transactions", List.of());
+        EthBlock.Block block = objectMapper.convertValue(blockData, EthBlock.Block.class);
+
+        HeadInfo headInfo = HeadInfo.from(block, tx);
+        assertEquals(map.get("assert_l2_block_hash"), headInfo.l2BlockInfo().hash());
+        assertEquals(
+                new BigInteger((String) map.get("assert_l2_block_number")),
+                headInfo.l2BlockInfo().number());
+        assertEquals(map.get("assert_l1_block_hash"), headInfo.l1Epoch().hash());
+        assertEquals(new BigInteger((String) map.get("assert_l1_block_number")), headInfo.l1Epoch().number());
+        assertEquals(HeadInfo.from(fullBlock), headInfo);
+
+        assertThrowsExactly(L1AttributesDepositedTxNotFoundException.class, () -> {
+            HeadInfo ignored = HeadInfo.from(block, null);
+        });
+    }
+
     @Test
     void testHeadInfoFromL2BlockHash() throws IOException {
         if (System.getenv("L2_TEST_RPC_URL") == null) {
@@ -8,12 +8,25 @@ import io.optimism.TestConstants;
 import io.optimism.config.Config;
 import io.optimism.types.BlobSidecar;
 import io.optimism.types.SpecConfig;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.web3j.utils.Numeric;
 
 /**
  * @author thinkAfCod
@@ -21,6 +34,9 @@ import org.junit.jupiter.api.Test;
  */
 class BeaconBlobFetcherTest {
 
+    // enough blobs for the batch verification to be split into tasks
+    private static final int BLOBS_SPLIT_IN_TASKS = 64;
+
     private static BeaconBlobFetcher fetcher;
 
     private static Config config;
@@ -76,5 +92,111 @@ class BeaconBlobFetcherTest {
         List<BlobSidecar> blobSidecars = List.of(blobSidecar);
         List<String> versionedHashes = List.of("0x0117c47bf5c7f09ff5bf881d102ed3896050fdd3eccda6f46d94698d77b20331");
         assertTrue(BeaconBlobFetcher.verifyBlobSidecars(blobSidecars, versionedHashes));
+        // the hex blob is decoded once, and the verified bytes are reused
+        byte[] blobBytes = blobSidecar.getBlobBytes();
+        assertSame(blobBytes, blobSidecar.getBlobBytes());
+        assertArrayEquals(Numeric.hexStringToByteArray(blob), blobBytes);
+        assertEquals(Numeric.toHexString(blobBytes), blobSidecar.getBlob());
+    }
+
+    @Test
+    void decodeSszBlobSidecars() throws IOException {
+        URL url = Resources.getResource("verify_blob.txt");
+        byte[] blob = Numeric.hexStringToByteArray(Resources.toString(url, Charsets.UTF_8));
+        String commitment =
+                "0x8fa54464cc0e8239eece0aaece71c0a77c3982458c90e23cf7d76047e4bc18ca53b9db993ea7c3f9c46e02a3e18c6f3f";
+        String proof =
+                "0x86d8f4e5064978a200d4b3f14433f9027b3e9fbcadf9c55cba620f188b2bb478716b0ca0fc3baa9127078696a3fc52c1";
+        ByteArrayOutputStream ssz = new ByteArrayOutputStream();
+        for (long index = 0; index < 2; index++) {
+            ssz.writeBytes(ByteBuffer.allocate(8)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .putLong(index)
+                    .array());
+            ssz.writeBytes(blob);
+            ssz.writeBytes(Numeric.hexStringToByteArray(commitment));
+            ssz.writeBytes(Numeric.hexStringToByteArray(proof));
+            ssz.writeBytes(ByteBuffer.allocate(16)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .putLong(9000L)
+                    .putLong(7L)
+                    .array());
+            // parent, state and body roots, signature and the commitment inclusion proof
+            ssz.writeBytes(new byte[32 * 3 + 96 + 32 * 17]);
+        }
+
+        List<BlobSidecar> blobSidecars = BlobSidecar.fromSsz(new ByteArrayInputStream(ssz.toByteArray()));
+        assertEquals(2, blobSidecars.size());
+        assertEquals("1", blobSidecars.getLast().getIndex());
+        assertEquals("9000", blobSidecars.getLast().getSignedBlockHeader().getMessage().getSlot());
+        assertEquals(17, blobSidecars.getLast().getKzgCommitmentInclusionProof().size());
+        assertEquals(commitment, blobSidecars.getLast().getKzgCommitment());
+        String versionedHash = "0x0117c47bf5c7f09ff5bf881d102ed3896050fdd3eccda6f46d94698d77b20331";
+        assertTrue(BeaconBlobFetcher.verifyBlobSidecars(blobSidecars, List.of(versionedHash, versionedHash)));
+
+        byte[] truncated = Arrays.copyOf(ssz.toByteArray(), ssz.size() - 1);
+        assertThrows(EOFException.class, () -> BlobSidecar.fromSsz(new ByteArrayInputStream(truncated)));
+    }
+
+    @Test
+    void hedgeSlowBeaconWithArchiver() throws Exception {
+        URL url = Resources.getResource("verify_blob.txt");
+        String blob = Resources.toString(url, Charsets.UTF_8);
+        String body =
+                """
+                {"data": [{"index": "1", "blob": "%s",
+                  "kzg_commitment": "0x8fa54464cc0e8239eece0aaece71c0a77c3982458c90e23cf7d76047e4bc18ca53b9db993ea7c3f9c46e02a3e18c6f3f",
+                  "kzg_proof": "0x86d8f4e5064978a200d4b3f14433f9027b3e9fbcadf9c55cba620f188b2bb478716b0ca0fc3baa9127078696a3fc52c1"}]}
+                """
+                        .formatted(blob);
+        try (MockWebServer beacon = new MockWebServer();
+                MockWebServer archiver = new MockWebServer()) {
+            beacon.enqueue(new MockResponse()
+                    .setHeader("Content-Type", "application/json")
+                    .setBody(body)
+                    .setHeadersDelay(10, TimeUnit.SECONDS));
+            archiver.enqueue(new MockResponse()
+                    .setHeader("Content-Type", "application/json")
+                    .setBody(body));
+            BeaconBlobFetcher hedged = new BeaconBlobFetcher(
+                    beacon.url("/").toString(), archiver.url("/").toString(), Duration.ofMillis(100L), null);
+
+            long start = System.nanoTime();
+            List<BlobSidecar> blobSidecars = hedged.getBlobSidecards(
+                    "100",
+                    List.of(BigInteger.ONE),
+                    List.of("0x0117c47bf5c7f09ff5bf881d102ed3896050fdd3eccda6f46d94698d77b20331"));
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).toSeconds() < 5);
+            assertEquals(1, blobSidecars.size());
+            assertEquals("/eth/v1/beacon/blob_sidecars/100?indices=1", archiver.takeRequest().getPath());
+        }
+    }
+
+    @Test
+    void verifyBlobSidecarsInBatches() throws IOException {
+        URL url = Resources.getResource("verify_blob.txt");
+        String blob = Resources.toString(url, Charsets.UTF_8);
+        BlobSidecar blobSidecar = new BlobSidecar(
+                "1",
+                blob,
+                null,
+                "0x8fa54464cc0e8239eece0aaece71c0a77c3982458c90e23cf7d76047e4bc18ca53b9db993ea7c3f9c46e02a3e18c6f3f",
+                "0x86d8f4e5064978a200d4b3f14433f9027b3e9fbcadf9c55cba620f188b2bb478716b0ca0fc3baa9127078696a3fc52c1",
+                null);
+        String versionedHash = "0x0117c47bf5c7f09ff5bf881d102ed3896050fdd3eccda6f46d94698d77b20331";
+        List<BlobSidecar> blobSidecars = Collections.nCopies(BLOBS_SPLIT_IN_TASKS, blobSidecar);
+        List<String> versionedHashes = Collections.nCopies(BLOBS_SPLIT_IN_TASKS, versionedHash);
+        assertTrue(BeaconBlobFetcher.verifyBlobSidecars(blobSidecars, versionedHashes));
+
+        BlobSidecar invalidProof = new BlobSidecar(
+                "2",
+                blob,
+                null,
+                blobSidecar.getKzgCommitment(),
+                blobSidecar.getKzgCommitment(),
+                null);
+        List<BlobSidecar> withInvalid = new ArrayList<>(blobSidecars);
+        withInvalid.set(BLOBS_SPLIT_IN_TASKS - 1, invalidProof);
+        assertFalse(BeaconBlobFetcher.verifyBlobSidecars(withInvalid, versionedHashes));
     }
 }
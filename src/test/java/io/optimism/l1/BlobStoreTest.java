@@ -0,0 +1,57 @@
+package io.optimism.l1;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Resources;
+import io.optimism.types.BeaconBlockHeader;
+import io.optimism.types.BeaconSignedBlockHeader;
+import io.optimism.types.BlobSidecar;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.web3j.utils.Numeric;
+
+/**
+ * Test case of BlobStore.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+class BlobStoreTest {
+
+    private static final String VERSIONED_HASH = "0x0117c47bf5c7f09ff5bf881d102ed3896050fdd3eccda6f46d94698d77b20331";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testPutAndGetByVersionedHash() throws Exception {
+        String root = Numeric.toHexString(new byte[32]);
+        BeaconBlockHeader header = new BeaconBlockHeader("9000", "7", root, root, root);
+        BlobSidecar sidecar = new BlobSidecar(
+                "1",
+                Resources.toString(Resources.getResource("verify_blob.txt"), Charsets.UTF_8),
+                new BeaconSignedBlockHeader(header, Numeric.toHexString(new byte[96])),
+                "0x8fa54464cc0e8239eece0aaece71c0a77c3982458c90e23cf7d76047e4bc18ca53b9db993ea7c3f9c46e02a3e18c6f3f",
+                "0x86d8f4e5064978a200d4b3f14433f9027b3e9fbcadf9c55cba620f188b2bb478716b0ca0fc3baa9127078696a3fc52c1",
+                Collections.nCopies(17, root));
+
+        BlobStore store = BlobStore.open(dir, 1024L * 1024L * 1024L);
+        assertSame(store, BlobStore.open(dir.resolve("."), 1024L * 1024L * 1024L));
+        assertNull(store.get(List.of(VERSIONED_HASH)));
+
+        store.put(List.of(sidecar, sidecar));
+        assertEquals(1, store.size());
+        List<BlobSidecar> stored = store.get(List.of(VERSIONED_HASH.toUpperCase().replace("0X", "0x")));
+        assertEquals(1, stored.size());
+        assertArrayEquals(sidecar.getBlobBytes(), stored.getFirst().getBlobBytes());
+        assertEquals(sidecar, stored.getFirst());
+        assertNull(store.get(List.of(VERSIONED_HASH, Numeric.toHexString(new byte[32]))));
+    }
+}
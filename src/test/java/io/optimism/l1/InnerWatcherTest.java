@@ -8,8 +8,8 @@ import io.optimism.telemetry.TracerTaskWrapper;
 import io.optimism.types.BlockUpdate;
 import io.optimism.types.enums.Logging;
 import java.math.BigInteger;
-import org.jctools.queues.MessagePassingQueue;
-import org.jctools.queues.MpscGrowableArrayQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -28,7 +28,7 @@ public class InnerWatcherTest {
         config = TestConstants.createConfig();
     }
 
-    InnerWatcher createWatcher(BigInteger l2StartBlock, MessagePassingQueue<BlockUpdate> queue) {
+    InnerWatcher createWatcher(BigInteger l2StartBlock, BlockingQueue<BlockUpdate> queue) {
         var watcherl2StartBlock = l2StartBlock;
         if (l2StartBlock == null) {
             watcherl2StartBlock = config.chainConfig().l2Genesis().number();
@@ -42,7 +42,7 @@ public class InnerWatcherTest {
         if (!TestConstants.isConfiguredApiKeyEnv) {
             return;
         }
-        var queue = new MpscGrowableArrayQueue<BlockUpdate>(1024 * 4, 1024 * 64);
+        var queue = new LinkedBlockingQueue<BlockUpdate>(1024 * 4);
         var unused = this.createWatcher(null, queue);
         unused = this.createWatcher(config.chainConfig().l2Genesis().number().add(BigInteger.TEN), queue);
     }
@@ -53,7 +53,7 @@ public class InnerWatcherTest {
             return;
         }
         TracerTaskWrapper.setTracerSupplier(Logging.INSTANCE::getTracer);
-        var queue = new MpscGrowableArrayQueue<BlockUpdate>(1024 * 4, 1024 * 64);
+        var queue = new LinkedBlockingQueue<BlockUpdate>(1024 * 4);
         var watcher = this.createWatcher(null, queue);
         watcher.startUp();
         watcher.tryIngestBlock();
@@ -0,0 +1,111 @@
+package io.optimism.l1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.optimism.telemetry.TracerTaskWrapper;
+import io.optimism.types.enums.Logging;
+import io.optimism.utilities.web3j.Web3jUtil;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.http.HttpService;
+
+/**
+ * Test case of L1BlockPrefetcher.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+class L1BlockPrefetcherTest {
+
+    @BeforeAll
+    static void setUp() {
+        TracerTaskWrapper.setTracerSupplier(Logging.INSTANCE::getTracer);
+    }
+
+    @Test
+    void testTakeInOrderWithinHead() throws Exception {
+        List<BigInteger> loaded = new CopyOnWriteArrayList<>();
+        try (var prefetcher = new L1BlockPrefetcher<BigInteger>(4, 1, nums -> () -> {
+            loaded.addAll(nums);
+            return nums;
+        })) {
+            for (long i = 10; i <= 20; i++) {
+                assertEquals(BigInteger.valueOf(i), prefetcher.take(BigInteger.valueOf(i), BigInteger.valueOf(20)));
+            }
+            assertEquals(0, prefetcher.size());
+        }
+        assertEquals(11, loaded.size());
+        assertEquals(11, loaded.stream().distinct().count());
+    }
+
+    @Test
+    void testWindowBoundedByHead() throws Exception {
+        try (var prefetcher = new L1BlockPrefetcher<BigInteger>(8, 1, nums -> () -> nums)) {
+            prefetcher.take(BigInteger.ONE, BigInteger.valueOf(3L));
+            assertEquals(2, prefetcher.size());
+            prefetcher.take(BigInteger.TWO, BigInteger.valueOf(100L));
+            assertEquals(7, prefetcher.size());
+            prefetcher.invalidate();
+            assertEquals(0, prefetcher.size());
+        }
+    }
+
+    @Test
+    void testRethrowUncheckedException() {
+        try (var prefetcher = new L1BlockPrefetcher<BigInteger>(2, 2, nums -> () -> {
+            throw new IllegalStateException("failed to load blocks %s".formatted(nums));
+        })) {
+            assertThrows(IllegalStateException.class, () -> prefetcher.take(BigInteger.ONE, BigInteger.TEN));
+            assertEquals(0, prefetcher.size());
+        }
+    }
+
+    @Test
+    void testLoadAgainAfterFailedBatch() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setResponseCode(500));
+            server.enqueue(new MockResponse().setBody("{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"0xa\"}"));
+            Web3j web3j = Web3j.build(new HttpService(server.url("/").toString()));
+            try (var prefetcher = new L1BlockPrefetcher<BigInteger>(1, 1, nums -> () -> blockNumbers(web3j, nums))) {
+                // a failed batch is a checked failure, so the watcher logs it and takes the block again
+                assertThrows(ExecutionException.class, () -> prefetcher.take(BigInteger.ONE, BigInteger.ONE));
+                assertEquals(BigInteger.TEN, prefetcher.take(BigInteger.ONE, BigInteger.ONE));
+            }
+            assertEquals(2, server.getRequestCount());
+        }
+    }
+
+    @Test
+    void testLoadInFullBatches() throws Exception {
+        List<List<BigInteger>> batches = new CopyOnWriteArrayList<>();
+        try (var prefetcher = new L1BlockPrefetcher<BigInteger>(8, 4, nums -> () -> {
+            batches.add(nums);
+            return nums;
+        })) {
+            for (long i = 0; i < 16; i++) {
+                assertEquals(BigInteger.valueOf(i), prefetcher.take(BigInteger.valueOf(i), BigInteger.valueOf(100L)));
+            }
+        }
+        assertTrue(batches.stream().allMatch(batch -> batch.size() == 4));
+        assertEquals(
+                List.of(BigInteger.ZERO, BigInteger.ONE, BigInteger.TWO, BigInteger.valueOf(3L)), batches.getFirst());
+    }
+
+    private static List<BigInteger> blockNumbers(Web3j web3j, List<BigInteger> nums)
+            throws ExecutionException, InterruptedException {
+        var requests = nums.stream().map(num -> web3j.ethBlockNumber()).toList();
+        return Web3jUtil.sendBatch(web3j, requests, 1).stream()
+                .map(EthBlockNumber::getBlockNumber)
+                .toList();
+    }
+}
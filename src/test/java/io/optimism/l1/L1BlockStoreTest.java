@@ -0,0 +1,102 @@
+package io.optimism.l1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.optimism.rpc.response.BatcherEthBlock;
+import java.math.BigInteger;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.tuples.generated.Tuple2;
+import org.web3j.utils.Numeric;
+
+/**
+ * Test case of L1BlockStore.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+class L1BlockStoreTest {
+
+    private static final String BATCH_SENDER = "0x8f23bb38f531600e5d8fddaaec41f13fab46e98c";
+
+    private static String hash(long number, int fork) {
+        byte[] bytes = new byte[32];
+        bytes[0] = (byte) fork;
+        bytes[31] = (byte) number;
+        return Numeric.toHexString(bytes);
+    }
+
+    private static <T extends EthBlock.Block> T block(T block, long number, int fork) {
+        block.setHash(hash(number, fork));
+        block.setNumber(Numeric.encodeQuantity(BigInteger.valueOf(number)));
+        block.setParentHash(hash(number - 1, fork));
+        block.setTimestamp(Numeric.encodeQuantity(BigInteger.valueOf(number * 12L)));
+        return block;
+    }
+
+    private static L1BlockStore.BatcherBlock batcherBlock(long number, int fork) {
+        return new L1BlockStore.BatcherBlock(
+                block(new BatcherEthBlock.Block(), number, fork), BATCH_SENDER, new Tuple2<>(List.of(), null));
+    }
+
+    @Test
+    void testBatcherBlockByNumber() {
+        L1BlockStore store = new L1BlockStore(L1BlockStore.DEFAULT_MAX_BYTES);
+        L1BlockStore.BatcherBlock stored = batcherBlock(10L, 0);
+        store.putBatcherBlock(stored);
+
+        assertSame(stored, store.batcherBlock(BigInteger.TEN, BATCH_SENDER.toUpperCase().replace("0X", "0x")));
+        assertNull(store.batcherBlock(BigInteger.TEN, "0x0000000000000000000000000000000000000001"));
+        assertEquals(hash(10L, 0), store.info(BigInteger.TEN).hash());
+        // only the header is stored, the full transactions must still be fetched
+        assertNull(store.block(hash(10L, 0)));
+
+        // a block of another fork becomes the canonical block of the number
+        store.putBatcherBlock(batcherBlock(10L, 1));
+        assertEquals(hash(10L, 1), store.info(BigInteger.TEN).hash());
+        assertNotNull(store.info(hash(10L, 0)));
+
+        store.removeAfter(BigInteger.valueOf(9L));
+        assertNull(store.info(BigInteger.TEN));
+        assertNull(store.info(hash(10L, 0)));
+        assertEquals(0L, store.bytes());
+    }
+
+    @Test
+    void testBlockByHashIsNotCanonical() {
+        L1BlockStore store = new L1BlockStore(L1BlockStore.DEFAULT_MAX_BYTES);
+        EthBlock.Block canonical = block(new EthBlock.Block(), 10L, 0);
+        store.putBlock(canonical);
+
+        // a block fetched by hash may be an orphan, it is stored without moving the number index
+        EthBlock.Block orphan = block(new EthBlock.Block(), 10L, 1);
+        store.putBlock(orphan, false);
+        assertSame(orphan, store.block(hash(10L, 1)));
+        assertEquals(hash(10L, 0), store.info(BigInteger.TEN).hash());
+
+        // the block fetched by number again is the canonical one
+        store.putBlock(orphan);
+        assertEquals(hash(10L, 1), store.info(BigInteger.TEN).hash());
+        assertSame(canonical, store.block(hash(10L, 0)));
+    }
+
+    @Test
+    void testEvictFinalizedBlocksOnly() {
+        L1BlockStore store = new L1BlockStore(2048L);
+        for (long number = 1L; number <= 4L; number++) {
+            store.putHeader(block(new EthBlock.Block(), number, 0));
+        }
+        // no block is finalized, all of them are kept
+        assertNotNull(store.info(BigInteger.ONE));
+
+        store.updateFinalized(BigInteger.valueOf(3L));
+        assertNull(store.info(BigInteger.ONE));
+        assertNull(store.info(BigInteger.TWO));
+        assertNotNull(store.info(BigInteger.valueOf(3L)));
+        assertEquals(2048L, store.bytes());
+    }
+}
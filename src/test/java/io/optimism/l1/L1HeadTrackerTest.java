@@ -0,0 +1,115 @@
+package io.optimism.l1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.optimism.types.BlockInfo;
+import io.reactivex.Flowable;
+import java.lang.reflect.Proxy;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.websocket.events.NewHeadsNotification;
+
+/**
+ * Test case of L1HeadTracker.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+class L1HeadTrackerTest {
+
+    private static EthBlock.Block block(long number) {
+        EthBlock.Block block = new EthBlock.Block();
+        block.setNumber("0x" + Long.toHexString(number));
+        block.setHash("0x" + Long.toHexString(number + 0x1000));
+        block.setParentHash("0x" + Long.toHexString(number + 0xfff));
+        block.setTimestamp("0x" + Long.toHexString(number * 12));
+        return block;
+    }
+
+    @Test
+    void pollHeadWithoutSubscription() throws Exception {
+        AtomicInteger polls = new AtomicInteger();
+        try (L1HeadTracker tracker = new L1HeadTracker(
+                null,
+                () -> block(100L + polls.getAndIncrement() / 2),
+                Duration.ofMillis(10L),
+                Duration.ofSeconds(24L))) {
+            tracker.start();
+            assertNull(tracker.head());
+            assertEquals(0L, tracker.version());
+
+            assertEquals(BigInteger.valueOf(100L), tracker.latest().number());
+            assertEquals(1L, tracker.version());
+            // the same head does not bump the version
+            assertEquals(BigInteger.valueOf(100L), tracker.latest().number());
+            assertEquals(1L, tracker.version());
+
+            assertEquals(BigInteger.valueOf(101L), tracker.awaitAbove(BigInteger.valueOf(100L)).number());
+            assertEquals(2L, tracker.version());
+            assertEquals(3, polls.get());
+        }
+    }
+
+    @Test
+    void closeWakesSubscribedWaiter() throws Exception {
+        NewHeadsNotification notification = ObjectMapperFactory.getObjectMapper()
+                .readValue(
+                        """
+                        {
+                          "jsonrpc": "2.0",
+                          "method": "eth_subscription",
+                          "params": {
+                            "subscription": "0x1",
+                            "result": {
+                              "number": "0x64",
+                              "hash": "0x1064",
+                              "parentHash": "0x1063",
+                              "timestamp": "0x4b0"
+                            }
+                          }
+                        }
+                        """,
+                        NewHeadsNotification.class);
+        // the websocket client only pushes one head, so a caught-up caller waits for the subscription timeout
+        Web3j wsProvider = (Web3j) Proxy.newProxyInstance(
+                Web3j.class.getClassLoader(), new Class<?>[] {Web3j.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("newHeadsNotifications")) {
+                        return Flowable.just(notification).concatWith(Flowable.never());
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        AtomicInteger polls = new AtomicInteger();
+        L1HeadTracker tracker = new L1HeadTracker(
+                wsProvider,
+                () -> {
+                    polls.incrementAndGet();
+                    return block(100L);
+                },
+                Duration.ofMillis(10L),
+                Duration.ofSeconds(24L));
+        tracker.start();
+        assertEquals(BigInteger.valueOf(100L), tracker.latest().number());
+
+        Thread closer = Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(100L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            tracker.close();
+        });
+        long start = System.nanoTime();
+        BlockInfo head = tracker.awaitAbove(BigInteger.valueOf(100L));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toSeconds() < 2);
+        assertEquals(BigInteger.valueOf(100L), head.number());
+        assertEquals(0, polls.get());
+        closer.join();
+    }
+}
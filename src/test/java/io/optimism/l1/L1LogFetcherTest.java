@@ -0,0 +1,72 @@
+package io.optimism.l1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.util.List;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.Test;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthLog.LogObject;
+import org.web3j.protocol.http.HttpService;
+
+/**
+ * Test case of L1LogFetcher.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+class L1LogFetcherTest {
+
+    private static final String DEPOSIT_CONTRACT = "0x16fc5058f25648194471939df75cf27a2fdc48bc";
+
+    private static final String SYSTEM_CONFIG_CONTRACT = "0x034edd2a225f7f429a63e0f1d2084b9e0a93b538";
+
+    private static final String TOO_MANY_RESULTS =
+            """
+            {"jsonrpc":"2.0","id":1,"error":{"code":-32602,"message":"query returned more than 10000 results"}}
+            """;
+
+    private static String logs(String... logs) {
+        return """
+                {"jsonrpc":"2.0","id":1,"result":[%s]}
+                """.formatted(String.join(",", logs));
+    }
+
+    private static String configUpdateLog(long blockNumber) {
+        return """
+                {"address":"%s","blockNumber":"0x%x","logIndex":"0x0","removed":false,
+                 "topics":["%s"],"data":"0x"}
+                """.formatted(SYSTEM_CONFIG_CONTRACT, blockNumber, L1LogFetcher.CONFIG_UPDATE_TOPIC);
+    }
+
+    @Test
+    void shrinkRangeOnTooManyResults() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setBody(TOO_MANY_RESULTS));
+            server.enqueue(new MockResponse().setBody(logs(configUpdateLog(120L))));
+            server.enqueue(new MockResponse().setBody(logs(configUpdateLog(700L))));
+            Web3j web3j = Web3j.build(new HttpService(server.url("/").toString()));
+            L1LogFetcher fetcher = new L1LogFetcher(web3j, DEPOSIT_CONTRACT, SYSTEM_CONFIG_CONTRACT);
+
+            BigInteger head = BigInteger.valueOf(5000L);
+            List<LogObject> updates = fetcher.configUpdates(BigInteger.valueOf(100L), BigInteger.valueOf(200L), head);
+            assertEquals(3, server.getRequestCount());
+            assertEquals(BigInteger.valueOf(1099L), fetcher.coveredTo());
+            assertEquals(2, updates.size());
+            assertEquals(BigInteger.valueOf(120L), updates.getFirst().getBlockNumber());
+            assertEquals(BigInteger.valueOf(700L), updates.getLast().getBlockNumber());
+
+            // served from the cached logs
+            assertTrue(fetcher.deposits(BigInteger.valueOf(700L), head).isEmpty());
+            assertEquals(
+                    1,
+                    fetcher.configUpdates(BigInteger.valueOf(500L), BigInteger.valueOf(600L), head)
+                            .size());
+            assertEquals(3, server.getRequestCount());
+            web3j.shutdown();
+        }
+    }
+}
@@ -51,6 +51,13 @@ class OpStackNetworkTest {
                 null,
                 null,
                 null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
                 Config.ChainConfig.optimismSepolia());
         OpStackNetwork opStackNetwork = new OpStackNetwork(config, unsafeBlockQueue);
         opStackNetwork.start();
@@ -120,6 +120,13 @@ public class RpcServerTest {
                 false,
                 false,
                 Config.SyncMode.Full,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
                 Config.ChainConfig.optimism()));
         rpcServer.start();
         HashMap<String, Function> rpcHandler = HashMap.newHashMap(1);
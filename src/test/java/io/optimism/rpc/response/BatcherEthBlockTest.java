@@ -0,0 +1,102 @@
+package io.optimism.rpc.response;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.optimism.rpc.response.BatcherEthBlock.BatcherTransaction;
+import io.optimism.rpc.response.BatcherEthBlock.BatcherTxFilter;
+import java.math.BigInteger;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.web3j.protocol.ObjectMapperFactory;
+
+/**
+ * Test case of BatcherEthBlock.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+@SuppressWarnings("preview")
+class BatcherEthBlockTest {
+
+    private static final String BATCH_INBOX = "0xff00000000000000000000000000000000011155";
+
+    private static final String BATCH_SENDER = "0x8f23bb38f531600e5d8fddaaec41f13fab46e98c";
+
+    private static final String BLOCK_JSON =
+            """
+            {
+              "jsonrpc": "2.0",
+              "id": 1,
+              "result": {
+                "number": "0x5b8d80",
+                "hash": "0x01",
+                "parentHash": "0x02",
+                "timestamp": "0x66000000",
+                "parentBeaconBlockRoot": "0x03",
+                "uncles": [],
+                "withdrawals": [{"index": "0x1", "amount": "0x2"}],
+                "transactions": [
+                  {
+                    "hash": "0x11",
+                    "type": "0x3",
+                    "from": "0x0000000000000000000000000000000000000001",
+                    "to": "0x0000000000000000000000000000000000000002",
+                    "input": "0x",
+                    "accessList": [{"address": "0x04", "storageKeys": ["0x05"]}],
+                    "blobVersionedHashes": ["0x21", "0x22"]
+                  },
+                  {
+                    "hash": "0x12",
+                    "type": "0x2",
+                    "from": "0x8F23BB38F531600E5D8FDDAAEC41F13FAB46E98C",
+                    "to": "0xff00000000000000000000000000000000011155",
+                    "input": "0x00abcdef"
+                  },
+                  {
+                    "hash": "0x13",
+                    "type": "0x3",
+                    "to": "0xff00000000000000000000000000000000011155",
+                    "from": "0x8f23bb38f531600e5d8fddaaec41f13fab46e98c",
+                    "blobVersionedHashes": ["0x23"],
+                    "input": ""
+                  }
+                ]
+              }
+            }
+            """;
+
+    @Test
+    void testDecodeBatcherTransactionsOnly() throws Exception {
+        BatcherEthBlock res = ScopedValue.where(BatcherEthBlock.FILTER, new BatcherTxFilter(BATCH_INBOX, BATCH_SENDER))
+                .call(() -> ObjectMapperFactory.getObjectMapper().readValue(BLOCK_JSON, BatcherEthBlock.class));
+        BatcherEthBlock.Block block = res.getBlock();
+        assertEquals(BigInteger.valueOf(0x5b8d80L), block.getNumber());
+        assertEquals("0x01", block.getHash());
+        assertEquals("0x02", block.getParentHash());
+        assertEquals("0x03", block.getParentBeaconBlockRoot());
+        assertTrue(block.getTransactions().isEmpty());
+        assertEquals(3, block.getBlobCount());
+
+        List<BatcherTransaction> txs = block.getBatcherTransactions();
+        assertEquals(2, txs.size());
+        assertFalse(txs.getFirst().isBlobTx());
+        assertArrayEquals(new byte[] {0x00, (byte) 0xab, (byte) 0xcd, (byte) 0xef}, txs.getFirst().input());
+        assertEquals(0, txs.getLast().input().length);
+        assertTrue(txs.getLast().isBlobTx());
+        assertEquals("0x13", txs.getLast().hash());
+        assertEquals(List.of("0x23"), txs.getLast().blobVersionedHashes());
+        assertEquals(2, txs.getLast().blobIndex());
+    }
+
+    @Test
+    void testDecodeAllTransactionsWithoutFilter() throws Exception {
+        BatcherEthBlock res = ObjectMapperFactory.getObjectMapper().readValue(BLOCK_JSON, BatcherEthBlock.class);
+        List<BatcherTransaction> txs = res.getBlock().getBatcherTransactions();
+        assertEquals(3, txs.size());
+        assertEquals(0, txs.getFirst().blobIndex());
+        assertEquals(2, txs.getLast().blobIndex());
+    }
+}
@@ -0,0 +1,52 @@
+package io.optimism.utilities.bloom;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.web3j.crypto.Hash;
+import org.web3j.utils.Numeric;
+
+/**
+ * Test case of LogsBloom.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+class LogsBloomTest {
+
+    private static final String SYSTEM_CONFIG_CONTRACT = "0x034edd2a225f7f429a63e0f1d2084b9e0a93b538";
+
+    private static final String DEPOSIT_CONTRACT = "0x16fc5058f25648194471939df75cf27a2fdc48bc";
+
+    private static final String CONFIG_UPDATE_TOPIC =
+            "0x1d2b0bda21d56b8bd12d4f94ebacffdfb35f5e226f84b461103bb8beab6353be";
+
+    private static void add(byte[] bloom, String value) {
+        byte[] hash = Hash.sha3(Numeric.hexStringToByteArray(value));
+        for (int i = 0; i < 6; i += 2) {
+            int bit = (((hash[i] & 0xff) << 8) | (hash[i + 1] & 0xff)) & 2047;
+            bloom[LogsBloom.BYTES - 1 - bit / 8] |= (byte) (1 << (bit % 8));
+        }
+    }
+
+    @Test
+    void testMayContain() {
+        byte[] bloom = new byte[LogsBloom.BYTES];
+        assertFalse(LogsBloom.mayContain(Numeric.toHexString(bloom), SYSTEM_CONFIG_CONTRACT, CONFIG_UPDATE_TOPIC));
+
+        add(bloom, SYSTEM_CONFIG_CONTRACT);
+        add(bloom, CONFIG_UPDATE_TOPIC);
+        String logsBloom = Numeric.toHexString(bloom);
+        assertTrue(LogsBloom.mayContain(logsBloom, SYSTEM_CONFIG_CONTRACT, CONFIG_UPDATE_TOPIC));
+        String checksumAddress = SYSTEM_CONFIG_CONTRACT.toUpperCase().replace("0X", "0x");
+        assertTrue(LogsBloom.mayContain(logsBloom, checksumAddress, CONFIG_UPDATE_TOPIC));
+        assertFalse(LogsBloom.mayContain(logsBloom, DEPOSIT_CONTRACT, CONFIG_UPDATE_TOPIC));
+    }
+
+    @Test
+    void testMissingBloomIsNotRuledOut() {
+        assertTrue(LogsBloom.mayContain(null, SYSTEM_CONFIG_CONTRACT, CONFIG_UPDATE_TOPIC));
+        assertTrue(LogsBloom.mayContain("0x", SYSTEM_CONFIG_CONTRACT, CONFIG_UPDATE_TOPIC));
+    }
+}
@@ -0,0 +1,87 @@
+package io.optimism.utilities.web3j;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.Test;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.http.HttpService;
+
+/**
+ * Test case of MultiEndpointWeb3jService.
+ *
+ * @author thinkAfCod
+ * @since 0.4.6
+ */
+class MultiEndpointWeb3jServiceTest {
+
+    private static final String BLOCK_NUMBER = """
+            {"jsonrpc":"2.0","id":1,"result":"0x10"}
+            """;
+
+    @Test
+    void failOverToTheNextEndpoint() throws Exception {
+        try (MockWebServer failing = new MockWebServer();
+                MockWebServer healthy = new MockWebServer()) {
+            failing.enqueue(new MockResponse().setResponseCode(500));
+            healthy.enqueue(new MockResponse().setBody(BLOCK_NUMBER));
+            healthy.enqueue(new MockResponse().setBody(BLOCK_NUMBER));
+            Web3j web3j = Web3j.build(create(failing, healthy, null));
+
+            assertEquals(BigInteger.valueOf(16L), web3j.ethBlockNumber().send().getBlockNumber());
+            // the failed endpoint is not requested first any more
+            assertEquals(BigInteger.valueOf(16L), web3j.ethBlockNumber().send().getBlockNumber());
+            assertEquals(1, failing.getRequestCount());
+            assertEquals(2, healthy.getRequestCount());
+            web3j.shutdown();
+        }
+    }
+
+    @Test
+    void hedgeSlowRead() throws Exception {
+        try (MockWebServer slow = new MockWebServer();
+                MockWebServer fast = new MockWebServer()) {
+            slow.enqueue(new MockResponse().setBody(BLOCK_NUMBER).setHeadersDelay(5, TimeUnit.SECONDS));
+            fast.enqueue(new MockResponse().setBody(BLOCK_NUMBER));
+            Web3j web3j = Web3j.build(create(slow, fast, Duration.ofMillis(100L)));
+
+            long start = System.nanoTime();
+            assertEquals(BigInteger.valueOf(16L), web3j.ethBlockNumber().send().getBlockNumber());
+            assertEquals(1, fast.getRequestCount());
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5L));
+            web3j.shutdown();
+        }
+    }
+
+    @Test
+    void sendWriteToTheFirstEndpointOnly() throws Exception {
+        try (MockWebServer failing = new MockWebServer();
+                MockWebServer healthy = new MockWebServer()) {
+            failing.enqueue(new MockResponse().setResponseCode(500));
+            healthy.enqueue(new MockResponse().setBody(BLOCK_NUMBER));
+            Web3j web3j = Web3j.build(create(failing, healthy, Duration.ofMillis(100L)));
+
+            assertThrows(Exception.class, () -> web3j.ethSendRawTransaction("0x00").send());
+            // the failed write is not sent again to the next endpoint
+            assertEquals(1, failing.getRequestCount());
+            assertEquals(0, healthy.getRequestCount());
+            web3j.shutdown();
+        }
+    }
+
+    private static MultiEndpointWeb3jService create(MockWebServer first, MockWebServer second, Duration hedgeDelay) {
+        String firstUrl = first.url("/").toString();
+        String secondUrl = second.url("/").toString();
+        return new MultiEndpointWeb3jService(
+                List.of(firstUrl, secondUrl),
+                List.of(new HttpService(firstUrl), new HttpService(secondUrl)),
+                hedgeDelay);
+    }
+}